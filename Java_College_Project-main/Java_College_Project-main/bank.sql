@@ -17,11 +17,72 @@ CREATE TABLE Accounts (
     AccountNumber INT PRIMARY KEY AUTO_INCREMENT,
     UserID INT,
     Balance DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    -- Bumped on every balance change, for optimistic updates
+    Version BIGINT NOT NULL DEFAULT 0,
+    -- Interest accrued but not yet paid, in 1/1,335,900,000 of a cent; see InterestAccrual
+    InterestCarry INT NOT NULL DEFAULT 0,
+    -- ISO code of the currency Balance and the account's Transactions are in; see FxRates
+    Currency CHAR(3) NOT NULL DEFAULT 'INR',
     FOREIGN KEY (UserID) REFERENCES Users(UserID)
 );
 
  ALTER TABLE Accounts AUTO_INCREMENT=9770; 
 
+-- Accounts whose credits are spread over several slot rows to avoid contention on one row
+CREATE TABLE HotAccounts (
+    AccountNumber INT PRIMARY KEY,
+    Slots INT NOT NULL,
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber)
+);
+
+-- Sub-balances of hot accounts; the balance is Accounts.Balance plus all slots
+CREATE TABLE AccountSlots (
+    AccountNumber INT,
+    Slot INT,
+    Balance DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (AccountNumber, Slot),
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber)
+);
+
+-- One row per transfer, referenced by its Withdrawal and Deposit legs in Transactions
+CREATE TABLE Transfers (
+    TransferID INT AUTO_INCREMENT PRIMARY KEY,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    Amount DECIMAL(10, 2) NOT NULL,
+    -- Amount converted to the destination account's currency, the same as Amount when both accounts share one
+    ToAmount DECIMAL(10, 2) NOT NULL,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Posted',
+    CreatedAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (FromAccount) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (ToAccount) REFERENCES Accounts(AccountNumber),
+    -- transfers from A to B are one range of this index, so A and B in either direction are two
+    INDEX TransfersBetween (FromAccount, ToAccount, TransferID),
+    INDEX TransfersInto (ToAccount, TransferID)
+);
+
+-- Recurring transfers, run by StandingOrders; NextRun is FirstRun plus Runs periods, so monthly orders keep their day
+CREATE TABLE StandingOrders (
+    OrderID INT AUTO_INCREMENT PRIMARY KEY,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    Amount DECIMAL(10, 2) NOT NULL,
+    Every INT NOT NULL,
+    Unit VARCHAR(5) NOT NULL,
+    FirstRun DATETIME NOT NULL,
+    Runs INT NOT NULL DEFAULT 0,
+    NextRun DATETIME NOT NULL,
+    EndDate DATETIME NULL,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Active',
+    LastTransferID INT NULL,
+    LastError VARCHAR(100) NULL,
+    Failures INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (FromAccount) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (ToAccount) REFERENCES Accounts(AccountNumber),
+    -- the scheduler loads the active orders due within its horizon as one range of this index
+    INDEX StandingOrdersDue (Status, NextRun)
+);
+
 -- Create Transactions table
 CREATE TABLE Transactions (
     TransactionID INT AUTO_INCREMENT PRIMARY KEY,
@@ -29,27 +90,98 @@ CREATE TABLE Transactions (
     TransactionType VARCHAR(50),
     Amount DECIMAL(10, 2) NOT NULL,
     TransactionDate DATETIME DEFAULT CURRENT_TIMESTAMP,
-    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber)
+    -- the account's currency, filled in by TagTransactionCurrency when an insert leaves it out
+    Currency CHAR(3) NULL,
+    -- set on both legs of a transfer, NULL for deposits and withdrawals; the foreign key indexes it
+    TransferID INT NULL,
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (TransferID) REFERENCES Transfers(TransferID)
+);
+
+-- Today's withdrawals are read at startup to seed the daily limit counters
+CREATE INDEX TransactionsByDate ON Transactions (TransactionDate, TransactionType);
+
+-- History searches: one account's rows in date order, with type and amount in the index so filters and counts never read the table
+CREATE INDEX TransactionsByAccount ON Transactions (AccountNumber, TransactionDate, TransactionType, Amount);
+
+-- Count and total of Transactions per account, day and type, kept by the RollUpTransaction trigger; searches sum whole days from here
+CREATE TABLE DailyTotals (
+    AccountNumber INT,
+    Day DATE,
+    TransactionType VARCHAR(50),
+    Count INT NOT NULL,
+    Total DECIMAL(18, 2) NOT NULL,
+    PRIMARY KEY (AccountNumber, Day, TransactionType)
 );
 
 
 -- Transaction Backups table
 CREATE TABLE TransactionsBackup (
     TransactionID INT AUTO_INCREMENT PRIMARY KEY,
+    AccountNumber INT,
     TransactionType VARCHAR(50),
     Amount DECIMAL(10, 2) NOT NULL,
     TransactionDate DATETIME DEFAULT CURRENT_TIMESTAMP
 );
+
+-- Reconciliation sums the journal per account from this index alone, as it does Transactions from TransactionsByAccount
+CREATE INDEX TransactionsBackupByAccount ON TransactionsBackup (AccountNumber, TransactionType, Amount);
+
+-- Idempotency keys of deposits, withdrawals and transfers, with a hash of the request and the TransactionIDs it produced
+CREATE TABLE IdempotencyKeys (
+    IdemKey VARCHAR(64) PRIMARY KEY,
+    RequestHash CHAR(64),
+    Result VARCHAR(64),
+    CreatedAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+    INDEX (CreatedAt)
+);
+
+-- One row per night of InterestAccrual, with the rate it was run at
+CREATE TABLE InterestRuns (
+    RunDay DATE PRIMARY KEY,
+    RateBasisPoints INT NOT NULL,
+    DaysInYear INT NOT NULL,
+    StartedAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FinishedAt DATETIME NULL
+);
+
+-- Account ranges of a run; LastAccount is committed with each chunk, so a restarted run carries on where it stopped
+CREATE TABLE InterestPartitions (
+    RunDay DATE,
+    PartitionNo INT,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    LastAccount INT NOT NULL,
+    Accounts INT NOT NULL DEFAULT 0,
+    Interest DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Pending',
+    FinishedAt DATETIME NULL,
+    PRIMARY KEY (RunDay, PartitionNo),
+    FOREIGN KEY (RunDay) REFERENCES InterestRuns(RunDay)
+);
+
+-- Written on the primary by ReadRouting every heartbeat, read back on the replicas to measure their lag
+CREATE TABLE ReplicaHeartbeat (
+    Id INT PRIMARY KEY,
+    Beat BIGINT NOT NULL
+);
 -- =======================================================================================================================================
 -- ====================================== VIIEWS =========================================================================================
 -- =======================================================================================================================================
 CREATE VIEW UserAccounts AS
-SELECT Users.*, Accounts.AccountNumber, Accounts.Balance
+SELECT Users.*, Accounts.AccountNumber, Accounts.Balance, Accounts.Currency
 FROM Users
 JOIN Accounts ON Users.UserID = Accounts.UserID;
 SELECT * FROM UserAccounts;
 
 
+CREATE VIEW AccountBalances AS
+SELECT Accounts.AccountNumber,
+       Accounts.Balance + COALESCE((SELECT SUM(AccountSlots.Balance) FROM AccountSlots WHERE AccountSlots.AccountNumber = Accounts.AccountNumber), 0) AS Balance,
+       Accounts.Currency
+FROM Accounts;
+
+
 CREATE VIEW LoginPass AS
 SELECT Accounts.AccountNumber, Password
 FROM Users
@@ -60,22 +192,48 @@ SELECT * FROM LoginPass ;
 -- =======================================================================================================================================
 DELIMITER //
 
+-- Amounts are always in the account's currency, converted before they are posted
+CREATE TRIGGER TagTransactionCurrency
+BEFORE INSERT ON Transactions
+FOR EACH ROW
+BEGIN
+    IF NEW.Currency IS NULL THEN
+        SET NEW.Currency = (SELECT Currency FROM Accounts WHERE AccountNumber = NEW.AccountNumber);
+    END IF;
+END //
+
+
 CREATE TRIGGER BackupTransaction
 AFTER INSERT ON Transactions
 FOR EACH ROW
 BEGIN
-    INSERT INTO TransactionsBackup (TransactionType, Amount, TransactionDate)
-    VALUES (NEW.TransactionType, NEW.Amount, NEW.TransactionDate);
+    INSERT INTO TransactionsBackup (TransactionID, AccountNumber, TransactionType, Amount, TransactionDate)
+    VALUES (NEW.TransactionID, NEW.AccountNumber, NEW.TransactionType, NEW.Amount, NEW.TransactionDate);
 END //
 
 
+-- Bulk transfer batches and optimistic postings set @BulkPosting = 1 and update the balance themselves
 CREATE TRIGGER UpdateAccountBalance
 AFTER INSERT ON Transactions
 FOR EACH ROW
 BEGIN
-    UPDATE Accounts
-    SET Balance = Balance + (CASE WHEN NEW.TransactionType = 'Deposit' THEN NEW.Amount ELSE -NEW.Amount END)
-    WHERE Accounts.AccountNumber = NEW.AccountNumber;
+    IF @BulkPosting IS NULL THEN
+        UPDATE Accounts
+        SET Balance = Balance + (CASE WHEN NEW.TransactionType = 'Deposit' THEN NEW.Amount ELSE -NEW.Amount END),
+            Version = Version + 1
+        WHERE Accounts.AccountNumber = NEW.AccountNumber;
+    END IF;
+END //
+
+
+-- Unlike the balance trigger this one also runs for bulk postings, so DailyTotals always matches Transactions
+CREATE TRIGGER RollUpTransaction
+AFTER INSERT ON Transactions
+FOR EACH ROW
+BEGIN
+    INSERT INTO DailyTotals (AccountNumber, Day, TransactionType, Count, Total)
+    VALUES (NEW.AccountNumber, DATE(NEW.TransactionDate), NEW.TransactionType, 1, NEW.Amount)
+    ON DUPLICATE KEY UPDATE Count = Count + 1, Total = Total + NEW.Amount;
 END //
 
 
@@ -111,11 +269,11 @@ CREATE PROCEDURE Withdraw(
     IN Amount DECIMAL(10, 2)
 )
 BEGIN
-    DECLARE Balance DECIMAL(10, 2);
+    DECLARE CurrentBalance DECIMAL(10, 2);
 
-    SELECT Balance INTO Balance FROM Accounts WHERE AccountNumber = _AccountNumber;
+    SELECT Balance INTO CurrentBalance FROM AccountBalances WHERE AccountNumber = _AccountNumber;
 
-    IF Balance < Amount THEN
+    IF CurrentBalance < Amount THEN
         SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Insufficient funds.';
     ELSE
         INSERT INTO Transactions (AccountNumber, TransactionType, Amount)
@@ -152,7 +310,8 @@ END //
 DROP PROCEDURE IF EXISTS CreateAccount//
 CREATE PROCEDURE CreateAccount(
     IN UserID INT,
-    IN InitialBalance DECIMAL(10, 2)
+    IN InitialBalance DECIMAL(10, 2),
+    IN _Currency CHAR(3)
 )
 BEGIN
     DECLARE ExistsCount INT;
@@ -162,23 +321,32 @@ BEGIN
     IF ExistsCount = 0 THEN
         SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'User does not exist.';
     ELSE
-        INSERT INTO Accounts (UserID, Balance)
-        VALUES (UserID, InitialBalance);
-        
+        -- the opening balance goes in as a Deposit, so the account's Transactions add up to its balance
+        INSERT INTO Accounts (UserID, Balance, Currency)
+        VALUES (UserID, 0, COALESCE(_Currency, 'INR'));
+        IF InitialBalance > 0 THEN
+            INSERT INTO Transactions (AccountNumber, TransactionType, Amount)
+            VALUES (LAST_INSERT_ID(), 'Deposit', InitialBalance);
+        END IF;
+
     END IF;
 END //
 
 
 DROP PROCEDURE IF EXISTS SendFunds//
 
+-- Amount is in FromAccount's currency and ToAmount the same sum in ToAccount's, converted by the caller (see FxRates)
 CREATE PROCEDURE SendFunds (
     IN FromAccount INT,
     IN ToAccount INT,
-    IN Amount DECIMAL(10, 2)
+    IN Amount DECIMAL(10, 2),
+    IN ToAmount DECIMAL(10, 2)
 )
 BEGIN
     DECLARE FromBalance DECIMAL(10, 2);
     DECLARE ToExists INT;
+    DECLARE WithdrawalID INT;
+    DECLARE NewTransferID INT;
 
     -- Check if 'To' account exists
     SELECT COUNT(*) INTO ToExists FROM Accounts WHERE AccountNumber = ToAccount;
@@ -187,18 +355,26 @@ BEGIN
         SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Destination account does not exist.';
     ELSE
         -- Check if 'From' account has sufficient balance
-        SELECT Balance INTO FromBalance FROM Accounts WHERE AccountNumber = FromAccount;
+        SELECT Balance INTO FromBalance FROM AccountBalances WHERE AccountNumber = FromAccount;
 
         IF FromBalance < Amount THEN
             SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'Insufficient funds in source account.';
         ELSE
+            INSERT INTO Transfers (FromAccount, ToAccount, Amount, ToAmount)
+            VALUES (FromAccount, ToAccount, Amount, ToAmount);
+            SET NewTransferID = LAST_INSERT_ID();
+
             -- Withdraw from sender account (assuming trigger updates balance)
-            INSERT INTO Transactions (AccountNumber, TransactionType, Amount)
-            VALUES (FromAccount, 'Withdrawal', Amount);
+            INSERT INTO Transactions (AccountNumber, TransactionType, Amount, TransferID)
+            VALUES (FromAccount, 'Withdrawal', Amount, NewTransferID);
+            SET WithdrawalID = LAST_INSERT_ID();
 
             -- Deposit to receiver account (assuming trigger updates balance)
-            INSERT INTO Transactions (AccountNumber, TransactionType, Amount)
-            VALUES (ToAccount, 'Deposit', Amount);
+            INSERT INTO Transactions (AccountNumber, TransactionType, Amount, TransferID)
+            VALUES (ToAccount, 'Deposit', ToAmount, NewTransferID);
+
+            -- Both legs, for the posting feed, and the transfer
+            SELECT WithdrawalID, LAST_INSERT_ID() AS DepositID, NewTransferID AS TransferID;
         END IF;
     END IF;
 END //
@@ -247,15 +423,15 @@ DELIMITER ;
 CALL CreateUser( 'Test', 'User', 'testuser@example.com', 'password123');
 CALL CreateUser( '2', '2', '2@example.com', 'password123');
 
-CALL CreateAccount(1, 1000.00); 
-CALL CreateAccount(2, 1000.00); 
+CALL CreateAccount(1, 1000.00, 'INR'); 
+CALL CreateAccount(2, 1000.00, 'INR'); 
 
 CALL Deposit(9770, 500.00); 
 
 CALL Withdraw(9771, 200.00); 
 
 
-CALL SendFunds(9770, 9771, 300.00);
+CALL SendFunds(9770, 9771, 300.00, 300.00);
 CALL CreateUserAndAccount('John', 'Doe', 'john.doe@example.com', 'password123');
 
 
@@ -266,13 +442,142 @@ DELIMITER //
 DROP PROCEDURE IF EXISTS GetTransactionHistory//
 CREATE PROCEDURE GetTransactionHistory(IN _AccountNumber INT)
 BEGIN
-    SELECT TransactionType,Amount,TransactionDate FROM Transactions WHERE AccountNumber = _AccountNumber;
+    SELECT TransactionID,TransactionType,Amount,TransactionDate FROM Transactions WHERE AccountNumber = _AccountNumber ORDER BY TransactionID;
 END //
 
 CALL GetTransactionHistory(9775);//
 
 
-DROP PROCEDURE IF EXISTS ChangePin;
+-- Searches take NULL for any filter they do not use; _To is exclusive.
+DROP PROCEDURE IF EXISTS CountTransactions//
+CREATE PROCEDURE CountTransactions(
+    IN _AccountNumber INT,
+    IN _From DATETIME,
+    IN _To DATETIME,
+    IN _Type VARCHAR(50),
+    IN _MinAmount DECIMAL(10, 2),
+    IN _MaxAmount DECIMAL(10, 2),
+    IN _Counterparty INT
+)
+BEGIN
+    DECLARE FirstDay DATETIME;
+    DECLARE EndDay DATETIME;
+
+    SET _From = COALESCE(_From, '1000-01-01');
+    SET _To = COALESCE(_To, '9999-12-31');
+
+    IF _Counterparty IS NOT NULL THEN
+        -- only transfer legs with the counterparty, found from its transfers rather than the whole history
+        SELECT COUNT(*) AS Matches,
+               COALESCE(SUM(IF(Transactions.TransactionType = 'Deposit', Transactions.Amount, 0)), 0) AS Deposits,
+               COALESCE(SUM(IF(Transactions.TransactionType = 'Withdrawal', Transactions.Amount, 0)), 0) AS Withdrawals
+        FROM Transfers
+        JOIN Transactions ON Transactions.TransferID = Transfers.TransferID AND Transactions.AccountNumber = _AccountNumber
+        WHERE (Transfers.FromAccount = _AccountNumber AND Transfers.ToAccount = _Counterparty
+               OR Transfers.FromAccount = _Counterparty AND Transfers.ToAccount = _AccountNumber)
+          AND Transactions.TransactionDate >= _From AND Transactions.TransactionDate < _To
+          AND (_Type IS NULL OR Transactions.TransactionType = _Type)
+          AND Transactions.Amount BETWEEN COALESCE(_MinAmount, -99999999.99) AND COALESCE(_MaxAmount, 99999999.99);
+    ELSE
+        -- Whole days in [FirstDay, EndDay) are summed from DailyTotals and only the partial days at either end
+        -- are read from Transactions. DailyTotals has no amounts, so an amount filter reads the whole range.
+        SET FirstDay = IF(TIME(_From) = 0, DATE(_From), DATE(_From) + INTERVAL 1 DAY);
+        SET EndDay = DATE(_To);
+        IF FirstDay >= EndDay OR _MinAmount IS NOT NULL OR _MaxAmount IS NOT NULL THEN
+            SET FirstDay = _To;
+            SET EndDay = _To;
+        END IF;
+
+        SELECT COALESCE(SUM(Matches), 0) AS Matches,
+               COALESCE(SUM(Deposits), 0) AS Deposits,
+               COALESCE(SUM(Withdrawals), 0) AS Withdrawals
+        FROM (
+            SELECT SUM(Count) AS Matches,
+                   SUM(IF(TransactionType = 'Deposit', Total, 0)) AS Deposits,
+                   SUM(IF(TransactionType = 'Withdrawal', Total, 0)) AS Withdrawals
+            FROM DailyTotals
+            WHERE AccountNumber = _AccountNumber AND Day >= FirstDay AND Day < EndDay
+              AND (_Type IS NULL OR TransactionType = _Type)
+            UNION ALL
+            SELECT COUNT(*),
+                   SUM(IF(TransactionType = 'Deposit', Amount, 0)),
+                   SUM(IF(TransactionType = 'Withdrawal', Amount, 0))
+            FROM Transactions
+            WHERE AccountNumber = _AccountNumber
+              AND (TransactionDate >= _From AND TransactionDate < FirstDay OR TransactionDate >= EndDay AND TransactionDate < _To)
+              AND (_Type IS NULL OR TransactionType = _Type)
+              AND Amount BETWEEN COALESCE(_MinAmount, -99999999.99) AND COALESCE(_MaxAmount, 99999999.99)
+        ) Parts;
+    END IF;
+END //
+
+
+DROP PROCEDURE IF EXISTS SearchTransactions//
+CREATE PROCEDURE SearchTransactions(
+    IN _AccountNumber INT,
+    IN _From DATETIME,
+    IN _To DATETIME,
+    IN _Type VARCHAR(50),
+    IN _MinAmount DECIMAL(10, 2),
+    IN _MaxAmount DECIMAL(10, 2),
+    IN _Counterparty INT,
+    IN _BeforeDate DATETIME,
+    IN _BeforeID INT,
+    IN _Limit INT
+)
+BEGIN
+    -- _BeforeDate and _BeforeID are the last row of the previous page, NULL for the first page;
+    -- the next page continues below it on (TransactionDate, TransactionID)
+    IF _Counterparty IS NOT NULL THEN
+        SELECT Transactions.TransactionID, Transactions.TransactionType, Transactions.Amount, Transactions.TransactionDate
+        FROM Transfers
+        JOIN Transactions ON Transactions.TransferID = Transfers.TransferID AND Transactions.AccountNumber = _AccountNumber
+        WHERE (Transfers.FromAccount = _AccountNumber AND Transfers.ToAccount = _Counterparty
+               OR Transfers.FromAccount = _Counterparty AND Transfers.ToAccount = _AccountNumber)
+          AND Transactions.TransactionDate >= COALESCE(_From, '1000-01-01') AND Transactions.TransactionDate < COALESCE(_To, '9999-12-31')
+          AND (_Type IS NULL OR Transactions.TransactionType = _Type)
+          AND Transactions.Amount BETWEEN COALESCE(_MinAmount, -99999999.99) AND COALESCE(_MaxAmount, 99999999.99)
+          AND Transactions.TransactionDate <= COALESCE(_BeforeDate, '9999-12-31')
+          AND (_BeforeDate IS NULL OR Transactions.TransactionDate < _BeforeDate OR Transactions.TransactionID < _BeforeID)
+        ORDER BY Transactions.TransactionDate DESC, Transactions.TransactionID DESC
+        LIMIT _Limit;
+    ELSE
+        -- newest first, read backwards along TransactionsByAccount and stopped at the limit
+        SELECT TransactionID, TransactionType, Amount, TransactionDate
+        FROM Transactions
+        WHERE AccountNumber = _AccountNumber
+          AND TransactionDate >= COALESCE(_From, '1000-01-01') AND TransactionDate < COALESCE(_To, '9999-12-31')
+          AND (_Type IS NULL OR TransactionType = _Type)
+          AND Amount BETWEEN COALESCE(_MinAmount, -99999999.99) AND COALESCE(_MaxAmount, 99999999.99)
+          AND TransactionDate <= COALESCE(_BeforeDate, '9999-12-31')
+          AND (_BeforeDate IS NULL OR TransactionDate < _BeforeDate OR TransactionID < _BeforeID)
+        ORDER BY TransactionDate DESC, TransactionID DESC
+        LIMIT _Limit;
+    END IF;
+END //
+
+CALL CountTransactions(9770, NULL, NULL, 'Deposit', NULL, NULL, NULL);//
+
+
+-- Transfers between two accounts in either direction, newest first: two ranges of TransfersBetween
+DROP PROCEDURE IF EXISTS TransfersBetween//
+CREATE PROCEDURE TransfersBetween(IN _AccountA INT, IN _AccountB INT, IN _Limit INT)
+BEGIN
+    (SELECT TransferID, FromAccount, ToAccount, Amount, ToAmount, Status, CreatedAt
+     FROM Transfers WHERE FromAccount = _AccountA AND ToAccount = _AccountB
+     ORDER BY TransferID DESC LIMIT _Limit)
+    UNION ALL
+    (SELECT TransferID, FromAccount, ToAccount, Amount, ToAmount, Status, CreatedAt
+     FROM Transfers WHERE FromAccount = _AccountB AND ToAccount = _AccountA AND _AccountA <> _AccountB
+     ORDER BY TransferID DESC LIMIT _Limit)
+    ORDER BY TransferID DESC
+    LIMIT _Limit;
+END //
+
+CALL TransfersBetween(9770, 9771, 10);//
+
+
+DROP PROCEDURE IF EXISTS ChangePin//
 DELIMITER //
 CREATE PROCEDURE ChangePin(IN _AccountNumber INT, IN _NewPin VARCHAR(4))
 BEGIN
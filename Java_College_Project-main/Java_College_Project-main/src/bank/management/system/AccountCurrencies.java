@@ -0,0 +1,64 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * The currency of each account, as an FxRates id. An account's currency
+ * never changes, so each is read from Accounts once and kept in a byte per
+ * account, indexed by account number from 9770 like BalanceReplica: ten
+ * million accounts take 10 MB and a lookup is an array read.
+ */
+public class AccountCurrencies {
+
+    /** FxRates id plus one per account, 0 where not read yet. */
+    private static volatile byte[] ids = new byte[0];
+
+    /** The account's currency id, reading it on first use. Fails if the account does not exist. */
+    public static int of(Conn conn, int accountNumber) throws SQLException {
+        int cached = cached(accountNumber);
+        if (cached >= 0) {
+            return cached;
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement("SELECT Currency FROM Accounts WHERE AccountNumber = ?")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Account does not exist.", "45000");
+            }
+            int id = FxRates.id(rs.getString(1));
+            remember(accountNumber, id);
+            return id;
+        }
+    }
+
+    public static String codeOf(Conn conn, int accountNumber) throws SQLException {
+        return FxRates.code(of(conn, accountNumber));
+    }
+
+    /** The account's currency id if it has been read, otherwise -1. */
+    public static int cached(int accountNumber) {
+        byte[] current = ids;
+        int slot = accountNumber - BalanceReplica.FIRST_ACCOUNT;
+        return slot >= 0 && slot < current.length && current[slot] != 0 ? (current[slot] & 0xFF) - 1 : -1;
+    }
+
+    public static synchronized void remember(int accountNumber, int id) {
+        int slot = accountNumber - BalanceReplica.FIRST_ACCOUNT;
+        if (slot < 0) {
+            return;
+        }
+        byte[] current = ids;
+        if (slot >= current.length) {
+            current = Arrays.copyOf(current, Math.max(slot + 1, current.length + (current.length >> 1) + 1024));
+        }
+        current[slot] = (byte) (id + 1);
+        ids = current;
+    }
+}
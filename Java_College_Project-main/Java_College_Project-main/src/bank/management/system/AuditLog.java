@@ -0,0 +1,458 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only audit log of logins, PIN changes, sign-ups and postings,
+ * chained with SHA-256 so that changing, removing or reordering a record
+ * shows up. It is kept in the file named by bank.audit.file (default
+ * audit.log): a 40 byte header (magic, then the hash the chain starts
+ * from) followed by records of
+ *
+ *   length int, seq long, time long, kind byte, account int,
+ *   reference long, amount in cents long, detail length short,
+ *   detail UTF-8, hash (32 bytes), length int
+ *
+ * where the hash is of the previous record's hash followed by this record
+ * up to the end of the detail. Rewriting one record means rewriting every
+ * hash after it, so the head printed by AuditVerifier should be kept
+ * somewhere else too. The length at both ends lets the log be opened from
+ * its last record without reading the rest.
+ *
+ * Callers only put an event on a queue. One writer thread numbers, hashes
+ * and encodes the events in a buffer, writes the buffer with one call per
+ * batch and forces the file to disk at most every bank.audit.syncMillis
+ * (default 10), so a burst of events shares one fsync. A crash can lose
+ * the events of the last interval; a torn last record is cut off when the
+ * log is opened again. Only a tail no longer than one write is cut: more
+ * bytes than that after the last whole record the walk finds means damage
+ * earlier in the file, and the log refuses to open rather than drop the
+ * records behind it. The file is locked while open, and a second process
+ * on the same directory writes audit.<pid>.log instead. Off with
+ * -Dbank.audit=false.
+ */
+public class AuditLog {
+
+    public static final byte LOGIN = 1;
+    public static final byte LOGIN_FAILED = 2;
+    public static final byte PIN_CHANGE = 3;
+    public static final byte PIN_CHANGE_FAILED = 4;
+    public static final byte SIGN_UP = 5;
+    public static final byte POSTING = 6;
+    static final String[] KINDS = { "?", "login", "login_failed", "pin_change", "pin_change_failed", "sign_up", "posting" };
+
+    /** "BANKAUD1" */
+    static final long MAGIC = 0x42414E4B41554431L;
+    static final int HEADER = 40;
+    /** Bytes of a record before its detail. */
+    static final int FIXED = 43;
+    /** Bytes of a record after its detail: the hash and the length again. */
+    static final int TRAILER = 36;
+    static final int MAX_DETAIL = 1024;
+    static final int MAX_RECORD = FIXED + MAX_DETAIL + TRAILER;
+    private static final int WINDOW = 1 << 30;
+    private static final int BATCH = 4096;
+    /** The most bytes one write puts in the file, so the longest tail a crash can tear. */
+    private static final int WRITE = 1 << 20;
+
+    private static AuditLog shared;
+    private static boolean opened;
+
+    public final Path path;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private final BlockingQueue<Event> queue;
+    private final long syncNanos;
+    private final MessageDigest sha = sha256();
+    private final ByteBuffer out = ByteBuffer.allocateDirect(WRITE);
+    private final byte[] record = new byte[MAX_RECORD];
+    private final ByteBuffer encoder = ByteBuffer.wrap(record);
+    private final byte[] head = new byte[32];
+    private final Thread writer;
+    private long seq;
+    private volatile long written;
+    private volatile long synced;
+    private volatile long syncs;
+    private volatile boolean closing;
+    private volatile IOException failure;
+
+    private static final class Event {
+
+        final long time;
+        final byte kind;
+        final int account;
+        final long reference;
+        final long amountCents;
+        final String detail;
+
+        Event(long time, byte kind, int account, long reference, long amountCents, String detail) {
+            this.time = time;
+            this.kind = kind;
+            this.account = account;
+            this.reference = reference;
+            this.amountCents = amountCents;
+            this.detail = detail;
+        }
+    }
+
+    private AuditLog(Path path, FileChannel channel, FileLock lock, long syncMillis, int capacity) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.lock = lock;
+        this.syncNanos = TimeUnit.MILLISECONDS.toNanos(syncMillis);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        recover();
+        writer = new Thread(this::run, "audit-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Opens a log for appending, creating it if needed. Returns null if
+     * another process has it open.
+     */
+    public static AuditLog open(Path path, long syncMillis, int capacity) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                channel.close();
+                return null;
+            }
+            return new AuditLog(path, channel, lock, syncMillis, capacity);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** The log of this process, opened on first use and closed at exit. Null if it is off or cannot be opened. */
+    public static synchronized AuditLog shared() {
+        if (!opened) {
+            opened = true;
+            if (!Boolean.parseBoolean(System.getProperty("bank.audit", "true"))) {
+                return null;
+            }
+            try {
+                long syncMillis = Long.getLong("bank.audit.syncMillis", 10);
+                int capacity = Integer.getInteger("bank.audit.queue", 65536);
+                Path path = Paths.get(System.getProperty("bank.audit.file", "audit.log"));
+                shared = open(path, syncMillis, capacity);
+                if (shared == null) {
+                    Path own = path.resolveSibling(withPid(path.getFileName().toString()));
+                    System.out.println(path + " is in use, auditing to " + own);
+                    shared = open(own, syncMillis, capacity);
+                }
+                AuditLog log = shared;
+                Runtime.getRuntime().addShutdownHook(new Thread(log::close, "audit-log-close"));
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Audit log unavailable, " + e);
+                shared = null;
+            }
+        }
+        return shared;
+    }
+
+    /** The log of this process if it has been opened, without opening it. */
+    static synchronized AuditLog current() {
+        return shared;
+    }
+
+    private static String withPid(String name) {
+        long pid = ProcessHandle.current().pid();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? name + "." + pid : name.substring(0, dot) + "." + pid + name.substring(dot);
+    }
+
+    /** Appends an event to the log of this process, if there is one. */
+    public static void record(byte kind, int account, long reference, long amountCents, String detail) {
+        AuditLog log = shared();
+        if (log != null) {
+            log.append(kind, account, reference, amountCents, detail);
+        }
+    }
+
+    /** Queues an event, waiting only while the queue is full. */
+    public void append(byte kind, int account, long reference, long amountCents, String detail) {
+        if (failure != null || closing) {
+            return;
+        }
+        try {
+            queue.put(new Event(System.currentTimeMillis(), kind, account, reference, amountCents, detail));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.out.println("Audit event not recorded, " + KINDS[kind] + " " + account);
+        }
+    }
+
+    /** Records written to the file so far, including those before it was opened. */
+    public long records() {
+        return written;
+    }
+
+    /** Records known to be on disk. */
+    public long synced() {
+        return synced;
+    }
+
+    public long syncs() {
+        return syncs;
+    }
+
+    public int queued() {
+        return queue.size();
+    }
+
+    /** Writes and forces everything queued so far, then closes the file. */
+    public void close() {
+        if (closing) {
+            return;
+        }
+        closing = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            System.out.println(e);
+        }
+    }
+
+    private void run() {
+        List<Event> batch = new ArrayList<>(BATCH);
+        long lastSync = System.nanoTime();
+        boolean dirty = false;
+        try {
+            while (!closing || !queue.isEmpty()) {
+                long wait = dirty ? Math.max(0, lastSync + syncNanos - System.nanoTime()) : TimeUnit.MILLISECONDS.toNanos(100);
+                Event first = queue.poll(wait, TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, BATCH - 1);
+                    for (Event e : batch) {
+                        encode(e);
+                    }
+                    batch.clear();
+                    flush();
+                    dirty = true;
+                }
+                if (dirty && System.nanoTime() - lastSync >= syncNanos) {
+                    sync();
+                    lastSync = System.nanoTime();
+                    dirty = false;
+                }
+            }
+            if (dirty) {
+                sync();
+            }
+        } catch (IOException e) {
+            failure = e;
+            System.out.println("Audit log stopped, " + e);
+        } catch (InterruptedException e) {
+            // daemon thread at exit; whatever is queued is lost
+        }
+    }
+
+    private void encode(Event e) throws IOException {
+        byte[] detail = e.detail == null ? new byte[0] : e.detail.getBytes(StandardCharsets.UTF_8);
+        if (detail.length > MAX_DETAIL) {
+            detail = Arrays.copyOf(detail, MAX_DETAIL);
+        }
+        int length = FIXED + detail.length + TRAILER;
+        encoder.clear();
+        encoder.putInt(length).putLong(++seq).putLong(e.time).put(e.kind).putInt(e.account)
+                .putLong(e.reference).putLong(e.amountCents).putShort((short) detail.length).put(detail);
+        sha.update(head);
+        sha.update(record, 0, FIXED + detail.length);
+        try {
+            sha.digest(head, 0, head.length);
+        } catch (DigestException ex) {
+            throw new IllegalStateException(ex);
+        }
+        encoder.put(head).putInt(length);
+        if (out.remaining() < length) {
+            flush();
+        }
+        out.put(record, 0, length);
+    }
+
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+        written = seq;
+    }
+
+    private void sync() throws IOException {
+        long started = System.nanoTime();
+        channel.force(false);
+        Metrics.AUDIT_SYNC.recordSince(started);
+        synced = written;
+        syncs++;
+    }
+
+    /**
+     * Finds the last whole record, cuts off a torn write after it, and
+     * continues the chain from it. Fails if what follows the last whole
+     * record is longer than one write.
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            header.putLong(MAGIC).put(new byte[32]).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, HEADER - header.remaining());
+            }
+            channel.force(true);
+            size = HEADER;
+        }
+        ByteBuffer header = size < HEADER ? null : read(channel, 0, HEADER);
+        if (header == null || header.getLong() != MAGIC) {
+            throw new IOException(path + " is not an audit log.");
+        }
+        header.get(head);
+        long end = size;
+        ByteBuffer last = size >= HEADER + FIXED + TRAILER ? read(channel, size - 4, 4) : null;
+        int length = last == null ? 0 : last.getInt();
+        if (size > HEADER && (length < FIXED + TRAILER || length > MAX_RECORD || size - length < HEADER
+                || read(channel, size - length, 4).getInt() != length)) {
+            end = walk(channel, size, null);
+        }
+        if (end > HEADER) {
+            ByteBuffer tail = read(channel, end - 4, 4);
+            int n = tail.getInt();
+            seq = read(channel, end - n + 4, 8).getLong();
+            read(channel, end - TRAILER, 32).get(head);
+        }
+        if (size - end > WRITE) {
+            throw new IOException(path + " has " + (size - end) + " bytes after the whole record ending at offset " + end
+                    + ", more than one write; check it with AuditVerifier.");
+        }
+        if (end < size) {
+            System.out.println(path + ": cut " + (size - end) + " bytes after the last whole record");
+            channel.truncate(end);
+            channel.force(true);
+        }
+        channel.position(end);
+        written = seq;
+        synced = seq;
+    }
+
+    static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        return buffer.flip();
+    }
+
+    /** Told the offset and length of each whole record by walk. */
+    interface RecordVisitor {
+
+        void record(long offset, int length);
+    }
+
+    /**
+     * Walks the records from the header on by their lengths, through
+     * memory-mapped windows, without checking hashes. Returns the offset
+     * after the last whole record.
+     */
+    static long walk(FileChannel channel, long size, RecordVisitor visitor) throws IOException {
+        long pos = HEADER;
+        MappedByteBuffer window = null;
+        long windowEnd = 0;
+        long windowStart = 0;
+        while (pos + FIXED + TRAILER <= size) {
+            if (window == null || (pos + MAX_RECORD > windowEnd && windowEnd < size)) {
+                windowStart = pos;
+                window = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(size - pos, WINDOW));
+                windowEnd = pos + window.capacity();
+            }
+            int at = (int) (pos - windowStart);
+            int length = window.getInt(at);
+            if (length < FIXED + TRAILER || length > MAX_RECORD || pos + length > size
+                    || window.getShort(at + FIXED - 2) != length - FIXED - TRAILER || window.getInt(at + length - 4) != length) {
+                break;
+            }
+            if (visitor != null) {
+                visitor.record(pos, length);
+            }
+            pos += length;
+        }
+        return pos;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Prints the records of a log, one per line, without checking the
+     * chain; AuditVerifier does that.
+     * Usage: AuditLog [file]
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : System.getProperty("bank.audit.file", "audit.log"));
+        HexFormat hex = HexFormat.of();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            walk(channel, channel.size(), (offset, length) -> {
+                try {
+                    ByteBuffer r = read(channel, offset, length);
+                    r.getInt();
+                    long seq = r.getLong();
+                    long time = r.getLong();
+                    byte kind = r.get();
+                    int account = r.getInt();
+                    long reference = r.getLong();
+                    long amount = r.getLong();
+                    byte[] detail = new byte[r.getShort()];
+                    r.get(detail);
+                    byte[] hash = new byte[32];
+                    r.get(hash);
+                    System.out.println(seq + " " + new Timestamp(time) + " " + (kind > 0 && kind < KINDS.length ? KINDS[kind] : kind)
+                            + " " + account + " " + reference + " " + BigDecimal.valueOf(amount, 2).toPlainString()
+                            + " " + new String(detail, StandardCharsets.UTF_8) + " " + hex.formatHex(hash, 0, 8));
+                } catch (IOException e) {
+                    System.out.println(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HexFormat;
+
+/**
+ * Appends audit events from several threads into a fresh log, reporting
+ * the append rate and how many fsyncs they shared, reopens the log to
+ * continue the chain, then verifies it with AuditVerifier and checks that
+ * a single changed byte is found.
+ * Usage: AuditLogBenchmark [file] [events] [threads]
+ */
+public class AuditLogBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        Path path = Paths.get(args.length > 0 ? args[0] : "audit-benchmark.log");
+        long events = args.length > 1 ? Long.parseLong(args[1]) : 5_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Files.deleteIfExists(path);
+
+        AuditLog log = AuditLog.open(path, Long.getLong("bank.audit.syncMillis", 10), 65536);
+        Thread[] appenders = new Thread[threads];
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            appenders[t] = new Thread(() -> {
+                for (long i = thread; i < events; i += threads) {
+                    log.append(AuditLog.POSTING, 9770 + (int) (i % 100_000), i + 1, 100 + i % 100_000, (i & 1) == 0 ? "Deposit" : "Withdrawal");
+                }
+            });
+            appenders[t].start();
+        }
+        for (Thread t : appenders) {
+            t.join();
+        }
+        log.close();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long size = Files.size(path);
+        System.out.printf("%,d events from %d threads in %.2f s (%,.0f events/s, %.0f MB/s), %,d fsyncs, sync p99=%.2fms%n",
+                log.records(), threads, seconds, log.records() / seconds, size / seconds / 1e6, log.syncs(),
+                Metrics.AUDIT_SYNC.percentile(0.99) / 1000.0);
+
+        AuditLog reopened = AuditLog.open(path, 10, 1024);
+        reopened.append(AuditLog.LOGIN, 9770, 0, 0, "card");
+        reopened.close();
+        if (reopened.records() != events + 1) {
+            throw new IllegalStateException("reopened log wrote record " + reopened.records() + ", expected " + (events + 1));
+        }
+
+        AuditVerifier verifier = new AuditVerifier(path, Runtime.getRuntime().availableProcessors(), 0, null);
+        started = System.nanoTime();
+        verifier.run();
+        seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("verified %,d records, %,d MB in %.2f s (%.2f GB/s) on %d threads: %s%n", verifier.records,
+                verifier.bytes >> 20, seconds, verifier.bytes / seconds / 1e9, Runtime.getRuntime().availableProcessors(),
+                verifier.problems.isEmpty() ? "intact" : verifier.problems);
+        String head = verifier.headSeq + ":" + HexFormat.of().formatHex(verifier.head);
+
+        long offset = size / 2;
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(offset);
+            int b = file.read();
+            file.seek(offset);
+            file.write(b ^ 1);
+        }
+        AuditVerifier tampered = new AuditVerifier(path, Runtime.getRuntime().availableProcessors(), verifier.headSeq, verifier.head);
+        tampered.run();
+        System.out.println("after changing the byte at offset " + offset + ": " + tampered.problems);
+        System.out.println("head was " + head);
+        Files.delete(path);
+    }
+}
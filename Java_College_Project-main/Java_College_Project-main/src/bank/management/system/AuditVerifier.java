@@ -0,0 +1,232 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Checks the hash chain of an AuditLog file.
+ *
+ * Each record stores its own hash, so a record can be checked from the
+ * stored hash of the one before it without recomputing the chain up to it:
+ * if every record's hash is the hash of the previous stored hash and its
+ * own bytes, the whole chain holds. That lets the file be cut into
+ * segments of whole records, found by walking the record lengths, and the
+ * segments be hashed in parallel, each from a read-only memory map. A
+ * record number and hash kept from an earlier run, as seq:hex, are also
+ * checked, which catches a chain rewritten from that point on.
+ */
+public class AuditVerifier {
+
+    private static final int SEGMENT = 64 << 20;
+
+    private final Path path;
+    private final int threads;
+    private final long expectedSeq;
+    private final byte[] expectedHash;
+
+    public long records;
+    public long bytes;
+    public long headSeq;
+    public byte[] head = new byte[32];
+    public final List<String> problems = new ArrayList<>();
+
+    public AuditVerifier(Path path, int threads, long expectedSeq, byte[] expectedHash) {
+        this.path = path;
+        this.threads = threads;
+        this.expectedSeq = expectedSeq;
+        this.expectedHash = expectedHash;
+    }
+
+    /** A run of whole records, with the stored hash before it and the seq it should start at. */
+    private static final class Segment {
+
+        final long start;
+        final long firstSeq;
+        long end;
+        long count;
+        byte[] previous;
+        String problem;
+        boolean expectedSeen;
+
+        Segment(long start, long firstSeq) {
+            this.start = start;
+            this.firstSeq = firstSeq;
+            this.end = start;
+        }
+    }
+
+    /** Checks the whole file; afterwards problems is empty if the chain holds. */
+    public void run() throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < AuditLog.HEADER) {
+                problems.add("not an audit log: " + size + " bytes");
+                return;
+            }
+            ByteBuffer header = AuditLog.read(channel, 0, AuditLog.HEADER);
+            if (header.getLong() != AuditLog.MAGIC) {
+                problems.add("not an audit log: bad magic");
+                return;
+            }
+            byte[] anchor = new byte[32];
+            header.get(anchor);
+
+            List<Segment> segments = new ArrayList<>();
+            segments.add(new Segment(AuditLog.HEADER, 1));
+            long[] seen = { 0 };
+            long end = AuditLog.walk(channel, size, (offset, length) -> {
+                Segment current = segments.get(segments.size() - 1);
+                if (offset - current.start >= SEGMENT) {
+                    current = new Segment(offset, seen[0] + 1);
+                    segments.add(current);
+                }
+                current.end = offset + length;
+                current.count++;
+                seen[0]++;
+            });
+            if (end < size) {
+                problems.add("no whole record at offset " + end + ", " + (size - end) + " bytes after the last one");
+            }
+            records = seen[0];
+            bytes = end;
+
+            for (Segment s : segments) {
+                s.previous = s.start == AuditLog.HEADER ? anchor : AuditLog.read(channel, s.start - AuditLog.TRAILER, 32).array();
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, segments.size())), r -> {
+                Thread t = new Thread(r, "audit-verify");
+                t.setDaemon(true);
+                return t;
+            });
+            List<Future<?>> done = new ArrayList<>();
+            for (Segment s : segments) {
+                done.add(pool.submit(() -> {
+                    check(channel, s);
+                    return null;
+                }));
+            }
+            for (Future<?> f : done) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    problems.add(e.getCause().toString());
+                }
+            }
+            pool.shutdown();
+
+            boolean expectedSeen = false;
+            for (Segment s : segments) {
+                if (s.problem != null) {
+                    problems.add(s.problem);
+                }
+                expectedSeen |= s.expectedSeen;
+            }
+            if (expectedHash != null && !expectedSeen) {
+                problems.add("record " + expectedSeq + " is missing; the log has " + records);
+            }
+            headSeq = records;
+            head = records == 0 ? anchor : AuditLog.read(channel, end - AuditLog.TRAILER, 32).array();
+        }
+    }
+
+    private void check(FileChannel channel, Segment s) throws IOException {
+        if (s.count == 0) {
+            return;
+        }
+        MessageDigest sha = sha256();
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, s.start, s.end - s.start);
+        byte[] body = new byte[AuditLog.MAX_RECORD];
+        byte[] computed = new byte[32];
+        byte[] previous = s.previous.clone();
+        byte[] stored = new byte[32];
+        int at = 0;
+        for (long seq = s.firstSeq; seq < s.firstSeq + s.count; seq++) {
+            int length = map.getInt(at);
+            int hashed = length - AuditLog.TRAILER;
+            map.get(at, body, 0, hashed);
+            map.get(at + hashed, stored, 0, 32);
+            long recordSeq = map.getLong(at + 4);
+            if (recordSeq != seq) {
+                s.problem = "record " + seq + " at offset " + (s.start + at) + " is numbered " + recordSeq;
+                return;
+            }
+            sha.update(previous);
+            sha.update(body, 0, hashed);
+            try {
+                sha.digest(computed, 0, 32);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+            if (!Arrays.equals(computed, stored)) {
+                s.problem = "record " + seq + " at offset " + (s.start + at) + " does not match its hash";
+                return;
+            }
+            if (expectedHash != null && seq == expectedSeq) {
+                s.expectedSeen = true;
+                if (!Arrays.equals(stored, expectedHash)) {
+                    s.problem = "record " + seq + " has a different hash than the one kept";
+                    return;
+                }
+            }
+            System.arraycopy(stored, 0, previous, 0, 32);
+            at += length;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Verifies a log and prints its head, the number and hash of its last
+     * record, to keep for the next run. Exits with 1 if the chain is broken.
+     * Usage: AuditVerifier [file] [threads] [seq:hash]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path path = Paths.get(args.length > 0 ? args[0] : System.getProperty("bank.audit.file", "audit.log"));
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long expectedSeq = 0;
+        byte[] expectedHash = null;
+        if (args.length > 2) {
+            int colon = args[2].indexOf(':');
+            expectedSeq = Long.parseLong(args[2].substring(0, colon));
+            expectedHash = HexFormat.of().parseHex(args[2].substring(colon + 1));
+        }
+        AuditVerifier verifier = new AuditVerifier(path, threads, expectedSeq, expectedHash);
+        long started = System.nanoTime();
+        verifier.run();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("%,d records, %,d bytes in %.2f s (%.2f GB/s)%n", verifier.records, verifier.bytes, seconds,
+                verifier.bytes / seconds / 1e9);
+        for (String problem : verifier.problems) {
+            System.out.println(problem);
+        }
+        System.out.println((verifier.problems.isEmpty() ? "chain intact, head " : "chain BROKEN, head ")
+                + verifier.headSeq + ":" + HexFormat.of().formatHex(verifier.head));
+        System.exit(verifier.problems.isEmpty() ? 0 : 1);
+    }
+}
@@ -0,0 +1,318 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local read replica of Accounts.Balance kept in a memory-mapped file.
+ *
+ * The file has a 32 byte header (magic, high-water TransactionID, last
+ * refresh time) followed by fixed 24 byte slots, one per account number
+ * starting at 9770: AccountNumber, balance in cents and the TransactionID
+ * that last changed it. A background thread pulls new Transactions rows
+ * past the high-water mark and applies them to the slots, so balance checks
+ * never need their own connection while the replica is fresh.
+ *
+ * TransactionIDs are handed out when a row is inserted, not when it
+ * commits, so a long transaction (a PostingQueue batch, a TransferBatch or
+ * InterestAccrual chunk) can commit an id below one already applied. Every
+ * id skipped over is kept as a gap and looked up again on each refresh
+ * until it appears or bank.replica.gapMillis (default 300000) passes, after
+ * which it is taken to have been rolled back. The gaps are only held in
+ * memory, so each process takes a fresh snapshot when it opens the file.
+ * Accounts open with a zero balance and their opening deposit as a
+ * Transactions row, so a row for an account the snapshot did not have
+ * starts its slot from zero.
+ *
+ * A posting made here marks its account's slot with minus its
+ * TransactionID. Applying that row clears the mark, and so does a refresh
+ * that finds the row already in the slot, that is at or below the
+ * high-water mark and not a gap.
+ */
+public class BalanceReplica {
+
+    static final int FIRST_ACCOUNT = 9770;
+
+    private static final int MAGIC = 0x42414C31;
+    private static final int HEADER = 32;
+    private static final int SLOT = 24;
+    private static final int BATCH = 5000;
+    /** Most gaps kept; past it the oldest ids are given up on first. */
+    private static final int MAX_GAPS = 100_000;
+    private static final int GAP_LOOKUP = 500;
+
+    private static BalanceReplica shared;
+
+    private final MappedByteBuffer map;
+    private final int slots;
+    private final long maxStaleMillis;
+    private final long gapMillis = Long.getLong("bank.replica.gapMillis", 300_000);
+    /** TransactionIDs below the high-water mark not seen yet, with the time each was first missed. */
+    private final TreeMap<Long, Long> gaps = new TreeMap<>();
+    /** Slots marked by invalidate, with the TransactionID each waits for; also guards every version write. */
+    private final List<long[]> waiting = new ArrayList<>();
+    private Conn conn;
+
+    public BalanceReplica(String path, int slots, long maxStaleMillis) throws IOException {
+        this.slots = slots;
+        this.maxStaleMillis = maxStaleMillis;
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            map = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER + (long) slots * SLOT);
+        }
+        // the gaps of an earlier run are gone, so start again from a snapshot
+        map.putLong(8, 0);
+        map.putLong(16, 0);
+        map.putInt(0, MAGIC);
+    }
+
+    /**
+     * Replica used by the forms, opened on first use and refreshed in the
+     * background. Returns null when the file cannot be mapped.
+     */
+    public static synchronized BalanceReplica shared() {
+        if (shared == null) {
+            try {
+                long interval = Long.getLong("bank.replica.refreshMillis", 1000);
+                shared = new BalanceReplica(System.getProperty("bank.replica.file", "balances.dat"),
+                        Integer.getInteger("bank.replica.slots", 65536), interval * 5);
+                shared.start(interval);
+            } catch (IOException e) {
+                System.out.println("Balance replica unavailable, " + e);
+            }
+        }
+        return shared;
+    }
+
+    private void start(long intervalMillis) {
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "balance-replica");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.scheduleWithFixedDelay(this::refresh, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Balance in cents served from the replica, or Long.MIN_VALUE when the
+     * account is outside the file, has never been loaded, was invalidated by
+     * a local posting, or the replica has not caught up recently enough.
+     */
+    public long balanceCents(int accountNumber) {
+        int slot = accountNumber - FIRST_ACCOUNT;
+        if (slot < 0 || slot >= slots) {
+            return Long.MIN_VALUE;
+        }
+        if (System.currentTimeMillis() - map.getLong(16) > maxStaleMillis) {
+            return Long.MIN_VALUE;
+        }
+        int at = HEADER + slot * SLOT;
+        // read version on both sides of the balance so a torn write is detected
+        long before = map.getLong(at + 16);
+        long cents = map.getLong(at + 8);
+        long after = map.getLong(at + 16);
+        if (before <= 0 || before != after || map.getInt(at) != accountNumber) {
+            return Long.MIN_VALUE;
+        }
+        return cents;
+    }
+
+    /**
+     * Marks an account stale after a posting made from this terminal, so the
+     * next check goes to the database until the replica holds that posting's
+     * row. A transactionId of 0 (not known) keeps the mark until the next
+     * row for the account is applied.
+     */
+    public void invalidate(int accountNumber, long transactionId) {
+        int slot = accountNumber - FIRST_ACCOUNT;
+        if (slot >= 0 && slot < slots) {
+            int at = HEADER + slot * SLOT;
+            synchronized (waiting) {
+                if (transactionId > 0) {
+                    map.putLong(at + 16, -transactionId);
+                    waiting.add(new long[] { at, transactionId });
+                } else {
+                    map.putLong(at + 16, Long.MIN_VALUE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies every Transactions row past the high-water mark and any gap
+     * that has committed since. The first run takes a consistent snapshot
+     * of Accounts instead.
+     */
+    public synchronized void refresh() {
+        try {
+            if (conn == null || conn.c == null || conn.c.isClosed()) {
+                conn = new Conn();
+            }
+            if (map.getLong(8) == 0) {
+                snapshot();
+            }
+            applyGaps();
+            int applied;
+            do {
+                applied = applyChanges();
+            } while (applied == BATCH);
+            revalidate();
+            map.putLong(16, System.currentTimeMillis());
+        } catch (Exception e) {
+            System.out.println(e);
+            conn = null;
+        }
+    }
+
+    private void snapshot() throws Exception {
+        synchronized (waiting) {
+            // marks from before the snapshot are in it, including any left in the file by an earlier process
+            for (int at = HEADER; at < HEADER + slots * SLOT; at += SLOT) {
+                map.putInt(at, 0);
+                map.putLong(at + 16, 0);
+            }
+            waiting.clear();
+        }
+        gaps.clear();
+        conn.c.setAutoCommit(false);
+        try {
+            long highWater = 0;
+            ResultSet rs = conn.s.executeQuery("SELECT COALESCE(MAX(TransactionID), 0) FROM Transactions;");
+            if (rs.next()) {
+                highWater = rs.getLong(1);
+            }
+            rs = conn.s.executeQuery("SELECT AccountNumber, Balance FROM AccountBalances;");
+            while (rs.next()) {
+                put(rs.getInt(1), rs.getBigDecimal(2), Math.max(highWater, 1), true);
+            }
+            // ids just below the snapshot's high-water mark may still be uncommitted
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "SELECT TransactionID FROM Transactions WHERE TransactionID > ? ORDER BY TransactionID")) {
+                long previous = Math.max(highWater - BATCH, 0);
+                ps.setLong(1, previous);
+                rs = ps.executeQuery();
+                while (rs.next()) {
+                    long id = rs.getLong(1);
+                    missed(previous, id);
+                    previous = id;
+                }
+            }
+            conn.c.commit();
+            map.putLong(8, Math.max(highWater, 1));
+        } finally {
+            conn.c.setAutoCommit(true);
+        }
+    }
+
+    private int applyChanges() throws Exception {
+        int applied = 0;
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "SELECT TransactionID, AccountNumber, TransactionType, Amount FROM Transactions"
+                + " WHERE TransactionID > ? ORDER BY TransactionID LIMIT " + BATCH)) {
+            ps.setLong(1, map.getLong(8));
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                missed(map.getLong(8), id);
+                BigDecimal amount = rs.getBigDecimal(4);
+                put(rs.getInt(2), "Deposit".equals(rs.getString(3)) ? amount : amount.negate(), id, false);
+                map.putLong(8, id);
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Clears the marks of postings whose rows were applied before the mark
+     * was made. A mark already replaced by a newer row is just dropped.
+     */
+    private void revalidate() {
+        long highWater = map.getLong(8);
+        synchronized (waiting) {
+            waiting.removeIf(w -> {
+                int at = (int) w[0];
+                long id = w[1];
+                if (map.getLong(at + 16) != -id) {
+                    return true;
+                }
+                if (id <= highWater && !gaps.containsKey(id)) {
+                    map.putLong(at + 16, id);
+                    return true;
+                }
+                return false;
+            });
+        }
+    }
+
+    /** Records the ids between two applied rows as gaps. */
+    private void missed(long previous, long id) {
+        long now = System.currentTimeMillis();
+        for (long gap = Math.max(previous + 1, id - MAX_GAPS); gap < id; gap++) {
+            gaps.put(gap, now);
+        }
+        while (gaps.size() > MAX_GAPS) {
+            gaps.pollFirstEntry();
+        }
+    }
+
+    /** Applies the gaps that have committed since the last refresh and drops the expired ones. */
+    private void applyGaps() throws Exception {
+        long expired = System.currentTimeMillis() - gapMillis;
+        gaps.values().removeIf(firstMissed -> firstMissed < expired);
+        List<Long> found = new ArrayList<>();
+        Iterator<Long> ids = gaps.keySet().iterator();
+        while (ids.hasNext()) {
+            StringBuilder sql = new StringBuilder("SELECT TransactionID, AccountNumber, TransactionType, Amount FROM Transactions"
+                    + " WHERE TransactionID IN (");
+            int n = 0;
+            while (ids.hasNext() && n < GAP_LOOKUP) {
+                sql.append(n++ == 0 ? "" : ", ").append(ids.next());
+            }
+            ResultSet rs = conn.s.executeQuery(sql.append(')').toString());
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                BigDecimal amount = rs.getBigDecimal(4);
+                put(rs.getInt(2), "Deposit".equals(rs.getString(3)) ? amount : amount.negate(), id, false);
+                found.add(id);
+            }
+        }
+        gaps.keySet().removeAll(found);
+    }
+
+    private void put(int accountNumber, BigDecimal amount, long version, boolean absolute) {
+        int slot = accountNumber - FIRST_ACCOUNT;
+        if (slot < 0 || slot >= slots) {
+            return;
+        }
+        int at = HEADER + slot * SLOT;
+        long cents = amount.movePointRight(2).longValueExact();
+        if (!absolute && map.getInt(at) == accountNumber) {
+            cents += map.getLong(at + 8);
+        }
+        synchronized (waiting) {
+            long mark = map.getLong(at + 16);
+            // a posting made here that this row is not stays marked until its own row is in
+            boolean keep = mark < 0 && mark != Long.MIN_VALUE && mark != -version;
+            map.putLong(at + 16, 0);
+            map.putInt(at, accountNumber);
+            map.putLong(at + 8, cents);
+            map.putLong(at + 16, keep ? mark : version);
+        }
+    }
+}
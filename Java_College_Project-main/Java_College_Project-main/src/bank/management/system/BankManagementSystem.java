@@ -14,7 +14,12 @@ public class BankManagementSystem {
      * @param args the command line arguments
      */
     public static void main(String[] args) {
-        // TODO code application logic here
+        // decode every background while Swing starts up; the login image is first
+        Images.preload("/login.jpg", "/menu.jpg", "/depo.jpg", "/withdraw.jpg", "/pin.jpg", "/signup.jpg");
+        if (StandingOrders.enabled()) {
+            StandingOrders.startShared();
+        }
+        LoginForm.main(args);
     }
     
 }
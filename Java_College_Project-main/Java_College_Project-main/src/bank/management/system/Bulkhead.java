@@ -0,0 +1,69 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded concurrency for one kind of database work, so a burst of one kind
+ * cannot take every connection from the others. Cheap reads (login,
+ * balance), writes (postings, PIN changes, sign-ups) and scans
+ * (transaction history) each get their own permits. A caller waits up to
+ * the bulkhead's wait time for a permit and is then turned away.
+ *
+ * Sizes come from bank.bulkhead.NAME.permits and bank.bulkhead.NAME.waitMillis.
+ */
+public class Bulkhead {
+
+    public static final Bulkhead READS = new Bulkhead("reads", 32, 250);
+    public static final Bulkhead WRITES = new Bulkhead("writes", 64, 1000);
+    public static final Bulkhead SCANS = new Bulkhead("scans", 4, 500);
+
+    public final String name;
+    private final int permits;
+    private final long waitMillis;
+    private final Semaphore semaphore;
+    private final Permit permit = new Permit();
+    private final LongAdder rejected = new LongAdder();
+
+    private Bulkhead(String name, int permits, long waitMillis) {
+        this.name = name;
+        this.permits = Integer.getInteger("bank.bulkhead." + name + ".permits", permits);
+        this.waitMillis = Long.getLong("bank.bulkhead." + name + ".waitMillis", waitMillis);
+        this.semaphore = new Semaphore(this.permits);
+    }
+
+    /** Takes a permit, to be given back by closing it. */
+    public Permit enter() throws SQLException {
+        try {
+            if (semaphore.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                return permit;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new SQLException("The bank is busy, please try again.", "HYT00");
+    }
+
+    public int inUse() {
+        return permits - semaphore.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public class Permit implements AutoCloseable {
+
+        @Override
+        public void close() {
+            semaphore.release();
+        }
+    }
+}
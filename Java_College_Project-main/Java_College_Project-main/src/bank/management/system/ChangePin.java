@@ -23,6 +23,13 @@ public class ChangePin extends javax.swing.JFrame {
         this.AccountNo = AccountNo;
     }
 
+    /** Clears the PIN fields before the form is shown again. */
+    void reset() {
+        jcurrentpin.setText("");
+        jnewpin.setText("");
+        jconfirmnewpin.setText("");
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -94,7 +101,7 @@ public class ChangePin extends javax.swing.JFrame {
             }
         });
 
-        jLabel5.setIcon(new javax.swing.ImageIcon(getClass().getResource("/pin.jpg"))); // NOI18N
+        jLabel5.setIcon(Images.get("/pin.jpg")); // NOI18N
         jLabel5.setText("jLabel5");
 
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
@@ -196,13 +203,31 @@ public class ChangePin extends javax.swing.JFrame {
     }
 
     else{
+    long started = System.nanoTime();
     try {
-        Conn conn = new Conn();
-        ResultSet rs=conn.s.executeQuery("Select * from LoginPass where AccountNumber ="+AccountNo+";");
-        if (rs.next())
-            if(rs.getString("Password").equals(currentPin)){
-                String query = "CALL ChangePin("+AccountNo+",'"+newPin+"');";
-                conn.s.executeUpdate(query);
+        boolean found;
+        boolean matched = false;
+        try (Bulkhead.Permit permit = Bulkhead.WRITES.enter()) {
+            Conn conn = new Conn();
+            try {
+                ResultSet rs=conn.s.executeQuery("Select * from LoginPass where AccountNumber ="+AccountNo+";");
+                found = rs.next();
+                if (found && rs.getString("Password").equals(currentPin)) {
+                    matched = true;
+                    String query = "CALL ChangePin("+AccountNo+",'"+newPin+"');";
+                    conn.s.executeUpdate(query);
+                    ReadRouting.wrote(Integer.parseInt(AccountNo));
+                }
+            } finally {
+                conn.c.close();
+            }
+        }
+        if (found) {
+            AuditLog.record(matched ? AuditLog.PIN_CHANGE : AuditLog.PIN_CHANGE_FAILED, Integer.parseInt(AccountNo), 0, 0, "");
+        }
+        if (found)
+            if(matched){
+                Metrics.CHANGE_PIN.recordSince(started);
                 JOptionPane.showMessageDialog(this, "PIN changed successfully.");
                 this.setVisible(false);
             }else{
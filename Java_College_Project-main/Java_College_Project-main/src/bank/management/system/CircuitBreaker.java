@@ -0,0 +1,109 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fails fast while the database is unhealthy instead of letting every form
+ * wait out its own timeout.
+ *
+ * After bank.db.breaker.failures (default 5) connection failures or
+ * timeouts in a row the breaker opens and Conn refuses new connections for
+ * bank.db.breaker.openMillis (default 5000). Then a single connection is
+ * let through as a probe: if it works the breaker closes, otherwise it
+ * opens again. Business errors such as insufficient funds do not count.
+ */
+public class CircuitBreaker {
+
+    public static final CircuitBreaker DATABASE = new CircuitBreaker("database",
+            Integer.getInteger("bank.db.breaker.failures", 5), Long.getLong("bank.db.breaker.openMillis", 5000));
+
+    public final String name;
+    private final int threshold;
+    private final long openNanos;
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile boolean open;
+    private volatile long openedAt;
+
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public CircuitBreaker(String name, int threshold, long openMillis) {
+        this.name = name;
+        this.threshold = threshold;
+        this.openNanos = openMillis * 1_000_000;
+    }
+
+    /** Whether a call may go ahead now. */
+    public boolean allow() {
+        if (!open) {
+            return true;
+        }
+        if (System.nanoTime() - openedAt >= openNanos && probing.compareAndSet(false, true)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void success() {
+        if (failures.get() != 0) {
+            failures.set(0);
+        }
+        if (open) {
+            open = false;
+            probing.set(false);
+            System.out.println("Circuit " + name + " closed");
+        }
+    }
+
+    public void failure() {
+        if (probing.get()) {
+            openedAt = System.nanoTime();
+            probing.set(false);
+            return;
+        }
+        if (failures.incrementAndGet() >= threshold && !open) {
+            openedAt = System.nanoTime();
+            open = true;
+            opened.increment();
+            System.out.println("Circuit " + name + " opened after " + threshold + " failures");
+        }
+    }
+
+    /** Records the outcome of a failed call, counting only failures that say the database is unhealthy. */
+    public void failure(SQLException e) {
+        if (isOutage(e)) {
+            failure();
+        }
+    }
+
+    static boolean isOutage(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTimeoutException || e instanceof SQLTransientConnectionException
+                || e instanceof SQLNonTransientConnectionException || (state != null && state.startsWith("08"));
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public long timesOpened() {
+        return opened.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+}
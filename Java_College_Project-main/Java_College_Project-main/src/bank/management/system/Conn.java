@@ -1,20 +1,80 @@
 package bank.management.system;
 
 import java.sql.*;  
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
+/**
+ * A connection to the bank database. The local MySQL server is used unless
+ * -Dbank.db.profile=embedded picks the in-memory database of
+ * EmbeddedDatabase; bank.db.driver, bank.db.url, bank.db.user and
+ * bank.db.password override either profile.
+ *
+ * Connecting gives up after bank.db.connectTimeoutSeconds (default 5), a
+ * statement after bank.db.queryTimeoutSeconds (default 15) and a stalled
+ * socket after bank.db.networkTimeoutMillis (default 30000). While
+ * CircuitBreaker.DATABASE is open no connection is attempted. A connection
+ * that cannot be made throws IllegalStateException rather than leaving s
+ * null.
+ */
 public class Conn{
+    static final boolean EMBEDDED = "embedded".equals(System.getProperty("bank.db.profile"));
+    static final String DRIVER = System.getProperty("bank.db.driver", EMBEDDED ? EmbeddedDatabase.DRIVER : "com.mysql.cj.jdbc.Driver");
+    static final String URL = System.getProperty("bank.db.url", EMBEDDED ? EmbeddedDatabase.URL : "jdbc:mysql:///bank");
+    static final String USER = System.getProperty("bank.db.user", EMBEDDED ? "sa" : "root");
+    static final String PASSWORD = System.getProperty("bank.db.password", EMBEDDED ? "" : "root");
+    static final int QUERY_TIMEOUT_SECONDS = Integer.getInteger("bank.db.queryTimeoutSeconds", 15);
+    private static final int NETWORK_TIMEOUT_MILLIS = Integer.getInteger("bank.db.networkTimeoutMillis", 30000);
+    private static final Executor TIMEOUTS = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "db-network-timeout");
+        t.setDaemon(true);
+        return t;
+    });
+
+    static {
+        DriverManager.setLoginTimeout(Integer.getInteger("bank.db.connectTimeoutSeconds", 5));
+    }
+
     Connection c;
     Statement s;
     public Conn(){  
+        this(URL);
+    }
+
+    /** A connection to another server with the same schema and credentials, such as a read replica. */
+    Conn(String url){
+        if (!CircuitBreaker.DATABASE.allow()) {
+            throw new IllegalStateException("The bank database is unavailable, please try again shortly.");
+        }
+        boolean connected = false;
         try{  
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            c = DriverManager.getConnection("jdbc:mysql:///bank", "root", "root");
+            long started = System.nanoTime();
+            Class.forName(DRIVER);
+            if (EMBEDDED) {
+                EmbeddedDatabase.load(URL, USER, PASSWORD);
+            }
+            Connection raw = DriverManager.getConnection(url, USER, PASSWORD);
+            try {
+                raw.setNetworkTimeout(TIMEOUTS, NETWORK_TIMEOUT_MILLIS);
+            } catch (SQLFeatureNotSupportedException e) {
+                // the driver has no socket timeout; query timeouts still apply
+            }
+            c = TracingJdbc.wrap(raw);
+            Metrics.CONNECT.recordSince(started);
             s = c.createStatement();
+            connected = true;
+            CircuitBreaker.DATABASE.success();
             System.out.println("Connection Successful");
             
         }catch(Exception e){ 
             System.out.println("Connection Failed,"+ e);
-        }  
+            throw new IllegalStateException("The bank database is unavailable, please try again shortly.", e);
+        }finally{
+            // every failed attempt, whatever it threw, so a probe is never left holding the breaker
+            if (!connected) {
+                CircuitBreaker.DATABASE.failure();
+            }
+        }
      }  
     // public static void main(String[] args) {
     //     new Conn();
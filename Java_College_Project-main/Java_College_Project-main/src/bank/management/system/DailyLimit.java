@@ -0,0 +1,162 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Daily withdrawal limit per account, kept as in-memory counters.
+ *
+ * Today's totals live in a set of striped maps of atomic counters; a
+ * withdrawal reserves its amount with a compare-and-set so concurrent
+ * withdrawals on one account can never pass the limit together. The first
+ * call after midnight swaps in an empty day, and the shared instance is
+ * seeded once from today's Transactions rows, so the check itself never
+ * runs a SUM query. Until that seeding has succeeded withdrawals fail
+ * rather than start from empty counters; each one tries the query again.
+ * After that shared() is a volatile read, with no lock. A reservation is
+ * made and given back against the day of the time it was admitted at, so
+ * a release after midnight does not lower the new day's total.
+ */
+public class DailyLimit {
+
+    private static final int STRIPES = 16;
+
+    private static volatile DailyLimit shared;
+
+    private final long limitCents;
+    private final AtomicReference<Day> today = new AtomicReference<>();
+
+    public DailyLimit(long limitCents) {
+        this.limitCents = limitCents;
+        today.set(new Day(LocalDate.now().toEpochDay()));
+    }
+
+    /**
+     * The limits used by Postings, seeded from the database on first use.
+     * Throws IllegalStateException, like Conn, while today's withdrawals
+     * cannot be read.
+     */
+    public static DailyLimit shared() {
+        DailyLimit limit = shared;
+        if (limit != null) {
+            return limit;
+        }
+        synchronized (DailyLimit.class) {
+            if (shared == null) {
+                limit = new DailyLimit(Long.getLong("bank.dailyLimit", 2_000_000L));
+                try {
+                    limit.load();
+                } catch (SQLException | RuntimeException e) {
+                    System.out.println(e);
+                    throw new IllegalStateException("Daily limits are unavailable, please try again shortly.", e);
+                }
+                shared = limit;
+            }
+            return shared;
+        }
+    }
+
+    /**
+     * Reads today's withdrawals so a restart does not hand out a fresh limit.
+     */
+    private void load() throws SQLException {
+        Conn conn = new Conn();
+        try {
+            ResultSet rs = conn.s.executeQuery("SELECT AccountNumber, SUM(Amount) FROM Transactions"
+                    + " WHERE TransactionType = 'Withdrawal' AND TransactionDate >= CURDATE() GROUP BY AccountNumber;");
+            Day day = today.get();
+            while (rs.next()) {
+                day.counter(rs.getInt(1)).addAndGet(rs.getBigDecimal(2).movePointRight(2).longValueExact());
+            }
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    /**
+     * Adds the amount to the total of the day atMillis falls on unless that
+     * would pass the limit. Returns false, leaving the total untouched, when
+     * it would.
+     */
+    public boolean reserve(int accountNumber, long cents, long atMillis) {
+        Day day = current(epochDay(atMillis));
+        AtomicLong counter = (day != null ? day : current()).counter(accountNumber);
+        long used;
+        do {
+            used = counter.get();
+            if (used + cents > limitCents) {
+                return false;
+            }
+        } while (!counter.compareAndSet(used, used + cents));
+        return true;
+    }
+
+    /**
+     * Gives back a reservation whose withdrawal failed, made with the same
+     * atMillis. A reservation from a day that is already over went with it.
+     */
+    public void release(int accountNumber, long cents, long atMillis) {
+        Day day = current(epochDay(atMillis));
+        if (day != null) {
+            day.counter(accountNumber).addAndGet(-cents);
+        }
+    }
+
+    public long usedToday(int accountNumber) {
+        return current().counter(accountNumber).get();
+    }
+
+    public long limitCents() {
+        return limitCents;
+    }
+
+    private Day current() {
+        Day day = current(LocalDate.now().toEpochDay());
+        // only null if the clock went back over midnight
+        return day != null ? day : today.get();
+    }
+
+    /** The given day, started if it has just begun, or null if it is over. */
+    private Day current(long epochDay) {
+        Day day = today.get();
+        while (day.epochDay < epochDay) {
+            // first call after midnight starts the new day
+            today.compareAndSet(day, new Day(epochDay));
+            day = today.get();
+        }
+        return day.epochDay == epochDay ? day : null;
+    }
+
+    private static long epochDay(long millis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()).toEpochDay();
+    }
+
+    private static class Day {
+
+        final long epochDay;
+        final List<ConcurrentHashMap<Integer, AtomicLong>> stripes = new ArrayList<>(STRIPES);
+
+        Day(long epochDay) {
+            this.epochDay = epochDay;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.add(new ConcurrentHashMap<>());
+            }
+        }
+
+        AtomicLong counter(int accountNumber) {
+            return stripes.get(accountNumber & (STRIPES - 1)).computeIfAbsent(accountNumber, k -> new AtomicLong());
+        }
+    }
+}
@@ -16,11 +16,33 @@ public class DepositForm extends javax.swing.JFrame {
      * Creates new form DepositForm
      */
     private String AccountNo;
+    // reused if the same request is retried, so it is only posted once
+    private String requestKey = java.util.UUID.randomUUID().toString();
     public DepositForm(String AccountNo) {
         initComponents();
         this.AccountNo = AccountNo;
     }
 
+    /**
+     * Clears the amount before the form is shown again, and offers every
+     * currency with a current rate, starting on the account's own.
+     */
+    void reset() {
+        requestKey = java.util.UUID.randomUUID().toString();
+        tamount.setText("");
+        tcurrency.setModel(new javax.swing.DefaultComboBoxModel<>(FxRates.codes()));
+        try {
+            Conn conn = new Conn();
+            try {
+                tcurrency.setSelectedItem(AccountCurrencies.codeOf(conn, Integer.parseInt(AccountNo)));
+            } finally {
+                conn.c.close();
+            }
+        } catch (java.sql.SQLException | IllegalStateException e) {
+            System.out.println(e);
+        }
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -33,6 +55,7 @@ public class DepositForm extends javax.swing.JFrame {
         jPanel1 = new javax.swing.JPanel();
         jLabel1 = new javax.swing.JLabel();
         tamount = new javax.swing.JTextField();
+        tcurrency = new javax.swing.JComboBox<>();
         back = new javax.swing.JButton();
         bdeposit = new javax.swing.JButton();
         jLabel3 = new javax.swing.JLabel();
@@ -54,6 +77,8 @@ public class DepositForm extends javax.swing.JFrame {
             }
         });
 
+        tcurrency.setFont(new java.awt.Font("Segoe UI", 0, 18)); // NOI18N
+
         back.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
         back.setText("Back");
         back.addActionListener(new java.awt.event.ActionListener() {
@@ -70,7 +95,7 @@ public class DepositForm extends javax.swing.JFrame {
             }
         });
 
-        jLabel3.setIcon(new javax.swing.ImageIcon(getClass().getResource("/depo.jpg"))); // NOI18N
+        jLabel3.setIcon(Images.get("/depo.jpg")); // NOI18N
         jLabel3.setText("jLabel3");
 
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
@@ -83,7 +108,10 @@ public class DepositForm extends javax.swing.JFrame {
                     .addGroup(jPanel1Layout.createSequentialGroup()
                         .addGap(100, 100, 100)
                         .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 180, javax.swing.GroupLayout.PREFERRED_SIZE))
-                    .addComponent(tamount, javax.swing.GroupLayout.PREFERRED_SIZE, 350, javax.swing.GroupLayout.PREFERRED_SIZE)))
+                    .addGroup(jPanel1Layout.createSequentialGroup()
+                        .addComponent(tamount, javax.swing.GroupLayout.PREFERRED_SIZE, 260, javax.swing.GroupLayout.PREFERRED_SIZE)
+                        .addGap(10, 10, 10)
+                        .addComponent(tcurrency, javax.swing.GroupLayout.PREFERRED_SIZE, 80, javax.swing.GroupLayout.PREFERRED_SIZE))))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(240, 240, 240)
                 .addComponent(back, javax.swing.GroupLayout.PREFERRED_SIZE, 179, javax.swing.GroupLayout.PREFERRED_SIZE))
@@ -98,7 +126,8 @@ public class DepositForm extends javax.swing.JFrame {
                 .addGap(170, 170, 170)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
                     .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 40, javax.swing.GroupLayout.PREFERRED_SIZE)
-                    .addComponent(tamount, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addComponent(tamount, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(tcurrency, javax.swing.GroupLayout.PREFERRED_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.PREFERRED_SIZE))
                 .addGap(110, 110, 110)
                 .addComponent(back, javax.swing.GroupLayout.PREFERRED_SIZE, 36, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(jPanel1Layout.createSequentialGroup()
@@ -130,18 +159,25 @@ public class DepositForm extends javax.swing.JFrame {
     private void bdepositActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bdepositActionPerformed
         // TODO add your handling code here:
         try {
-            Conn conn = new Conn();
             String amount = tamount.getText().strip();
-            if (amount.equals("") || !amount.matches("^[0-9]*$")) {
+            if (!amount.matches("^[0-9]+(\\.[0-9]{1,2})?$")) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid amount.", "Error", JOptionPane.ERROR_MESSAGE);
             } else {
-                double depositAmount = Double.parseDouble(amount);
-                String query = "Call Deposit("+AccountNo+","+amount+");";
-                conn.s.executeUpdate(query);
-                JOptionPane.showMessageDialog(this, "Amount of " + depositAmount + " has been deposited.");
+                String currency = (String) tcurrency.getSelectedItem();
+                Conn conn = new Conn();
+                try {
+                    Postings.deposit(conn, AccountNo, new java.math.BigDecimal(amount), currency, requestKey);
+                } finally {
+                    conn.c.close();
+                }
+                requestKey = java.util.UUID.randomUUID().toString();
+                JOptionPane.showMessageDialog(this, "Amount of " + amount + " " + currency + " has been deposited.");
                 this.setVisible(false);
                 
             }
+        } catch (java.sql.SQLException | IllegalStateException e) {
+            System.out.println(e);
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {            
             System.out.println(e);
         }
@@ -189,5 +225,6 @@ public class DepositForm extends javax.swing.JFrame {
     private javax.swing.JLabel jLabel3;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JTextField tamount;
+    private javax.swing.JComboBox<String> tcurrency;
     // End of variables declaration//GEN-END:variables
 }
@@ -0,0 +1,359 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import org.h2.api.Trigger;
+
+/**
+ * The embedded profile: an in-memory H2 database in MySQL mode, started by
+ * -Dbank.db.profile=embedded with the H2 jar on the runtime classpath.
+ *
+ * The first connection loads embedded.sql, which creates the same tables
+ * and views as bank.sql and registers the static methods below as its
+ * procedures with CREATE ALIAS. H2 triggers are Java classes rather than
+ * SQL, so the triggers of bank.sql on Transactions are the nested classes
+ * here, and every writer gets the currency, balance, backup and daily
+ * totals from them as it does on MySQL. The trigger classes need the H2 jar
+ * to compile as well as to run.
+ */
+public class EmbeddedDatabase {
+
+    static final String DRIVER = "org.h2.Driver";
+    // DAY is a keyword to H2 but a column of DailyTotals
+    static final String URL = "jdbc:h2:mem:bank;MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=DAY";
+
+    private static boolean loaded;
+
+    /**
+     * TransactionID of the last row a procedure posted on this thread. H2
+     * puts LAST_INSERT_ID() back once a Java procedure returns, and runs the
+     * procedure on the caller's thread, so Postings reads this instead.
+     */
+    private static final ThreadLocal<Long> LAST_POSTED = ThreadLocal.withInitial(() -> 0L);
+
+    /** Runs embedded.sql once per JVM, before the first connection is handed out. */
+    static synchronized void load(String url, String user, String password) throws SQLException, IOException {
+        if (loaded) {
+            return;
+        }
+        String script;
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream("embedded.sql")) {
+            if (in == null) {
+                throw new IOException("embedded.sql is not on the classpath");
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Connection c = DriverManager.getConnection(url, user, password);
+                Statement s = c.createStatement()) {
+            StringBuilder statement = new StringBuilder();
+            for (String line : script.split("\n")) {
+                String trimmed = line.strip();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                statement.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    s.execute(statement.toString());
+                    statement.setLength(0);
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    /** True while H2 is only asking a ResultSet procedure for its columns. */
+    private static boolean columnsOnly(Connection conn) throws SQLException {
+        return "jdbc:columnlist:connection".equals(conn.getMetaData().getURL());
+    }
+
+    private static long post(Connection conn, int accountNumber, String type, BigDecimal amount) throws SQLException {
+        return post(conn, accountNumber, type, amount, null);
+    }
+
+    private static long post(Connection conn, int accountNumber, String type, BigDecimal amount, Long transferId) throws SQLException {
+        long id = insert(conn, "INSERT INTO Transactions (AccountNumber, TransactionType, Amount, TransferID) VALUES (?, ?, ?, ?)",
+                accountNumber, type, amount, transferId);
+        LAST_POSTED.set(id);
+        return id;
+    }
+
+    static long lastPosted() {
+        return LAST_POSTED.get();
+    }
+
+    private static BigDecimal balance(Connection conn, int accountNumber) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT Balance FROM AccountBalances WHERE AccountNumber = ?")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? rs.getBigDecimal(1) : null;
+        }
+    }
+
+    public static void deposit(Connection conn, int accountNumber, BigDecimal amount) throws SQLException {
+        if (balance(conn, accountNumber) == null) {
+            throw new SQLException("Account does not exist.", "45000");
+        }
+        if (amount.signum() <= 0) {
+            throw new SQLException("Amount must be positive.", "45000");
+        }
+        post(conn, accountNumber, "Deposit", amount);
+    }
+
+    public static void withdraw(Connection conn, int accountNumber, BigDecimal amount) throws SQLException {
+        BigDecimal current = balance(conn, accountNumber);
+        if (current == null) {
+            throw new SQLException("Account does not exist.", "45000");
+        }
+        if (current.compareTo(amount) < 0) {
+            throw new SQLException("Insufficient funds.", "45000");
+        }
+        post(conn, accountNumber, "Withdrawal", amount);
+    }
+
+    public static ResultSet sendFunds(Connection conn, int fromAccount, int toAccount, BigDecimal amount, BigDecimal toAmount) throws SQLException {
+        if (columnsOnly(conn)) {
+            return conn.createStatement().executeQuery(
+                    "SELECT CAST(0 AS BIGINT) AS WithdrawalID, CAST(0 AS BIGINT) AS DepositID, CAST(0 AS BIGINT) AS TransferID");
+        }
+        if (balance(conn, toAccount) == null) {
+            throw new SQLException("Destination account does not exist.", "45000");
+        }
+        BigDecimal from = balance(conn, fromAccount);
+        if (from != null && from.compareTo(amount) < 0) {
+            throw new SQLException("Insufficient funds in source account.", "45000");
+        }
+        long transfer = insert(conn, "INSERT INTO Transfers (FromAccount, ToAccount, Amount, ToAmount) VALUES (?, ?, ?, ?)",
+                fromAccount, toAccount, amount, toAmount);
+        long withdrawal = post(conn, fromAccount, "Withdrawal", amount, transfer);
+        long deposit = post(conn, toAccount, "Deposit", toAmount, transfer);
+        return conn.createStatement().executeQuery("SELECT CAST(" + withdrawal + " AS BIGINT) AS WithdrawalID, CAST("
+                + deposit + " AS BIGINT) AS DepositID, CAST(" + transfer + " AS BIGINT) AS TransferID");
+    }
+
+    private static boolean userExists(Connection conn, String firstName, String lastName, String email) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT 1 FROM Users WHERE Email = ? AND FirstName = ? AND LastName = ?")) {
+            ps.setString(1, email);
+            ps.setString(2, firstName);
+            ps.setString(3, lastName);
+            return ps.executeQuery().next();
+        }
+    }
+
+    private static long insert(Connection conn, String sql, Object... values) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < values.length; i++) {
+                ps.setObject(i + 1, values[i]);
+            }
+            ps.executeUpdate();
+            ResultSet keys = ps.getGeneratedKeys();
+            return keys.next() ? keys.getLong(1) : 0;
+        }
+    }
+
+    public static ResultSet createUser(Connection conn, String firstName, String lastName, String email, String password) throws SQLException {
+        if (columnsOnly(conn)) {
+            return conn.createStatement().executeQuery("SELECT CAST(0 AS INT) AS CreatedUserID");
+        }
+        if (userExists(conn, firstName, lastName, email)) {
+            throw new SQLException("Username or Email already exists.", "45000");
+        }
+        long id = insert(conn, "INSERT INTO Users (FirstName, LastName, Email, Password) VALUES (?, ?, ?, ?)",
+                firstName, lastName, email, password);
+        return conn.createStatement().executeQuery("SELECT CAST(" + id + " AS INT) AS CreatedUserID");
+    }
+
+    public static void createAccount(Connection conn, int userId, BigDecimal initialBalance, String currency) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM Users WHERE UserID = ?")) {
+            ps.setInt(1, userId);
+            if (!ps.executeQuery().next()) {
+                throw new SQLException("User does not exist.", "45000");
+            }
+        }
+        long account = insert(conn, "INSERT INTO Accounts (UserID, Balance, Currency) VALUES (?, 0, ?)", userId,
+                currency == null ? FxRates.DEFAULT_CURRENCY : currency);
+        if (initialBalance != null && initialBalance.signum() > 0) {
+            post(conn, (int) account, "Deposit", initialBalance);
+        }
+    }
+
+    public static ResultSet createUserAndAccount(Connection conn, String firstName, String lastName, String email, String password) throws SQLException {
+        if (columnsOnly(conn)) {
+            return conn.createStatement().executeQuery("SELECT * FROM UserAccounts WHERE 1 = 0");
+        }
+        if (userExists(conn, firstName, lastName, email)) {
+            throw new SQLException("User or Email already exists.", "45000");
+        }
+        long user = insert(conn, "INSERT INTO Users (FirstName, LastName, Email, Password) VALUES (?, ?, ?, ?)",
+                firstName, lastName, email, password);
+        long account = insert(conn, "INSERT INTO Accounts (UserID, Balance) VALUES (?, 0)", user);
+        return conn.createStatement().executeQuery("SELECT * FROM UserAccounts WHERE AccountNumber = " + account);
+    }
+
+    public static ResultSet getTransactionHistory(Connection conn, int accountNumber) throws SQLException {
+        return conn.createStatement().executeQuery(
+                "SELECT TransactionID, TransactionType, Amount, TransactionDate FROM Transactions WHERE AccountNumber = " + accountNumber + " ORDER BY TransactionID");
+    }
+
+    /** Filters of CountTransactions and SearchTransactions; a null filter matches everything. */
+    private static final String SEARCH_WHERE = " FROM Transactions WHERE AccountNumber = ?"
+            + " AND TransactionDate >= COALESCE(?, TIMESTAMP '1000-01-01 00:00:00') AND TransactionDate < COALESCE(?, TIMESTAMP '9999-12-31 00:00:00')"
+            + " AND (CAST(? AS VARCHAR) IS NULL OR TransactionType = ?)"
+            + " AND Amount BETWEEN COALESCE(?, -99999999.99) AND COALESCE(?, 99999999.99)"
+            + " AND (CAST(? AS INT) IS NULL OR TransferID IN (SELECT TransferID FROM Transfers"
+            + " WHERE FromAccount = AccountNumber AND ToAccount = ? OR FromAccount = ? AND ToAccount = AccountNumber))";
+
+    private static PreparedStatement search(Connection conn, String select, int accountNumber, Timestamp from, Timestamp to,
+            String type, BigDecimal minAmount, BigDecimal maxAmount, Integer counterparty) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(select);
+        ps.setInt(1, accountNumber);
+        ps.setTimestamp(2, from);
+        ps.setTimestamp(3, to);
+        ps.setString(4, type);
+        ps.setString(5, type);
+        ps.setBigDecimal(6, minAmount);
+        ps.setBigDecimal(7, maxAmount);
+        ps.setObject(8, counterparty);
+        ps.setObject(9, counterparty);
+        ps.setObject(10, counterparty);
+        return ps;
+    }
+
+    /** Totals straight from Transactions; the embedded database is too small for DailyTotals to pay off. */
+    public static ResultSet countTransactions(Connection conn, int accountNumber, Timestamp from, Timestamp to,
+            String type, BigDecimal minAmount, BigDecimal maxAmount, Integer counterparty) throws SQLException {
+        return search(conn, "SELECT COUNT(*) AS Matches,"
+                + " COALESCE(SUM(CASE WHEN TransactionType = 'Deposit' THEN Amount ELSE 0 END), 0) AS Deposits,"
+                + " COALESCE(SUM(CASE WHEN TransactionType = 'Withdrawal' THEN Amount ELSE 0 END), 0) AS Withdrawals"
+                + SEARCH_WHERE, accountNumber, from, to, type, minAmount, maxAmount, counterparty).executeQuery();
+    }
+
+    /** A page of matches, newest first, continuing below beforeDate and beforeId when they are set. */
+    public static ResultSet searchTransactions(Connection conn, int accountNumber, Timestamp from, Timestamp to,
+            String type, BigDecimal minAmount, BigDecimal maxAmount, Integer counterparty,
+            Timestamp beforeDate, Integer beforeId, int limit) throws SQLException {
+        PreparedStatement ps = search(conn, "SELECT TransactionID, TransactionType, Amount, TransactionDate" + SEARCH_WHERE
+                + " AND TransactionDate <= COALESCE(?, TIMESTAMP '9999-12-31 00:00:00')"
+                + " AND (CAST(? AS TIMESTAMP) IS NULL OR TransactionDate < ? OR TransactionID < ?)"
+                + " ORDER BY TransactionDate DESC, TransactionID DESC LIMIT " + limit,
+                accountNumber, from, to, type, minAmount, maxAmount, counterparty);
+        ps.setTimestamp(11, beforeDate);
+        ps.setTimestamp(12, beforeDate);
+        ps.setTimestamp(13, beforeDate);
+        ps.setObject(14, beforeId);
+        return ps.executeQuery();
+    }
+
+    public static ResultSet transfersBetween(Connection conn, int accountA, int accountB, int limit) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement("SELECT TransferID, FromAccount, ToAccount, Amount, ToAmount, Status, CreatedAt FROM Transfers"
+                + " WHERE FromAccount = ? AND ToAccount = ? OR FromAccount = ? AND ToAccount = ? ORDER BY TransferID DESC LIMIT " + limit);
+        ps.setInt(1, accountA);
+        ps.setInt(2, accountB);
+        ps.setInt(3, accountB);
+        ps.setInt(4, accountA);
+        return ps.executeQuery();
+    }
+
+    public static ResultSet changePin(Connection conn, int accountNumber, String newPin) throws SQLException {
+        if (!columnsOnly(conn)) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE Users SET Password = ? WHERE UserID = (SELECT UserID FROM Accounts WHERE AccountNumber = ?)")) {
+                ps.setString(1, newPin);
+                ps.setInt(2, accountNumber);
+                ps.executeUpdate();
+            }
+        }
+        return conn.createStatement().executeQuery("SELECT 'PIN changed successfully.' AS Message");
+    }
+
+    // columns of Transactions as the triggers receive a row
+    private static final int TRANSACTION_ID = 0;
+    private static final int ACCOUNT_NUMBER = 1;
+    private static final int TRANSACTION_TYPE = 2;
+    private static final int AMOUNT = 3;
+    private static final int TRANSACTION_DATE = 4;
+    private static final int CURRENCY = 5;
+
+    /** TagTransactionCurrency: a row without a currency gets its account's. */
+    public static class TagTransactionCurrency implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            if (newRow[CURRENCY] != null) {
+                return;
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT Currency FROM Accounts WHERE AccountNumber = ?")) {
+                ps.setObject(1, newRow[ACCOUNT_NUMBER]);
+                ResultSet rs = ps.executeQuery();
+                if (rs.next()) {
+                    newRow[CURRENCY] = rs.getString(1);
+                }
+            }
+        }
+    }
+
+    /** BackupTransaction: copies the row, with its TransactionID, into TransactionsBackup. */
+    public static class BackupTransaction implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO TransactionsBackup"
+                    + " (TransactionID, AccountNumber, TransactionType, Amount, TransactionDate) VALUES (?, ?, ?, ?, ?)")) {
+                for (int column = TRANSACTION_ID; column <= TRANSACTION_DATE; column++) {
+                    ps.setObject(column + 1, newRow[column]);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /** UpdateAccountBalance: moves the balance, unless the writer set @BulkPosting and does it itself. */
+    public static class UpdateAccountBalance implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            try (Statement s = conn.createStatement()) {
+                ResultSet rs = s.executeQuery("SELECT @BulkPosting");
+                if (rs.next() && rs.getObject(1) != null) {
+                    return;
+                }
+            }
+            BigDecimal amount = (BigDecimal) newRow[AMOUNT];
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE Accounts SET Balance = Balance + ?, Version = Version + 1 WHERE AccountNumber = ?")) {
+                ps.setBigDecimal(1, "Deposit".equals(newRow[TRANSACTION_TYPE]) ? amount : amount.negate());
+                ps.setObject(2, newRow[ACCOUNT_NUMBER]);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /** RollUpTransaction: adds the row to its day's DailyTotals, bulk postings included. */
+    public static class RollUpTransaction implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO DailyTotals (AccountNumber, Day, TransactionType, Count, Total)"
+                    + " VALUES (?, CAST(? AS DATE), ?, 1, ?) ON DUPLICATE KEY UPDATE Count = Count + 1, Total = Total + VALUES(Total)")) {
+                ps.setObject(1, newRow[ACCOUNT_NUMBER]);
+                ps.setObject(2, newRow[TRANSACTION_DATE]);
+                ps.setObject(3, newRow[TRANSACTION_TYPE]);
+                ps.setObject(4, newRow[AMOUNT]);
+                ps.executeUpdate();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.lang.management.ManagementFactory;
+
+/**
+ * The login, sign-up, portfolio and menu windows, built once and reused
+ * instead of rebuilt on every click. The menu keeps its own deposit, withdraw,
+ * history and PIN forms the same way. Only used on the event dispatch
+ * thread.
+ *
+ * The first window to open prints how long after JVM start it appeared.
+ * With -Dbank.startup.exitAfterFirstFrame=true the application then builds
+ * the other forms and exits, which is the training run for the AppCDS
+ * archive made by the cds target in build.xml.
+ */
+public class Forms {
+
+    private static LoginForm login;
+    private static SignUpForm signUp;
+    private static Transaction menu;
+    private static PortfolioForm portfolio;
+
+    public static LoginForm login() {
+        if (login == null) {
+            login = new LoginForm();
+            login.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    firstFrame();
+                    login.removeWindowListener(this);
+                }
+            });
+        }
+        login.reset();
+        return login;
+    }
+
+    public static SignUpForm signUp() {
+        if (signUp == null) {
+            signUp = new SignUpForm();
+        }
+        signUp.reset();
+        return signUp;
+    }
+
+    /** The portfolio window, showing a customer's accounts. */
+    public static PortfolioForm portfolio(Portfolio accounts) {
+        if (portfolio == null) {
+            portfolio = new PortfolioForm();
+        }
+        portfolio.show(accounts);
+        return portfolio;
+    }
+
+    /** Where the menu goes back to: the portfolio of a customer who logged in by email, otherwise the login window. */
+    public static javax.swing.JFrame home() {
+        if (portfolio != null && portfolio.signedIn()) {
+            portfolio.refresh();
+            return portfolio;
+        }
+        return login();
+    }
+
+    /** The menu for an account, replacing the previous account's. */
+    public static Transaction menu(String accountNo) {
+        if (menu != null && !menu.isFor(accountNo)) {
+            menu.dispose();
+            menu = null;
+        }
+        if (menu == null) {
+            menu = new Transaction(accountNo);
+        }
+        return menu;
+    }
+
+    private static void firstFrame() {
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("First frame " + millis + " ms after JVM start");
+        if (Boolean.getBoolean("bank.startup.exitAfterFirstFrame")) {
+            // load the classes of the other windows too, so the archive covers them
+            new SignUpForm().dispose();
+            new PortfolioForm().dispose();
+            new Transaction("0").dispose();
+            new DepositForm("0").dispose();
+            new WithdrawForm("0").dispose();
+            new ChangePin("0").dispose();
+            System.exit(0);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exchange rates, read from the file named by bank.fx.file (default
+ * fxrates.txt in the working directory). Each line is a currency code and
+ * how many units of it one unit of the base currency buys; # starts a
+ * comment:
+ *
+ *   INR 1
+ *   USD 0.012
+ *   EUR 0.011
+ *
+ * A table is immutable and holds every cross rate as a fixed-point long,
+ * scaled by 10^9, so a conversion is one 128-bit multiply and divide on
+ * longs with no allocation. Tables are swapped in whole: a new file is
+ * parsed aside and installed with one atomic set, so a conversion always
+ * sees one consistent table. The file is checked for changes every
+ * bank.fx.reloadSeconds (default 30, 0 to never reload); a file that fails
+ * to parse leaves the current table in place.
+ *
+ * Currencies are known by small ids, handed out in order of first use
+ * and never reused, so an id stays valid across tables.
+ */
+public final class FxRates {
+
+    static final long SCALE = 1_000_000_000L;
+    /** The most an amount column holds, in cents (DECIMAL(10, 2)). */
+    static final long MAX_CENTS = 9_999_999_999L;
+    static final int MAX_CURRENCIES = 254;
+    public static final String DEFAULT_CURRENCY = "INR";
+
+    private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final String[] CODES = new String[MAX_CURRENCIES];
+    private static int registered;
+
+    private static final Path FILE = Paths.get(System.getProperty("bank.fx.file", "fxrates.txt"));
+    private static final AtomicReference<FxRates> CURRENT = new AtomicReference<>(new FxRates(0, new long[0], "none"));
+
+    static {
+        id(DEFAULT_CURRENCY);
+        if (Files.exists(FILE)) {
+            try {
+                install(load(FILE));
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Exchange rates not loaded, " + e);
+            }
+        }
+        long seconds = Long.getLong("bank.fx.reloadSeconds", 30);
+        if (seconds > 0) {
+            Thread watcher = new Thread(() -> watch(seconds * 1000), "fx-rates");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    private final int size;
+    /** Units of `to` per unit of `from`, scaled by SCALE, at [from * size + to]; 0 where there is no rate. */
+    private final long[] cross;
+    public final String source;
+
+    private FxRates(int size, long[] cross, String source) {
+        this.size = size;
+        this.cross = cross;
+        this.source = source;
+    }
+
+    /** The id of a currency code, registering it on first use. */
+    public static int id(String code) {
+        Integer id = IDS.get(code);
+        if (id != null) {
+            return id;
+        }
+        synchronized (IDS) {
+            id = IDS.get(code);
+            if (id == null) {
+                if (!code.matches("[A-Z]{3}")) {
+                    throw new IllegalArgumentException("Not a currency code: " + code);
+                }
+                if (registered == MAX_CURRENCIES) {
+                    throw new IllegalArgumentException("Too many currencies.");
+                }
+                id = registered;
+                CODES[registered++] = code;
+                IDS.put(code, id);
+            }
+            return id;
+        }
+    }
+
+    public static String code(int id) {
+        return CODES[id];
+    }
+
+    /** Every currency the current table has rates for, the default currency first. */
+    public static String[] codes() {
+        FxRates table = current();
+        String[] codes = new String[table.size + 1];
+        int n = 0;
+        codes[n++] = DEFAULT_CURRENCY;
+        for (int i = 0; i < table.size; i++) {
+            if (table.cross[i * table.size + i] != 0 && !DEFAULT_CURRENCY.equals(CODES[i])) {
+                codes[n++] = CODES[i];
+            }
+        }
+        return Arrays.copyOf(codes, n);
+    }
+
+    public static FxRates current() {
+        return CURRENT.get();
+    }
+
+    public static void install(FxRates table) {
+        CURRENT.set(table);
+    }
+
+    /**
+     * Converts whole cents from one currency to another, rounding half up.
+     * Returns -1 if there is no rate between them or the result does not
+     * fit an amount column.
+     */
+    public long convert(long cents, int from, int to) {
+        if (from == to) {
+            return cents;
+        }
+        if (from >= size || to >= size || cents < 0) {
+            return -1;
+        }
+        long rate = cross[from * size + to];
+        if (rate == 0) {
+            return -1;
+        }
+        long converted = mulDiv(cents, rate, SCALE);
+        return converted > MAX_CENTS ? -1 : converted;
+    }
+
+    /** The rate from one currency to another scaled by SCALE, or 0 if there is none. */
+    public long rate(int from, int to) {
+        return from < size && to < size ? cross[from * size + to] : 0;
+    }
+
+    /**
+     * a * b / d rounded half up, for non-negative a and b and 0 < d < 2^31,
+     * through a 128-bit product so that large rates cannot overflow.
+     * Returns Long.MAX_VALUE if the quotient does not fit a long.
+     */
+    static long mulDiv(long a, long b, long d) {
+        long hi = Math.multiplyHigh(a, b);
+        long lo = a * b;
+        if (hi >= d) {
+            return Long.MAX_VALUE;
+        }
+        // long division of hi:lo by d, 32 bits at a time; each partial remainder is below d
+        long n1 = (hi << 32) | (lo >>> 32);
+        long q1 = Long.divideUnsigned(n1, d);
+        long r1 = Long.remainderUnsigned(n1, d);
+        long n0 = (r1 << 32) | (lo & 0xFFFF_FFFFL);
+        long q0 = n0 / d;
+        long r0 = n0 % d;
+        if (q1 >>> 31 != 0) {
+            return Long.MAX_VALUE;
+        }
+        long q = (q1 << 32) | q0;
+        return 2 * r0 >= d ? q + 1 : q;
+    }
+
+    /** Parses a rates file into a table, without installing it. */
+    public static FxRates load(Path file) throws IOException {
+        BigDecimal[] perBase = new BigDecimal[MAX_CURRENCIES];
+        int size = 0;
+        try (BufferedReader in = Files.newBufferedReader(file)) {
+            String line;
+            int number = 0;
+            while ((line = in.readLine()) != null) {
+                number++;
+                int hash = line.indexOf('#');
+                String[] f = (hash < 0 ? line : line.substring(0, hash)).trim().split("\\s+");
+                if (f.length == 1 && f[0].isEmpty()) {
+                    continue;
+                }
+                if (f.length != 2) {
+                    throw new IllegalArgumentException(file + " line " + number + ": expected a currency and a rate");
+                }
+                BigDecimal rate = new BigDecimal(f[1]);
+                if (rate.signum() <= 0) {
+                    throw new IllegalArgumentException(file + " line " + number + ": rate must be positive");
+                }
+                int id = id(f[0].toUpperCase(Locale.ROOT));
+                perBase[id] = rate;
+                size = Math.max(size, id + 1);
+            }
+        }
+        long[] cross = new long[size * size];
+        for (int from = 0; from < size; from++) {
+            for (int to = 0; to < size; to++) {
+                if (perBase[from] != null && perBase[to] != null) {
+                    cross[from * size + to] = perBase[to].multiply(BigDecimal.valueOf(SCALE))
+                            .divide(perBase[from], 0, RoundingMode.HALF_EVEN).longValueExact();
+                }
+            }
+        }
+        return new FxRates(size, cross, file + " at " + new java.sql.Timestamp(Files.getLastModifiedTime(file).toMillis()));
+    }
+
+    private static void watch(long intervalMillis) {
+        long seen = modified();
+        while (true) {
+            try {
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long now = modified();
+            if (now != seen) {
+                seen = now;
+                try {
+                    install(load(FILE));
+                    System.out.println("Exchange rates reloaded from " + current().source);
+                } catch (IOException | RuntimeException e) {
+                    System.out.println("Exchange rates not reloaded, " + e);
+                }
+            }
+        }
+    }
+
+    private static long modified() {
+        try {
+            return Files.getLastModifiedTime(FILE).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Converts an amount with the current rates, or with a rates file.
+     * Usage: FxRates amount from to [file]
+     */
+    public static void main(String[] args) throws IOException {
+        FxRates table = args.length > 3 ? load(Paths.get(args[3])) : current();
+        long cents = new BigDecimal(args[0]).movePointRight(2).longValueExact();
+        long converted = table.convert(cents, id(args[1]), id(args[2]));
+        System.out.println(converted < 0 ? "no rate" : BigDecimal.valueOf(converted, 2).toPlainString() + " " + args[2]);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Checks FxRates conversions against BigDecimal arithmetic, then times
+ * conversions on several threads while another thread swaps the table
+ * in and out, and reports the heap allocated per conversion.
+ * Usage: FxRatesBenchmark [rates file] [conversions per thread] [threads]
+ */
+public class FxRatesBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String file = args.length > 0 ? args[0] : "fxrates.txt";
+        int conversions = args.length > 1 ? Integer.parseInt(args[1]) : 50_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        FxRates table = FxRates.load(Paths.get(file));
+        FxRates.install(table);
+        String[] codes = FxRates.codes();
+        int[] ids = new int[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            ids[i] = FxRates.id(codes[i]);
+        }
+
+        Random random = new Random(42);
+        for (int i = 0; i < 1_000_000; i++) {
+            long a = random.nextLong() >>> 1;
+            long b = random.nextLong() >>> (1 + random.nextInt(63));
+            long expected = BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                    .divide(BigDecimal.valueOf(FxRates.SCALE), 0, RoundingMode.HALF_UP)
+                    .min(BigDecimal.valueOf(Long.MAX_VALUE)).longValue();
+            long actual = FxRates.mulDiv(a, b, FxRates.SCALE);
+            if (actual != expected) {
+                throw new IllegalStateException(a + " * " + b + ": " + actual + " != " + expected);
+            }
+        }
+        System.out.println("mulDiv matches BigDecimal on 1,000,000 random products");
+
+        Thread swapper = new Thread(() -> {
+            FxRates other;
+            try {
+                other = FxRates.load(Paths.get(file));
+            } catch (Exception e) {
+                return;
+            }
+            while (!Thread.currentThread().isInterrupted()) {
+                FxRates.install(other);
+                FxRates.install(table);
+            }
+        });
+        swapper.setDaemon(true);
+        swapper.start();
+
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long[] allocated = new long[threads];
+        long[] checksum = new long[threads];
+        Thread[] workers = new Thread[threads];
+        long started = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int worker = t;
+            workers[t] = new Thread(() -> {
+                Random r = new Random(worker);
+                long before = mx.getCurrentThreadAllocatedBytes();
+                long sum = 0;
+                for (int i = 0; i < conversions; i++) {
+                    int from = ids[i % ids.length];
+                    int to = ids[(i / ids.length) % ids.length];
+                    sum += FxRates.current().convert(100 + (i & 0xFFFFF), from, to);
+                }
+                allocated[worker] = mx.getCurrentThreadAllocatedBytes() - before;
+                checksum[worker] = sum;
+            });
+            workers[t].start();
+        }
+        long total = 0;
+        long bytes = 0;
+        for (int t = 0; t < threads; t++) {
+            workers[t].join();
+            total += checksum[t];
+            bytes += allocated[t];
+        }
+        long nanos = System.nanoTime() - started;
+        swapper.interrupt();
+        long count = (long) conversions * threads;
+        System.out.printf("%,d conversions on %d threads in %.0f ms (%.1f ns each), %,d bytes allocated (%.4f per conversion)%n",
+                count, threads, nanos / 1e6, (double) nanos * threads / count, bytes, (double) bytes / count);
+        System.out.println("checksum " + total);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deposit throughput on a single account as its slot count grows. The
+ * account is re-designated with each slot count in turn, then hammered by
+ * concurrent depositors. Slot count 0 uses the Deposit procedure, the
+ * unstriped baseline.
+ * Usage: HotAccountBenchmark account [threads] [seconds]
+ */
+public class HotAccountBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int account = Integer.parseInt(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 32;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        StripedAccounts striped = StripedAccounts.shared();
+
+        System.out.println("slots deposits/s");
+        for (int slots : new int[] { 0, 1, 2, 4, 8, 16, 32 }) {
+            if (slots > 0) {
+                striped.designate(new Conn(), account, slots);
+            }
+            LongAdder done = new LongAdder();
+            long end = System.nanoTime() + seconds * 1_000_000_000L;
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    Conn conn = new Conn();
+                    while (System.nanoTime() < end) {
+                        try {
+                            if (slots == 0) {
+                                Postings.call(conn, "Deposit", account, BigDecimal.ONE);
+                            } else {
+                                striped.post(conn, "Deposit", account, BigDecimal.ONE);
+                            }
+                            done.increment();
+                        } catch (Exception e) {
+                            System.out.println(e);
+                        }
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread w : workers) {
+                w.join();
+            }
+            System.out.printf("%5d %10d%n", slots, done.sum() / seconds);
+        }
+    }
+}
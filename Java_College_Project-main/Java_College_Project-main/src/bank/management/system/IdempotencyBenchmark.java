@@ -0,0 +1,88 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Measures the idempotency check. First the in-memory part: a replay hit
+ * and a miss on a full store. Then the database part every new key pays,
+ * the SELECT in replay and the INSERT and UPDATE of the key row: a deposit
+ * posted with a new key against the same deposit without one, on the
+ * configured database (-Dbank.db.profile=embedded needs no server). Skipped
+ * when postings is 0.
+ * Usage: IdempotencyBenchmark [entries] [lookups] [postings]
+ */
+public class IdempotencyBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int postings = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+
+        IdempotencyStore store = new IdempotencyStore(entries, 86_400_000L);
+        String[] keys = new String[entries];
+        for (int i = 0; i < entries; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            store.remember(keys[i], "", new long[] { i }, System.currentTimeMillis());
+        }
+        String[] misses = new String[1024];
+        for (int i = 0; i < misses.length; i++) {
+            misses[i] = UUID.randomUUID().toString();
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long hit = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                hit += store.replay(null, keys[(int) ((i * 7919L) % entries)], "")[0];
+            }
+            long hitNanos = (System.nanoTime() - start) / lookups;
+
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                if (store.replay(null, misses[i & 1023], "") != null) {
+                    hit++;
+                }
+            }
+            long missNanos = (System.nanoTime() - start) / lookups;
+            System.out.println("round " + round + ": hit " + hitNanos + " ns, miss " + missNanos + " ns (" + hit + ")");
+        }
+        if (postings > 0) {
+            database(postings);
+        }
+    }
+
+    private static void database(int postings) throws Exception {
+        Conn conn = new Conn();
+        try {
+            IdempotencyStore store = new IdempotencyStore(postings, 86_400_000L);
+            BigDecimal amount = new BigDecimal("0.01");
+            int account = 9770;
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < postings; i++) {
+                    store.execute(conn, null, null, () -> new long[] { Postings.call(conn, "Deposit", account, amount) });
+                }
+                long plainNanos = (System.nanoTime() - start) / postings;
+
+                start = System.nanoTime();
+                for (int i = 0; i < postings; i++) {
+                    String key = UUID.randomUUID().toString();
+                    String hash = IdempotencyStore.hash("Deposit", String.valueOf(account), amount, null, null);
+                    if (store.replay(conn, key, hash) == null) {
+                        store.execute(conn, key, hash, () -> new long[] { Postings.call(conn, "Deposit", account, amount) });
+                    }
+                }
+                long keyedNanos = (System.nanoTime() - start) / postings;
+                System.out.printf("database round %d: deposit %.1f us, with a new key %.1f us, key adds %.1f us%n",
+                        round, plainNanos / 1e3, keyedNanos / 1e3, (keyedNanos - plainNanos) / 1e3);
+            }
+        } finally {
+            conn.c.close();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Timestamp;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the result of every posting made with an idempotency key so a
+ * retried request gets the original TransactionIDs back instead of posting
+ * twice.
+ *
+ * Recent keys are held in a bounded in-memory map that drops the oldest
+ * entry when full; every key is also written to the IdempotencyKeys table
+ * in the same database transaction as the posting, so a replay arriving at
+ * another terminal or after a restart is still caught. Keys expire after
+ * bank.idempotency.ttlSeconds.
+ *
+ * Each key is stored with a hash of the request it was first used for
+ * (see hash), and a key sent again with a different request is refused
+ * instead of returning the first request's result.
+ */
+public class IdempotencyStore {
+
+    /** The database part of a posting, run inside the key's transaction. */
+    public interface Work {
+        long[] run() throws SQLException;
+    }
+
+    private static IdempotencyStore shared;
+
+    private final long ttlMillis;
+    private final Map<String, Entry> recent;
+    private int sincePurge;
+
+    public IdempotencyStore(int maxEntries, long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        recent = new LinkedHashMap<String, Entry>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static synchronized IdempotencyStore shared() {
+        if (shared == null) {
+            shared = new IdempotencyStore(Integer.getInteger("bank.idempotency.maxEntries", 100_000),
+                    Long.getLong("bank.idempotency.ttlSeconds", 86_400) * 1000);
+        }
+        return shared;
+    }
+
+    /**
+     * The hash a key is bound to: SHA-256 over the operation, account,
+     * amount, currency and recipient, with amounts compared by value so
+     * 100 and 100.00 are the same request. Null parts hash as empty.
+     */
+    public static String hash(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object part : parts) {
+            if (part instanceof BigDecimal) {
+                part = ((BigDecimal) part).stripTrailingZeros().toPlainString();
+            }
+            sb.append(part == null ? "" : part).append('|');
+        }
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Result of an earlier posting with this key, or null if the key is new.
+     * Looks in memory first and only asks the database on a miss; pass a
+     * null connection to check memory alone. Fails if the key was used for
+     * a request with a different hash.
+     */
+    public long[] replay(Conn conn, String key, String hash) throws SQLException {
+        if (key == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (recent) {
+            Entry entry = recent.get(key);
+            if (entry != null) {
+                if (now - entry.createdAt < ttlMillis) {
+                    check(key, entry.hash, hash);
+                    return entry.ids;
+                }
+                recent.remove(key);
+            }
+        }
+        if (conn == null) {
+            return null;
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "SELECT Result, CreatedAt, RequestHash FROM IdempotencyKeys WHERE IdemKey = ?")) {
+            ps.setString(1, key);
+            ResultSet rs = ps.executeQuery();
+            if (rs.next()) {
+                long createdAt = rs.getTimestamp(2).getTime();
+                if (now - createdAt < ttlMillis) {
+                    check(key, rs.getString(3), hash);
+                    if (rs.getString(1) != null) {
+                        long[] ids = decode(rs.getString(1));
+                        remember(key, hash, ids, createdAt);
+                        return ids;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs the work in one transaction together with claiming the key. A key
+     * claimed by a request that is still running fails rather than posting
+     * a second time. Any failure, checked or not, rolls the whole
+     * transaction back, key included.
+     */
+    public long[] execute(Conn conn, String key, String hash, Work work) throws SQLException {
+        if (key == null) {
+            return work.run();
+        }
+        conn.c.setAutoCommit(false);
+        try {
+            claim(conn, key, hash);
+            long[] ids = work.run();
+            complete(conn, key, ids);
+            conn.c.commit();
+            remember(key, hash, ids, System.currentTimeMillis());
+            return ids;
+        } catch (SQLException | RuntimeException e) {
+            conn.c.rollback();
+            throw e;
+        } finally {
+            conn.c.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Inserts the key and its request hash inside the caller's open
+     * transaction. Used directly by callers that post several requests in
+     * one transaction; they must call complete before committing and
+     * remember after. A key whose row has expired but not yet been purged
+     * is deleted and claimed again.
+     */
+    void claim(Conn conn, String key, String hash) throws SQLException {
+        purgeExpired(conn);
+        try {
+            insert(conn, key, hash);
+            return;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (!deleteExpired(conn, key)) {
+                String existing = null;
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "SELECT RequestHash FROM IdempotencyKeys WHERE IdemKey = ?")) {
+                    ps.setString(1, key);
+                    ResultSet rs = ps.executeQuery();
+                    if (rs.next()) {
+                        existing = rs.getString(1);
+                    }
+                }
+                check(key, existing, hash);
+                throw new SQLException("Request " + key + " is already being processed.", "45000", e);
+            }
+        }
+        try {
+            insert(conn, key, hash);
+        } catch (SQLIntegrityConstraintViolationException e) {
+            throw new SQLException("Request " + key + " is already being processed.", "45000", e);
+        }
+    }
+
+    private static void insert(Conn conn, String key, String hash) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "INSERT INTO IdempotencyKeys (IdemKey, RequestHash) VALUES (?, ?)")) {
+            ps.setString(1, key);
+            ps.setString(2, hash);
+            ps.executeUpdate();
+        }
+    }
+
+    private boolean deleteExpired(Conn conn, String key) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "DELETE FROM IdempotencyKeys WHERE IdemKey = ? AND CreatedAt < ?")) {
+            ps.setString(1, key);
+            ps.setTimestamp(2, new Timestamp(System.currentTimeMillis() - ttlMillis));
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private static void check(String key, String stored, String hash) throws SQLException {
+        if (stored != null && !stored.equals(hash)) {
+            throw new SQLException("Request " + key + " was already used for a different request.", "45000");
+        }
+    }
+
+    void complete(Conn conn, String key, long[] ids) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement("UPDATE IdempotencyKeys SET Result = ? WHERE IdemKey = ?")) {
+            ps.setString(1, encode(ids));
+            ps.setString(2, key);
+            ps.executeUpdate();
+        }
+    }
+
+    void remember(String key, String hash, long[] ids, long createdAt) {
+        synchronized (recent) {
+            recent.put(key, new Entry(hash, ids, createdAt));
+        }
+    }
+
+    private void purgeExpired(Conn conn) throws SQLException {
+        synchronized (recent) {
+            if (++sincePurge < 1000) {
+                return;
+            }
+            sincePurge = 0;
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "DELETE FROM IdempotencyKeys WHERE CreatedAt < ?")) {
+            ps.setTimestamp(1, new Timestamp(System.currentTimeMillis() - ttlMillis));
+            ps.executeUpdate();
+        }
+    }
+
+    private static String encode(long[] ids) {
+        StringBuilder sb = new StringBuilder();
+        for (long id : ids) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(id);
+        }
+        return sb.toString();
+    }
+
+    private static long[] decode(String result) {
+        String[] parts = result.split(",");
+        long[] ids = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            ids[i] = Long.parseLong(parts[i]);
+        }
+        return ids;
+    }
+
+    private static class Entry {
+
+        final String hash;
+        final long[] ids;
+        final long createdAt;
+
+        Entry(String hash, long[] ids, long createdAt) {
+            this.hash = hash;
+            this.ids = ids;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.swing.ImageIcon;
+
+/**
+ * Decoded form backgrounds, shared by every form so each JPEG is read and
+ * decoded once per run rather than on every construction.
+ */
+public class Images {
+
+    private static final Map<String, ImageIcon> CACHE = new ConcurrentHashMap<>();
+
+    /** The image at a classpath path such as "/login.jpg", decoding it on first use. */
+    public static ImageIcon get(String path) {
+        return CACHE.computeIfAbsent(path, p -> new ImageIcon(Images.class.getResource(p)));
+    }
+
+    /**
+     * Decodes images on a background thread ahead of the forms that show
+     * them. A form asking for one still being decoded waits for it.
+     */
+    public static void preload(String... paths) {
+        Thread loader = new Thread(() -> {
+            for (String path : paths) {
+                get(path);
+            }
+        }, "image-preload");
+        loader.setDaemon(true);
+        loader.start();
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The nightly interest run: pays one day of interest on every account with
+ * a positive balance, at bank.interest.annualBasisPoints (default 200, 2%
+ * a year).
+ *
+ * The account numbers from 9770 up to the highest at the start of the run
+ * are split into bank.interest.partitions ranges (default 64), worked by a
+ * pool of threads with a connection each. A partition is read in chunks of
+ * bank.interest.chunk accounts (default 1000). Each chunk is one short
+ * transaction: the balances are read without locks, the interest goes in
+ * as one multi-row insert of Deposit rows, the balances are raised in one
+ * UPDATE and the partition's checkpoint moves on. Row locks are held only
+ * for that UPDATE, so daytime postings to the same accounts wait a few
+ * milliseconds at most. A chunk that deadlocks with them is retried.
+ *
+ * The checkpoint commits with the chunk, so a run that is stopped or
+ * crashes resumes at the next chunk when started again for the same day,
+ * and no account is paid twice for a day.
+ *
+ * Interest is kept in whole units of 1/1,335,900,000 of a cent
+ * (10,000 basis points times 365 times 366 days), so a day's accrual is
+ * exact in a long for both 365 and 366 day years. The whole cents are paid
+ * and the remainder is kept in Accounts.InterestCarry for the next night.
+ */
+public class InterestAccrual {
+
+    /** One cent in carry units: basis points times the days of both year lengths. */
+    static final long UNIT = 10_000L * 365 * 366;
+
+    private static final int MAX_RETRIES = 5;
+
+    private final LocalDate day;
+    private final int chunkSize;
+    private int rateBasisPoints;
+    private int daysInYear;
+    private final AtomicLong accounts = new AtomicLong();
+    private final AtomicLong interestCents = new AtomicLong();
+    private final AtomicInteger partitionsLeft = new AtomicInteger();
+
+    public InterestAccrual(LocalDate day, int chunkSize) {
+        this.day = day;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * One day's interest on balanceCents at the given annual rate, plus the
+     * carry from earlier days, in carry units. Divide by UNIT for the cents
+     * to pay; the remainder is the new carry.
+     */
+    static long accrue(long balanceCents, int carry, int rateBasisPoints, int daysInYear) {
+        return Math.multiplyExact(balanceCents * rateBasisPoints, 365L * 366 / daysInYear) + carry;
+    }
+
+    /**
+     * Pays the day's interest with the given number of threads, resuming the
+     * run if it was started before. Returns the number of accounts done by
+     * this call.
+     */
+    public long run(int threads) throws SQLException, InterruptedException {
+        List<Integer> partitions = start(Integer.getInteger("bank.interest.partitions", 64));
+        partitionsLeft.set(partitions.size());
+        ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>(partitions);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "interest");
+            t.setDaemon(true);
+            return t;
+        });
+        long started = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> work(queue));
+        }
+        pool.shutdown();
+        long reportNanos = TimeUnit.SECONDS.toNanos(Long.getLong("bank.interest.reportSeconds", 5));
+        while (!pool.awaitTermination(reportNanos, TimeUnit.NANOSECONDS)) {
+            report(started);
+        }
+        report(started);
+        if (partitionsLeft.get() == 0) {
+            Conn conn = new Conn();
+            try (PreparedStatement ps = conn.c.prepareStatement("UPDATE InterestRuns SET FinishedAt = NOW() WHERE RunDay = ?")) {
+                ps.setDate(1, Date.valueOf(day));
+                ps.executeUpdate();
+            } finally {
+                conn.c.close();
+            }
+        } else {
+            System.out.println(partitionsLeft.get() + " partitions failed, run again to finish them");
+        }
+        return accounts.get();
+    }
+
+    private void report(long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("interest %s: %,d accounts in %.1f s (%,.0f accounts/s), %s paid, %d partitions left%n",
+                day, accounts.get(), seconds, accounts.get() / Math.max(seconds, 1e-9),
+                BigDecimal.valueOf(interestCents.get(), 2).toPlainString(), partitionsLeft.get());
+    }
+
+    /**
+     * Records the run and its partitions the first time the day is run, and
+     * returns the partitions not yet finished. A later start keeps the first
+     * one's rate and partitions.
+     */
+    private List<Integer> start(int partitions) throws SQLException {
+        Conn conn = new Conn();
+        try {
+            conn.c.setAutoCommit(false);
+            try {
+                int created;
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "INSERT IGNORE INTO InterestRuns (RunDay, RateBasisPoints, DaysInYear) VALUES (?, ?, ?)")) {
+                    ps.setDate(1, Date.valueOf(day));
+                    ps.setInt(2, Integer.getInteger("bank.interest.annualBasisPoints", 200));
+                    ps.setInt(3, day.lengthOfYear());
+                    created = ps.executeUpdate();
+                }
+                if (created == 1) {
+                    ResultSet rs = conn.s.executeQuery("SELECT COALESCE(MAX(AccountNumber), 0) FROM Accounts");
+                    int last = rs.next() ? rs.getInt(1) : 0;
+                    int first = BalanceReplica.FIRST_ACCOUNT;
+                    int width = Math.max(1, (last - first + partitions) / partitions);
+                    try (PreparedStatement ps = conn.c.prepareStatement("INSERT INTO InterestPartitions"
+                            + " (RunDay, PartitionNo, FromAccount, ToAccount, LastAccount) VALUES (?, ?, ?, ?, ?)")) {
+                        for (int p = 0; p < partitions && first + (long) p * width <= last; p++) {
+                            int from = first + p * width;
+                            ps.setDate(1, Date.valueOf(day));
+                            ps.setInt(2, p);
+                            ps.setInt(3, from);
+                            ps.setInt(4, p == partitions - 1 ? last : Math.min(last, from + width - 1));
+                            ps.setInt(5, from - 1);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+                try (PreparedStatement ps = conn.c.prepareStatement("SELECT RateBasisPoints, DaysInYear FROM InterestRuns WHERE RunDay = ?")) {
+                    ps.setDate(1, Date.valueOf(day));
+                    ResultSet rs = ps.executeQuery();
+                    rs.next();
+                    rateBasisPoints = rs.getInt(1);
+                    daysInYear = rs.getInt(2);
+                }
+                List<Integer> pending = new ArrayList<>();
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "SELECT PartitionNo FROM InterestPartitions WHERE RunDay = ? AND Status <> 'Done' ORDER BY PartitionNo")) {
+                    ps.setDate(1, Date.valueOf(day));
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        pending.add(rs.getInt(1));
+                    }
+                }
+                conn.c.commit();
+                return pending;
+            } catch (SQLException e) {
+                conn.c.rollback();
+                throw e;
+            }
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private void work(ConcurrentLinkedQueue<Integer> queue) {
+        Chunk chunk = new Chunk(chunkSize);
+        Conn conn = null;
+        try {
+            conn = new Conn();
+            Integer partition;
+            while ((partition = queue.poll()) != null) {
+                try {
+                    int retries = 0;
+                    while (true) {
+                        try {
+                            if (!chunk.run(conn, partition)) {
+                                break;
+                            }
+                            retries = 0;
+                        } catch (SQLException e) {
+                            if (!retryable(e) || ++retries > MAX_RETRIES) {
+                                throw e;
+                            }
+                            Thread.sleep(10L << retries);
+                        }
+                    }
+                    partitionsLeft.decrementAndGet();
+                } catch (SQLException e) {
+                    System.out.println("Interest partition " + partition + ": " + e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            System.out.println(e);
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.c.close();
+                } catch (SQLException e) {
+                    System.out.println(e);
+                }
+            }
+        }
+    }
+
+    /** Deadlocks and lock wait timeouts, which roll the chunk back and can simply be run again. */
+    private static boolean retryable(SQLException e) {
+        return "40001".equals(e.getSQLState()) || e.getErrorCode() == 1213 || e.getErrorCode() == 1205;
+    }
+
+    /** One worker's chunk of accounts, in arrays reused from chunk to chunk. */
+    private class Chunk {
+
+        final int[] account;
+        final long[] balance;
+        final int[] carry;
+        final int[] currency;
+        final long[] interest;
+        final long[] transactionId;
+        /** Accounts with a positive balance in the arrays. */
+        int size;
+        /** Accounts read, and the last of them. */
+        int scanned;
+        int lastRead;
+
+        Chunk(int capacity) {
+            account = new int[capacity];
+            balance = new long[capacity];
+            carry = new int[capacity];
+            currency = new int[capacity];
+            interest = new long[capacity];
+            transactionId = new long[capacity];
+        }
+
+        /** Pays the partition's next chunk. Returns false once the partition is done. */
+        boolean run(Conn conn, int partition) throws SQLException {
+            int paid = 0;
+            long paidCents = 0;
+            conn.c.setAutoCommit(false);
+            try {
+                int last;
+                int to;
+                // locking the checkpoint keeps a second process on the same run off this partition
+                try (PreparedStatement ps = conn.c.prepareStatement("SELECT LastAccount, ToAccount, Status FROM InterestPartitions"
+                        + " WHERE RunDay = ? AND PartitionNo = ? FOR UPDATE")) {
+                    ps.setDate(1, Date.valueOf(day));
+                    ps.setInt(2, partition);
+                    ResultSet rs = ps.executeQuery();
+                    if (!rs.next() || "Done".equals(rs.getString(3))) {
+                        conn.c.commit();
+                        return false;
+                    }
+                    last = rs.getInt(1);
+                    to = rs.getInt(2);
+                }
+                read(conn, last, to);
+                if (scanned == 0) {
+                    try (PreparedStatement ps = conn.c.prepareStatement("UPDATE InterestPartitions SET Status = 'Done', FinishedAt = NOW()"
+                            + " WHERE RunDay = ? AND PartitionNo = ?")) {
+                        ps.setDate(1, Date.valueOf(day));
+                        ps.setInt(2, partition);
+                        ps.executeUpdate();
+                    }
+                    conn.c.commit();
+                    return false;
+                }
+                for (int i = 0; i < size; i++) {
+                    long units = accrue(balance[i], carry[i], rateBasisPoints, daysInYear);
+                    interest[i] = units / UNIT;
+                    carry[i] = (int) (units % UNIT);
+                    if (interest[i] > 0) {
+                        paid++;
+                        paidCents += interest[i];
+                    }
+                }
+                if (paid > 0) {
+                    conn.s.execute("SET @BulkPosting = 1;");
+                    try {
+                        insertInterest(conn, paid);
+                    } finally {
+                        conn.s.execute("SET @BulkPosting = NULL;");
+                    }
+                }
+                if (size > 0) {
+                    apply(conn);
+                }
+                try (PreparedStatement ps = conn.c.prepareStatement("UPDATE InterestPartitions SET LastAccount = ?,"
+                        + " Accounts = Accounts + ?, Interest = Interest + ? WHERE RunDay = ? AND PartitionNo = ?")) {
+                    ps.setInt(1, lastRead);
+                    ps.setInt(2, scanned);
+                    ps.setBigDecimal(3, BigDecimal.valueOf(paidCents, 2));
+                    ps.setDate(4, Date.valueOf(day));
+                    ps.setInt(5, partition);
+                    ps.executeUpdate();
+                }
+                conn.c.commit();
+            } catch (SQLException e) {
+                conn.c.rollback();
+                throw e;
+            } finally {
+                conn.c.setAutoCommit(true);
+            }
+            for (int i = 0; i < size; i++) {
+                if (interest[i] > 0) {
+                    Postings.posted(transactionId[i], account[i], "Deposit", BigDecimal.valueOf(interest[i], 2));
+                }
+            }
+            accounts.addAndGet(scanned);
+            interestCents.addAndGet(paidCents);
+            return true;
+        }
+
+        /**
+         * Reads the next chunk of accounts after last, keeping those with a
+         * positive balance (counting the slots of hot accounts). A plain
+         * read takes no locks, so postings carry on while the chunk is
+         * worked out; the interest is then added to whatever the balance
+         * has become.
+         */
+        private void read(Conn conn, int last, int to) throws SQLException {
+            size = 0;
+            try (PreparedStatement ps = conn.c.prepareStatement("SELECT Accounts.AccountNumber,"
+                    + " Accounts.Balance + COALESCE(Slots.Balance, 0) AS Balance, Accounts.InterestCarry, Accounts.Currency"
+                    + " FROM Accounts LEFT JOIN (SELECT AccountNumber, SUM(Balance) AS Balance FROM AccountSlots"
+                    + " WHERE AccountNumber > ? AND AccountNumber <= ? GROUP BY AccountNumber) AS Slots"
+                    + " ON Slots.AccountNumber = Accounts.AccountNumber"
+                    + " WHERE Accounts.AccountNumber > ? AND Accounts.AccountNumber <= ?"
+                    + " ORDER BY Accounts.AccountNumber LIMIT ?")) {
+                ps.setInt(1, last);
+                ps.setInt(2, to);
+                ps.setInt(3, last);
+                ps.setInt(4, to);
+                ps.setInt(5, account.length);
+                ResultSet rs = ps.executeQuery();
+                scanned = 0;
+                while (rs.next()) {
+                    scanned++;
+                    lastRead = rs.getInt(1);
+                    long cents = rs.getBigDecimal(2).movePointRight(2).longValueExact();
+                    if (cents > 0) {
+                        account[size] = lastRead;
+                        balance[size] = cents;
+                        carry[size] = rs.getInt(3);
+                        currency[size] = FxRates.id(rs.getString(4));
+                        size++;
+                    }
+                }
+            }
+        }
+
+        private void insertInterest(Conn conn, int paid) throws SQLException {
+            StringBuilder sql = new StringBuilder("INSERT INTO Transactions (AccountNumber, TransactionType, Amount, Currency) VALUES ");
+            for (int i = 0; i < paid; i++) {
+                sql.append(i == 0 ? "(?, 'Deposit', ?, ?)" : ", (?, 'Deposit', ?, ?)");
+            }
+            try (PreparedStatement ps = conn.c.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+                int p = 1;
+                for (int i = 0; i < size; i++) {
+                    if (interest[i] > 0) {
+                        ps.setInt(p++, account[i]);
+                        ps.setBigDecimal(p++, BigDecimal.valueOf(interest[i], 2));
+                        ps.setString(p++, FxRates.code(currency[i]));
+                    }
+                }
+                ps.executeUpdate();
+                ResultSet keys = ps.getGeneratedKeys();
+                for (int i = 0; i < size; i++) {
+                    if (interest[i] > 0) {
+                        transactionId[i] = keys.next() ? keys.getLong(1) : 0;
+                    }
+                }
+            }
+        }
+
+        /** Adds the interest to each balance and stores the new carry, in one statement. */
+        private void apply(Conn conn) throws SQLException {
+            if (Conn.EMBEDDED) {
+                // H2 has no multi-table UPDATE, so the embedded profile updates row by row
+                try (PreparedStatement ps = conn.c.prepareStatement("UPDATE Accounts SET Balance = Balance + ?,"
+                        + " InterestCarry = ?, Version = Version + ? WHERE AccountNumber = ?")) {
+                    for (int i = 0; i < size; i++) {
+                        ps.setBigDecimal(1, BigDecimal.valueOf(interest[i], 2));
+                        ps.setInt(2, carry[i]);
+                        ps.setInt(3, interest[i] > 0 ? 1 : 0);
+                        ps.setInt(4, account[i]);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                return;
+            }
+            StringBuilder sql = new StringBuilder("UPDATE Accounts JOIN (");
+            for (int i = 0; i < size; i++) {
+                sql.append(i == 0 ? "SELECT ? AS AccountNumber, ? AS Interest, ? AS Carry" : " UNION ALL SELECT ?, ?, ?");
+            }
+            sql.append(") AS Accrued USING (AccountNumber) SET Balance = Balance + Accrued.Interest,"
+                    + " InterestCarry = Accrued.Carry, Version = Version + (Accrued.Interest > 0)");
+            try (PreparedStatement ps = conn.c.prepareStatement(sql.toString())) {
+                int p = 1;
+                for (int i = 0; i < size; i++) {
+                    ps.setInt(p++, account[i]);
+                    ps.setBigDecimal(p++, BigDecimal.valueOf(interest[i], 2));
+                    ps.setInt(p++, carry[i]);
+                }
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * Runs the night's interest, for yesterday unless a day is given.
+     * Usage: InterestAccrual [yyyy-mm-dd] [threads]
+     */
+    public static void main(String[] args) throws Exception {
+        LocalDate day = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now().minusDays(1);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        new InterestAccrual(day, Integer.getInteger("bank.interest.chunk", 1000)).run(threads);
+    }
+}
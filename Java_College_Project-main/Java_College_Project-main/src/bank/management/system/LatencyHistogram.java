@@ -0,0 +1,95 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds, laid out like HdrHistogram:
+ * values below 32 get a bucket each, larger values get 16 buckets per
+ * power of two, so any recorded value is known to within about 6%. Buckets
+ * are plain atomic counters, so recording never blocks and readers see a
+ * live (not snapshotted) view.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 640;
+
+    public final String name;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /** Records the time since a System.nanoTime() reading. */
+    public void recordSince(long startNanos) {
+        record((System.nanoTime() - startNanos) / 1000);
+    }
+
+    public void record(long micros) {
+        if (micros < 0) {
+            micros = 0;
+        }
+        counts.incrementAndGet(index(micros));
+        total.increment();
+        sumMicros.add(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return total.sum();
+    }
+
+    public long sumMicros() {
+        return sumMicros.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /** Upper bound of the bucket holding the given quantile, in microseconds. */
+    public long percentile(double quantile) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            n += counts.get(i);
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(lowest(i + 1) - 1, maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    static int index(long micros) {
+        if (micros < 32) {
+            return (int) micros;
+        }
+        int exponent = 59 - Long.numberOfLeadingZeros(micros);
+        int index = exponent * 16 + (int) (micros >>> exponent);
+        return Math.min(index, BUCKETS - 1);
+    }
+
+    static long lowest(int index) {
+        if (index < 32) {
+            return index;
+        }
+        int exponent = index / 16 - 1;
+        return (long) (index - exponent * 16) << exponent;
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless load generator replaying teller sessions against the local
+ * database, with the same SQL the forms send: optional sign-up, login,
+ * balance, then a number of operations drawn from the mix.
+ *
+ * Sessions arrive as a Poisson process at the given rate whether or not
+ * earlier ones have finished (an open model), and run on a fixed pool of
+ * worker threads, one connection per operation like the forms. Each
+ * operation is recorded twice: service time from when it actually started,
+ * and response time from when it should have started, so a session that
+ * waited in the queue is charged for the wait (coordinated omission
+ * correction). Existing accounts are picked by a Zipf distribution.
+ *
+ * Usage: LoadGenerator [key=value ...] with keys rate (sessions/s),
+ * seconds, threads, accounts, skew, ops (per session), signup (share of
+ * sessions that sign up first) and mix, e.g.
+ * mix=balance:30,deposit:25,withdraw:20,history:20,pin:5
+ */
+public class LoadGenerator {
+
+    private static final String[] OPERATIONS = { "signup", "login", "balance", "deposit", "withdraw", "history", "pin" };
+
+    private final Map<String, LatencyHistogram> service = new LinkedHashMap<>();
+    private final Map<String, LatencyHistogram> response = new LinkedHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<Integer, String> pins = new ConcurrentHashMap<>();
+    private final LongAdder sessions = new LongAdder();
+
+    private final int[] accounts;
+    private final double[] cdf;
+    private final String[] mixOps;
+    private final double[] mixCdf;
+    private final int opsPerSession;
+    private final double signupShare;
+
+    LoadGenerator(Map<Integer, String> existing, double skew, Map<String, Integer> mix, int opsPerSession, double signupShare) {
+        for (String op : OPERATIONS) {
+            service.put(op, new LatencyHistogram(op));
+            response.put(op, new LatencyHistogram(op));
+            errors.put(op, new LongAdder());
+        }
+        pins.putAll(existing);
+        accounts = existing.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        cdf = new double[accounts.length];
+        double total = 0;
+        for (int k = 0; k < accounts.length; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < accounts.length; k++) {
+            cdf[k] /= total;
+        }
+        mixOps = mix.keySet().toArray(new String[0]);
+        mixCdf = new double[mixOps.length];
+        double weights = 0;
+        for (int i = 0; i < mixOps.length; i++) {
+            weights += mix.get(mixOps[i]);
+            mixCdf[i] = weights;
+        }
+        for (int i = 0; i < mixOps.length; i++) {
+            mixCdf[i] /= weights;
+        }
+        this.opsPerSession = opsPerSession;
+        this.signupShare = signupShare;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            opts.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "20"));
+        int seconds = Integer.parseInt(opts.getOrDefault("seconds", "60"));
+        int threads = Integer.parseInt(opts.getOrDefault("threads", "32"));
+        int accountLimit = Integer.parseInt(opts.getOrDefault("accounts", "1000"));
+        double skew = Double.parseDouble(opts.getOrDefault("skew", "1.1"));
+        int ops = Integer.parseInt(opts.getOrDefault("ops", "5"));
+        double signup = Double.parseDouble(opts.getOrDefault("signup", "0.05"));
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : opts.getOrDefault("mix", "balance:30,deposit:25,withdraw:20,history:20,pin:5").split(",")) {
+            String[] kv = part.split(":");
+            mix.put(kv[0].strip(), Integer.parseInt(kv[1].strip()));
+        }
+
+        Map<Integer, String> existing = new LinkedHashMap<>();
+        Conn conn = new Conn();
+        ResultSet rs = conn.s.executeQuery("SELECT AccountNumber, Password FROM LoginPass ORDER BY AccountNumber LIMIT " + accountLimit + ";");
+        while (rs.next()) {
+            existing.put(rs.getInt(1), rs.getString(2));
+        }
+        conn.c.close();
+        if (existing.isEmpty()) {
+            System.out.println("No accounts to log in to, load bank.sql first.");
+            return;
+        }
+
+        LoadGenerator generator = new LoadGenerator(existing, skew, mix, ops, signup);
+        System.out.println(String.format(Locale.ROOT, "%.1f sessions/s for %ds on %d threads, %d accounts (skew %.2f), %d ops/session, mix %s",
+                rate, seconds, threads, existing.size(), skew, ops, mix));
+        generator.run(rate, seconds, threads);
+    }
+
+    void run(double rate, int seconds, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long end = start + seconds * 1_000_000_000L;
+        long intended = start;
+        long nextReport = start + 5_000_000_000L;
+        long reported = 0;
+        while (intended < end) {
+            long now = System.nanoTime();
+            if (intended > now) {
+                LockSupport.parkNanos(intended - now);
+            }
+            long scheduled = intended;
+            pool.execute(() -> session(scheduled));
+            // exponential gaps give Poisson arrivals
+            intended += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) / rate * 1e9);
+            if (System.nanoTime() >= nextReport) {
+                long done = sessions.sum();
+                System.out.println(String.format(Locale.ROOT, "%5ds  %.1f sessions/s completed",
+                        (System.nanoTime() - start) / 1_000_000_000, (done - reported) / 5.0));
+                reported = done;
+                nextReport += 5_000_000_000L;
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.MINUTES);
+        System.out.print(report((System.nanoTime() - start) / 1e9));
+    }
+
+    private void session(long intended) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // only the first operation carries the time the session spent queued
+        long[] due = { intended };
+        Integer account = null;
+        if (random.nextDouble() < signupShare) {
+            account = timed("signup", due, this::signUp);
+        }
+        if (account == null) {
+            double u = random.nextDouble();
+            int rank = 0;
+            while (rank < cdf.length - 1 && cdf[rank] < u) {
+                rank++;
+            }
+            account = accounts[rank];
+        }
+        int acct = account;
+        if (!Boolean.TRUE.equals(timed("login", due, () -> login(acct)))) {
+            sessions.increment();
+            return;
+        }
+        timed("balance", due, () -> balance(acct));
+        for (int i = 0; i < opsPerSession; i++) {
+            double u = random.nextDouble();
+            int k = 0;
+            while (k < mixCdf.length - 1 && mixCdf[k] < u) {
+                k++;
+            }
+            String op = mixOps[k];
+            switch (op) {
+                case "balance" -> timed(op, due, () -> balance(acct));
+                case "deposit" -> timed(op, due, () -> post(true, acct, random.nextInt(100, 10_000)));
+                case "withdraw" -> timed(op, due, () -> post(false, acct, random.nextInt(100, 5_000)));
+                case "history" -> timed(op, due, () -> history(acct));
+                case "pin" -> timed(op, due, () -> changePin(acct));
+                default -> throw new IllegalArgumentException("Unknown operation " + op);
+            }
+        }
+        sessions.increment();
+    }
+
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+
+    private <T> T timed(String op, long[] due, Step<T> step) {
+        long started = System.nanoTime();
+        try {
+            return step.run();
+        } catch (Exception e) {
+            errors.get(op).increment();
+            return null;
+        } finally {
+            long now = System.nanoTime();
+            service.get(op).record((now - started) / 1000);
+            response.get(op).record((now - Math.min(due[0], started)) / 1000);
+            due[0] = now;
+        }
+    }
+
+    private Integer signUp() throws Exception {
+        String pin = String.format("%04d", ThreadLocalRandom.current().nextInt(10_000));
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        Conn conn = new Conn();
+        try {
+            ResultSet result = conn.s.executeQuery("{CALL CreateUserAndAccount('Load', '" + id + "', 'load." + id + "@example.com', '" + pin + "')}");
+            if (!result.next()) {
+                return null;
+            }
+            int account = result.getInt("AccountNumber");
+            pins.put(account, pin);
+            return account;
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private Boolean login(int account) throws Exception {
+        Conn conn = new Conn();
+        try {
+            ResultSet result = conn.s.executeQuery("SELECT * FROM LoginPass WHERE AccountNumber = '" + account + "'AND Password = '" + pins.get(account) + "'");
+            if (!result.next()) {
+                // another session changed the PIN in between
+                throw new IllegalStateException("Invalid Card Number or PIN.");
+            }
+            return Boolean.TRUE;
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private BigDecimal balance(int account) throws Exception {
+        Conn conn = new Conn();
+        try {
+            ResultSet result = conn.s.executeQuery("SELECT Balance FROM AccountBalances WHERE AccountNumber =" + account + ";");
+            return result.next() ? result.getBigDecimal(1) : null;
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private Long post(boolean deposit, int account, long cents) throws Exception {
+        Conn conn = new Conn();
+        try {
+            BigDecimal amount = BigDecimal.valueOf(cents, 2);
+            String key = UUID.randomUUID().toString();
+            return deposit ? Postings.deposit(conn, String.valueOf(account), amount, key)
+                    : Postings.withdraw(conn, String.valueOf(account), amount, key);
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private Integer history(int account) throws Exception {
+        Conn conn = new Conn();
+        try {
+            ResultSet rs = conn.s.executeQuery("CALL GetTransactionHistory(" + account + ");");
+            int rows = 0;
+            while (rs.next()) {
+                rs.getString("TransactionType");
+                rs.getBigDecimal("Amount");
+                rs.getTimestamp("TransactionDate");
+                rows++;
+            }
+            return rows;
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    private Boolean changePin(int account) throws Exception {
+        String newPin = String.format("%04d", ThreadLocalRandom.current().nextInt(10_000));
+        Conn conn = new Conn();
+        try {
+            ResultSet rs = conn.s.executeQuery("Select * from LoginPass where AccountNumber =" + account + ";");
+            if (!rs.next() || !rs.getString("Password").equals(pins.get(account))) {
+                throw new IllegalStateException("Current PIN is incorrect.");
+            }
+            conn.s.executeUpdate("CALL ChangePin(" + account + ",'" + newPin + "');");
+            pins.put(account, newPin);
+            return Boolean.TRUE;
+        } finally {
+            conn.c.close();
+        }
+    }
+
+    /** Throughput and percentiles per operation, service time next to corrected response time. */
+    String report(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%d sessions in %.1fs, %.1f sessions/s%n",
+                sessions.sum(), elapsedSeconds, sessions.sum() / elapsedSeconds));
+        sb.append(String.format(Locale.ROOT, "%-9s %8s %8s %7s | %27s | %27s%n", "", "count", "ops/s", "errors",
+                "service p50 / p99 / p99.9 ms", "response p50 / p99 / p99.9 ms"));
+        List<String> ops = new ArrayList<>(service.keySet());
+        for (String op : ops) {
+            LatencyHistogram s = service.get(op);
+            LatencyHistogram r = response.get(op);
+            if (s.count() == 0) {
+                continue;
+            }
+            sb.append(String.format(Locale.ROOT, "%-9s %8d %8.1f %7d | %8.2f %8.2f %9.2f | %8.2f %8.2f %9.2f%n",
+                    op, s.count(), s.count() / elapsedSeconds, errors.get(op).sum(),
+                    s.percentile(0.5) / 1000.0, s.percentile(0.99) / 1000.0, s.percentile(0.999) / 1000.0,
+                    r.percentile(0.5) / 1000.0, r.percentile(0.99) / 1000.0, r.percentile(0.999) / 1000.0));
+        }
+        return sb.toString();
+    }
+}
@@ -21,6 +21,12 @@ public class LoginForm extends javax.swing.JFrame {
         initComponents();
     }
 
+    /** Clears the fields before the form is shown again. */
+    void reset() {
+        accountno.setText("");
+        password.setText("");
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -103,9 +109,9 @@ public class LoginForm extends javax.swing.JFrame {
 
         jLabel2.setFont(new java.awt.Font("Segoe UI", 1, 20)); // NOI18N
         jLabel2.setForeground(new java.awt.Color(255, 255, 255));
-        jLabel2.setText("CARD NO:");
+        jLabel2.setText("CARD/EMAIL:");
 
-        jLabel3.setIcon(new javax.swing.ImageIcon(getClass().getResource("/login.jpg"))); // NOI18N
+        jLabel3.setIcon(Images.get("/login.jpg")); // NOI18N
         jLabel3.setText("jLabel3");
 
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
@@ -113,8 +119,8 @@ public class LoginForm extends javax.swing.JFrame {
         layout.setHorizontalGroup(
             layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(layout.createSequentialGroup()
-                .addGap(150, 150, 150)
-                .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 115, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addGap(130, 130, 130)
+                .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 135, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(layout.createSequentialGroup()
                 .addGap(150, 150, 150)
                 .addComponent(jLabel5, javax.swing.GroupLayout.PREFERRED_SIZE, 115, javax.swing.GroupLayout.PREFERRED_SIZE)
@@ -174,17 +180,43 @@ public class LoginForm extends javax.swing.JFrame {
     }//GEN-LAST:event_passwordActionPerformed
 
     private void jloginActionPerformed(java.awt.event.ActionEvent evt) {                                       
+        long started = System.nanoTime();
         try {
-            Conn conn = new Conn();
             String p = new String(password.getPassword()).strip();
             String acc = accountno.getText().strip();
-            String query = "SELECT * FROM LoginPass WHERE AccountNumber = '" + acc + "'AND Password = '" + p + "'";
-            ResultSet result = conn.s.executeQuery(query);
+            if (acc.indexOf('@') >= 0) {
+                // a customer: one query checks the password and reads every account
+                Portfolio accounts = Portfolio.login(acc, p);
+                Metrics.LOGIN.recordSince(started);
+                AuditLog.record(accounts != null ? AuditLog.LOGIN : AuditLog.LOGIN_FAILED, 0,
+                        accounts != null ? accounts.userId : 0, 0, acc);
+                if (accounts != null) {
+                    JOptionPane.showMessageDialog(null, "Login successful.");
+                    this.setVisible(false);
+                    Forms.portfolio(accounts).setVisible(true);
+                } else {
+                    JOptionPane.showMessageDialog(null, "Invalid Email or PIN.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+                return;
+            }
+            boolean found;
+            try (Bulkhead.Permit permit = Bulkhead.READS.enter()) {
+                Conn conn = ReadRouting.forRead(acc);
+                try {
+                    String query = "SELECT * FROM LoginPass WHERE AccountNumber = '" + acc + "'AND Password = '" + p + "'";
+                    ResultSet result = conn.s.executeQuery(query);
+                    found = result.next();
+                } finally {
+                    conn.c.close();
+                }
+            }
+            Metrics.LOGIN.recordSince(started);
+            AuditLog.record(found ? AuditLog.LOGIN : AuditLog.LOGIN_FAILED, acc.matches("\\d{1,9}") ? Integer.parseInt(acc) : 0, 0, 0, "card");
 
-            if(result.next()) {
+            if(found) {
                 JOptionPane.showMessageDialog(null, "Login successful.");
                 this.setVisible(false);
-                new Transaction(acc).setVisible(true);
+                Forms.menu(acc).setVisible(true);
 
             }else{
                 JOptionPane.showMessageDialog(null, "Invalid Card Number or PIN.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -199,7 +231,7 @@ public class LoginForm extends javax.swing.JFrame {
     private void jsignupActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jsignupActionPerformed
         // TODO add your handling code here:
         this.setVisible(false);
-        new SignUpForm().setVisible(true);
+        Forms.signUp().setVisible(true);
         
     }//GEN-LAST:event_jsignupActionPerformed
 
@@ -245,7 +277,7 @@ public class LoginForm extends javax.swing.JFrame {
         /* Create and display the form */
         java.awt.EventQueue.invokeLater(new Runnable() {
             public void run() {
-                new LoginForm().setVisible(true);
+                Forms.login().setVisible(true);
             }
         });
     }
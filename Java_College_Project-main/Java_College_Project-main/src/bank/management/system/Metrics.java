@@ -0,0 +1,195 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histograms for every banking operation, plus connection-acquire
+ * and SQL execution time recorded separately.
+ *
+ * With -Dbank.metrics.port=N the histograms are served in Prometheus text
+ * format on http://host:N/metrics; with -Dbank.metrics.logSeconds=N they are
+ * printed every N seconds. Both start the first time this class is used.
+ * When SQL tracing is on (see TracingJdbc) the statements with the most
+ * total time are served on /sql and printed with the periodic summary.
+ */
+public class Metrics {
+
+    public static final LatencyHistogram LOGIN = new LatencyHistogram("login");
+    public static final LatencyHistogram BALANCE = new LatencyHistogram("balance");
+    public static final LatencyHistogram DEPOSIT = new LatencyHistogram("deposit");
+    public static final LatencyHistogram WITHDRAW = new LatencyHistogram("withdraw");
+    public static final LatencyHistogram TRANSFER = new LatencyHistogram("transfer");
+    public static final LatencyHistogram HISTORY = new LatencyHistogram("history");
+    public static final LatencyHistogram SEARCH = new LatencyHistogram("search");
+    public static final LatencyHistogram CHANGE_PIN = new LatencyHistogram("change_pin");
+    public static final LatencyHistogram SIGN_UP = new LatencyHistogram("sign_up");
+    /** Reads of a customer's portfolio from the database; cache hits are not counted. */
+    public static final LatencyHistogram PORTFOLIO = new LatencyHistogram("portfolio");
+
+    public static final LatencyHistogram CONNECT = new LatencyHistogram("connection_acquire");
+    public static final LatencyHistogram SQL = new LatencyHistogram("sql_execute");
+    /** Time from a standing order's due time until its run is committed. */
+    public static final LatencyHistogram STANDING_ORDER_LAG = new LatencyHistogram("standing_order_lag");
+    /** Time to force a batch of audit records to disk. */
+    public static final LatencyHistogram AUDIT_SYNC = new LatencyHistogram("audit_sync");
+
+    private static final LatencyHistogram[] OPERATIONS = {
+        LOGIN, BALANCE, DEPOSIT, WITHDRAW, TRANSFER, HISTORY, SEARCH, CHANGE_PIN, SIGN_UP, PORTFOLIO
+    };
+    private static final Bulkhead[] BULKHEADS = { Bulkhead.READS, Bulkhead.WRITES, Bulkhead.SCANS };
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final int SQL_TOP = Integer.getInteger("bank.trace.top", 20);
+
+    static {
+        Integer port = Integer.getInteger("bank.metrics.port");
+        if (port != null) {
+            try {
+                HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+                server.createContext("/metrics", exchange -> {
+                    byte[] body = prometheus().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.createContext("/sql", exchange -> {
+                    byte[] body = (TracingJdbc.TRACE ? TracingJdbc.top(SQL_TOP) : "SQL tracing is off, start with -Dbank.trace=true\n")
+                            .getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.start();
+            } catch (IOException e) {
+                System.out.println("Metrics endpoint failed, " + e);
+            }
+        }
+        Long seconds = Long.getLong("bank.metrics.logSeconds");
+        if (seconds != null) {
+            ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-log");
+                t.setDaemon(true);
+                return t;
+            });
+            timer.scheduleAtFixedRate(() -> {
+                System.out.print(summary());
+                if (TracingJdbc.TRACE) {
+                    System.out.print(TracingJdbc.top(SQL_TOP));
+                }
+            }, seconds, seconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /** All histograms in Prometheus text exposition format, in seconds. */
+    public static String prometheus() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# TYPE bank_operation_latency_seconds summary\n");
+        for (LatencyHistogram h : OPERATIONS) {
+            summary(sb, "bank_operation_latency_seconds", "operation=\"" + h.name + "\"", h);
+        }
+        sb.append("# TYPE bank_db_latency_seconds summary\n");
+        summary(sb, "bank_db_latency_seconds", "phase=\"" + CONNECT.name + "\"", CONNECT);
+        summary(sb, "bank_db_latency_seconds", "phase=\"" + SQL.name + "\"", SQL);
+        sb.append("# TYPE bank_circuit_open gauge\n");
+        sb.append("bank_circuit_open{circuit=\"").append(CircuitBreaker.DATABASE.name).append("\"} ")
+                .append(CircuitBreaker.DATABASE.isOpen() ? 1 : 0).append('\n');
+        sb.append("# TYPE bank_circuit_rejected_total counter\n");
+        sb.append("bank_circuit_rejected_total{circuit=\"").append(CircuitBreaker.DATABASE.name).append("\"} ")
+                .append(CircuitBreaker.DATABASE.rejected()).append('\n');
+        sb.append("# TYPE bank_bulkhead_in_use gauge\n");
+        for (Bulkhead b : BULKHEADS) {
+            sb.append("bank_bulkhead_in_use{bulkhead=\"").append(b.name).append("\"} ").append(b.inUse()).append('\n');
+        }
+        sb.append("# TYPE bank_bulkhead_rejected_total counter\n");
+        for (Bulkhead b : BULKHEADS) {
+            sb.append("bank_bulkhead_rejected_total{bulkhead=\"").append(b.name).append("\"} ").append(b.rejected()).append('\n');
+        }
+        if (ReadRouting.configured()) {
+            sb.append(ReadRouting.prometheus());
+        }
+        StandingOrders scheduler = StandingOrders.shared();
+        if (scheduler != null) {
+            sb.append("# TYPE bank_standing_order_lag_seconds summary\n");
+            summary(sb, "bank_standing_order_lag_seconds", "stage=\"committed\"", STANDING_ORDER_LAG);
+            sb.append("# TYPE bank_standing_order_pending gauge\n");
+            sb.append("bank_standing_order_pending ").append(scheduler.pending()).append('\n');
+            sb.append("# TYPE bank_standing_order_overdue_seconds gauge\n");
+            sb.append("bank_standing_order_overdue_seconds ").append(seconds(scheduler.lagMillis() * 1000)).append('\n');
+        }
+        AuditLog audit = AuditLog.current();
+        if (audit != null) {
+            sb.append("# TYPE bank_audit_sync_seconds summary\n");
+            summary(sb, "bank_audit_sync_seconds", "log=\"" + audit.path.getFileName() + "\"", AUDIT_SYNC);
+            sb.append("# TYPE bank_audit_records_total counter\n");
+            sb.append("bank_audit_records_total{state=\"written\"} ").append(audit.records()).append('\n');
+            sb.append("bank_audit_records_total{state=\"synced\"} ").append(audit.synced()).append('\n');
+            sb.append("# TYPE bank_audit_queued gauge\n");
+            sb.append("bank_audit_queued ").append(audit.queued()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void summary(StringBuilder sb, String metric, String label, LatencyHistogram h) {
+        for (double q : QUANTILES) {
+            sb.append(metric).append('{').append(label).append(",quantile=\"").append(q).append("\"} ")
+                    .append(seconds(h.percentile(q))).append('\n');
+        }
+        sb.append(metric).append("_sum{").append(label).append("} ").append(seconds(h.sumMicros())).append('\n');
+        sb.append(metric).append("_count{").append(label).append("} ").append(h.count()).append('\n');
+    }
+
+    /** One line per histogram with count and percentiles in milliseconds. */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (LatencyHistogram h : OPERATIONS) {
+            line(sb, h);
+        }
+        line(sb, CONNECT);
+        line(sb, SQL);
+        sb.append(String.format(Locale.ROOT, "%-20s %s, opened %d times, %d rejected%n", "circuit",
+                CircuitBreaker.DATABASE.isOpen() ? "open" : "closed", CircuitBreaker.DATABASE.timesOpened(), CircuitBreaker.DATABASE.rejected()));
+        for (Bulkhead b : BULKHEADS) {
+            sb.append(String.format(Locale.ROOT, "%-20s in use=%d rejected=%d%n", "bulkhead_" + b.name, b.inUse(), b.rejected()));
+        }
+        if (ReadRouting.configured()) {
+            sb.append(ReadRouting.summary());
+        }
+        StandingOrders scheduler = StandingOrders.shared();
+        if (scheduler != null) {
+            line(sb, STANDING_ORDER_LAG);
+            sb.append(String.format(Locale.ROOT, "%-20s pending=%d overdue=%dms%n", "standing_orders",
+                    scheduler.pending(), scheduler.lagMillis()));
+        }
+        AuditLog audit = AuditLog.current();
+        if (audit != null) {
+            line(sb, AUDIT_SYNC);
+            sb.append(String.format(Locale.ROOT, "%-20s written=%d synced=%d queued=%d syncs=%d%n", "audit",
+                    audit.records(), audit.synced(), audit.queued(), audit.syncs()));
+        }
+        return sb.toString();
+    }
+
+    private static void line(StringBuilder sb, LatencyHistogram h) {
+        sb.append(String.format(Locale.ROOT, "%-20s n=%d p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n", h.name, h.count(),
+                h.percentile(0.5) / 1000.0, h.percentile(0.99) / 1000.0, h.percentile(0.999) / 1000.0, h.maxMicros() / 1000.0));
+    }
+
+    private static String seconds(long micros) {
+        return Double.toString(micros / 1_000_000.0);
+    }
+}
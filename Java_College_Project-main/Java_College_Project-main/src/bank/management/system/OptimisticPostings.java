@@ -0,0 +1,174 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Deposits and withdrawals using optimistic concurrency on Accounts.Version
+ * instead of the balance trigger.
+ *
+ * Each attempt reads Balance and Version without locking, then updates the
+ * row only if Version is unchanged, and inserts the Transactions row with
+ * the trigger switched off by @BulkPosting. When another posting got there
+ * first the attempt is rolled back and retried after a randomised,
+ * doubling backoff, up to maxRetries times. Retries and aborts are counted
+ * overall and per account. Enabled for the forms with
+ * -Dbank.optimistic=true.
+ */
+public class OptimisticPostings {
+
+    private static OptimisticPostings shared;
+
+    private final int maxRetries;
+    private final long baseBackoffNanos;
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder aborts = new LongAdder();
+    private final ConcurrentHashMap<Integer, LongAdder[]> perAccount = new ConcurrentHashMap<>();
+
+    public OptimisticPostings(int maxRetries, long baseBackoffMicros) {
+        this.maxRetries = maxRetries;
+        this.baseBackoffNanos = baseBackoffMicros * 1000;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("bank.optimistic");
+    }
+
+    public static synchronized OptimisticPostings shared() {
+        if (shared == null) {
+            shared = new OptimisticPostings(Integer.getInteger("bank.optimistic.maxRetries", 10),
+                    Long.getLong("bank.optimistic.backoffMicros", 200));
+        }
+        return shared;
+    }
+
+    /**
+     * Posts a Deposit or Withdrawal and returns its TransactionID. Fails with
+     * the procedures' messages for a missing account or insufficient funds,
+     * and with SQLState 40001 when every retry lost to another posting.
+     */
+    public long post(Conn conn, String type, int accountNumber, BigDecimal amount, String key, String hash) throws SQLException {
+        if (amount.signum() <= 0) {
+            throw new SQLException("Amount must be positive.", "45000");
+        }
+        BigDecimal delta = "Deposit".equals(type) ? amount : amount.negate();
+        operations.increment();
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                retries.increment();
+                counters(accountNumber)[0].increment();
+                long ceiling = baseBackoffNanos << Math.min(attempt - 1, 10);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+            }
+            conn.c.setAutoCommit(false);
+            try {
+                long version;
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "SELECT Balance, Version FROM Accounts WHERE AccountNumber = ?")) {
+                    ps.setInt(1, accountNumber);
+                    ResultSet rs = ps.executeQuery();
+                    if (!rs.next()) {
+                        throw new SQLException("Account does not exist.", "45000");
+                    }
+                    if (delta.signum() < 0 && rs.getBigDecimal(1).compareTo(amount) < 0) {
+                        throw new SQLException("Insufficient funds.", "45000");
+                    }
+                    version = rs.getLong(2);
+                }
+                if (key != null) {
+                    IdempotencyStore.shared().claim(conn, key, hash);
+                }
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "UPDATE Accounts SET Balance = Balance + ?, Version = Version + 1 WHERE AccountNumber = ? AND Version = ?")) {
+                    ps.setBigDecimal(1, delta);
+                    ps.setInt(2, accountNumber);
+                    ps.setLong(3, version);
+                    if (ps.executeUpdate() == 0) {
+                        conn.c.rollback();
+                        continue;
+                    }
+                }
+                long id;
+                conn.s.execute("SET @BulkPosting = 1;");
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "INSERT INTO Transactions (AccountNumber, TransactionType, Amount) VALUES (?, ?, ?)",
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    ps.setInt(1, accountNumber);
+                    ps.setString(2, type);
+                    ps.setBigDecimal(3, amount);
+                    ps.executeUpdate();
+                    ResultSet keys = ps.getGeneratedKeys();
+                    id = keys.next() ? keys.getLong(1) : 0;
+                } finally {
+                    conn.s.execute("SET @BulkPosting = NULL;");
+                }
+                if (key != null) {
+                    IdempotencyStore.shared().complete(conn, key, new long[] { id });
+                }
+                conn.c.commit();
+                if (key != null) {
+                    IdempotencyStore.shared().remember(key, hash, new long[] { id }, System.currentTimeMillis());
+                }
+                return id;
+            } catch (SQLException | RuntimeException e) {
+                conn.c.rollback();
+                throw e;
+            } finally {
+                conn.c.setAutoCommit(true);
+            }
+        }
+        aborts.increment();
+        counters(accountNumber)[1].increment();
+        throw new SQLException("Account " + accountNumber + " is busy, please try again.", "40001");
+    }
+
+    private LongAdder[] counters(int accountNumber) {
+        return perAccount.computeIfAbsent(accountNumber, k -> new LongAdder[] { new LongAdder(), new LongAdder() });
+    }
+
+    public long operations() {
+        return operations.sum();
+    }
+
+    public long retries() {
+        return retries.sum();
+    }
+
+    public long aborts() {
+        return aborts.sum();
+    }
+
+    /**
+     * Retries per operation and abort rate, followed by the accounts with
+     * the most retries.
+     */
+    public String report(int top) {
+        long ops = Math.max(1, operations.sum());
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("operations %d, retries/op %.3f, abort rate %.4f%n",
+                operations.sum(), retries.sum() / (double) ops, aborts.sum() / (double) ops));
+        List<Map.Entry<Integer, LongAdder[]>> accounts = new ArrayList<>(perAccount.entrySet());
+        accounts.sort((a, b) -> Long.compare(b.getValue()[0].sum(), a.getValue()[0].sum()));
+        for (int i = 0; i < Math.min(top, accounts.size()); i++) {
+            Map.Entry<Integer, LongAdder[]> e = accounts.get(i);
+            sb.append(String.format("  account %d: %d retries, %d aborts%n", e.getKey(), e.getValue()[0].sum(), e.getValue()[1].sum()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hammers OptimisticPostings with deposits spread over accounts by a Zipf
+ * distribution, so a few accounts take most of the traffic, and prints the
+ * contention report.
+ * Usage: OptimisticStress [threads] [seconds] [accounts] [skew]
+ */
+public class OptimisticStress {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int accounts = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        double skew = args.length > 3 ? Double.parseDouble(args[3]) : 1.2;
+
+        // cumulative Zipf weights over account ranks 1..accounts
+        double[] cdf = new double[accounts];
+        double total = 0;
+        for (int k = 0; k < accounts; k++) {
+            total += 1 / Math.pow(k + 1, skew);
+            cdf[k] = total;
+        }
+        for (int k = 0; k < accounts; k++) {
+            cdf[k] /= total;
+        }
+
+        OptimisticPostings postings = new OptimisticPostings(10, 200);
+        LongAdder failed = new LongAdder();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                Conn conn = new Conn();
+                while (System.nanoTime() < end) {
+                    double u = ThreadLocalRandom.current().nextDouble();
+                    int rank = 0;
+                    while (cdf[rank] < u) {
+                        rank++;
+                    }
+                    try {
+                        postings.post(conn, "Deposit", BalanceReplica.FIRST_ACCOUNT + rank, BigDecimal.ONE, null, null);
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        System.out.println(threads + " threads, " + accounts + " accounts, skew " + skew + ": "
+                + postings.operations() / seconds + " ops/s, " + failed.sum() + " failed");
+        System.out.print(postings.report(10));
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * All the accounts of one customer with their balances, read in one query
+ * that checks the customer's email and password and returns a row per
+ * account: Users by its unique Email index, then Accounts by the index on
+ * its UserID foreign key, with the hot-account slots added in as the
+ * AccountBalances view does.
+ *
+ * Portfolios are cached per user, so moving between the accounts of a
+ * portfolio does not go back to the database. A posting to one of the
+ * accounts in this process marks its portfolio stale, and the next of()
+ * reads it again from the primary.
+ */
+public final class Portfolio {
+
+    private static final String QUERY = "SELECT Users.UserID, Users.FirstName, Users.LastName,"
+            + " Accounts.AccountNumber, Accounts.Currency,"
+            + " Accounts.Balance + COALESCE((SELECT SUM(AccountSlots.Balance) FROM AccountSlots"
+            + " WHERE AccountSlots.AccountNumber = Accounts.AccountNumber), 0)"
+            + " FROM Users LEFT JOIN Accounts ON Accounts.UserID = Users.UserID WHERE ";
+
+    private static final Map<Integer, Portfolio> CACHE = new ConcurrentHashMap<>();
+    /** The user owning each cached account, to find the portfolio a posting touches. */
+    private static final Map<Integer, Integer> OWNERS = new ConcurrentHashMap<>();
+
+    public final int userId;
+    public final String name;
+    /** Account numbers in ascending order, with the currency id and balance of each at the same index. */
+    public final int[] accounts;
+    public final int[] currencies;
+    public final long[] balanceCents;
+    private volatile boolean stale;
+
+    private Portfolio(int userId, String name, int[] accounts, int[] currencies, long[] balanceCents) {
+        this.userId = userId;
+        this.name = name;
+        this.accounts = accounts;
+        this.currencies = currencies;
+        this.balanceCents = balanceCents;
+    }
+
+    /** Checks a customer's email and password. Returns their portfolio, or null if they do not match. */
+    public static Portfolio login(String email, String password) throws SQLException {
+        return read("Users.Email = ? AND Users.Password = ?", email, password);
+    }
+
+    /** The user's portfolio, from the cache unless a posting has changed it since. */
+    public static Portfolio of(int userId) throws SQLException {
+        Portfolio cached = CACHE.get(userId);
+        if (cached != null && !cached.stale) {
+            return cached;
+        }
+        return read("Users.UserID = ?", userId);
+    }
+
+    /** Drops a user's portfolio from the cache, at logout. */
+    public static void forget(int userId) {
+        Portfolio removed = CACHE.remove(userId);
+        if (removed != null) {
+            for (int account : removed.accounts) {
+                OWNERS.remove(account, userId);
+            }
+        }
+    }
+
+    /** Called for every posting, so the portfolio holding the account is read again. */
+    static void invalidate(int accountNumber) {
+        Integer user = OWNERS.get(accountNumber);
+        if (user != null) {
+            Portfolio cached = CACHE.get(user);
+            if (cached != null) {
+                cached.stale = true;
+            }
+        }
+    }
+
+    private static Portfolio read(String where, Object... parameters) throws SQLException {
+        long started = System.nanoTime();
+        int userId = 0;
+        String name = null;
+        int n = 0;
+        int[] accounts = new int[4];
+        int[] currencies = new int[4];
+        long[] balances = new long[4];
+        try (Bulkhead.Permit permit = Bulkhead.READS.enter()) {
+            Conn conn = new Conn();
+            try (PreparedStatement ps = conn.c.prepareStatement(QUERY + where + " ORDER BY Accounts.AccountNumber")) {
+                for (int i = 0; i < parameters.length; i++) {
+                    ps.setObject(i + 1, parameters[i]);
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    userId = rs.getInt(1);
+                    name = rs.getString(2) + " " + rs.getString(3);
+                    int account = rs.getInt(4);
+                    if (rs.wasNull()) {
+                        continue;
+                    }
+                    if (n == accounts.length) {
+                        accounts = Arrays.copyOf(accounts, n * 2);
+                        currencies = Arrays.copyOf(currencies, n * 2);
+                        balances = Arrays.copyOf(balances, n * 2);
+                    }
+                    accounts[n] = account;
+                    currencies[n] = FxRates.id(rs.getString(5));
+                    balances[n] = rs.getBigDecimal(6).movePointRight(2).longValueExact();
+                    AccountCurrencies.remember(account, currencies[n]);
+                    n++;
+                }
+            } finally {
+                conn.c.close();
+            }
+        }
+        Metrics.PORTFOLIO.recordSince(started);
+        if (name == null) {
+            return null;
+        }
+        Portfolio portfolio = new Portfolio(userId, name, Arrays.copyOf(accounts, n), Arrays.copyOf(currencies, n),
+                Arrays.copyOf(balances, n));
+        Portfolio previous = CACHE.put(userId, portfolio);
+        if (previous != null) {
+            for (int account : previous.accounts) {
+                OWNERS.remove(account, userId);
+            }
+        }
+        for (int account : portfolio.accounts) {
+            OWNERS.put(account, userId);
+        }
+        return portfolio;
+    }
+
+    public boolean owns(int accountNumber) {
+        return Arrays.binarySearch(accounts, accountNumber) >= 0;
+    }
+
+    /** The sum of the balances of the accounts in one currency. */
+    public long subtotal(int currency) {
+        long sum = 0;
+        for (int i = 0; i < accounts.length; i++) {
+            if (currencies[i] == currency) {
+                sum += balanceCents[i];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Every balance converted to one currency with a single snapshot of the
+     * rates and added up, or -1 if some account's currency has no rate.
+     */
+    public long total(int currency) {
+        FxRates rates = FxRates.current();
+        long sum = 0;
+        for (int i = 0; i < accounts.length; i++) {
+            long cents = balanceCents[i];
+            long converted = rates.convert(Math.abs(cents), currencies[i], currency);
+            if (converted < 0) {
+                return -1;
+            }
+            sum += cents < 0 ? -converted : converted;
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,307 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/GUIForms/JFrame.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import javax.swing.JOptionPane;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * A customer's accounts with their balances and the total, after logging in
+ * with an email. Opening an account shows its menu; Cancel on the menu
+ * comes back here, from the cached portfolio.
+ */
+public class PortfolioForm extends javax.swing.JFrame {
+
+    private Portfolio portfolio;
+
+    /**
+     * Creates new form PortfolioForm
+     */
+    public PortfolioForm() {
+        initComponents();
+    }
+
+    boolean signedIn() {
+        return portfolio != null;
+    }
+
+    void show(Portfolio portfolio) {
+        this.portfolio = portfolio;
+        jLabel1.setText("Accounts of " + portfolio.name);
+        DefaultTableModel rows = (DefaultTableModel) AccountTable.getModel();
+        rows.setRowCount(0);
+        for (int i = 0; i < portfolio.accounts.length; i++) {
+            rows.addRow(new Object[] { String.valueOf(portfolio.accounts[i]), FxRates.code(portfolio.currencies[i]),
+                amount(portfolio.balanceCents[i]) });
+        }
+        if (rows.getRowCount() > 0) {
+            AccountTable.setRowSelectionInterval(0, 0);
+        }
+        jtotal.setText(totals(portfolio));
+    }
+
+    /** Shows the portfolio again, reading it only if a posting has changed it. */
+    void refresh() {
+        try {
+            Portfolio current = Portfolio.of(portfolio.userId);
+            if (current != portfolio) {
+                show(current);
+            }
+        } catch (Exception e) {
+            System.out.println(e);
+        }
+    }
+
+    /** The total in the default currency, followed by the subtotal of each currency when there are several. */
+    private static String totals(Portfolio portfolio) {
+        int base = FxRates.id(FxRates.DEFAULT_CURRENCY);
+        StringBuilder subtotals = new StringBuilder();
+        int currencies = 0;
+        for (int i = 0; i < portfolio.accounts.length; i++) {
+            int currency = portfolio.currencies[i];
+            int first = 0;
+            while (portfolio.currencies[first] != currency) {
+                first++;
+            }
+            if (first == i) {
+                subtotals.append(currencies++ == 0 ? "" : " + ").append(amount(portfolio.subtotal(currency)))
+                        .append(' ').append(FxRates.code(currency));
+            }
+        }
+        long total = portfolio.total(base);
+        String text = "Total: " + (total < 0 ? "no exchange rate" : amount(total) + " " + FxRates.DEFAULT_CURRENCY);
+        return currencies > 1 ? text + "  (" + subtotals + ")" : text;
+    }
+
+    private static String amount(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+
+    /**
+     * This method is called from within the constructor to initialize the form.
+     * WARNING: Do NOT modify this code. The content of this method is always
+     * regenerated by the Form Editor.
+     */
+    @SuppressWarnings("unchecked")
+    // <editor-fold defaultstate="collapsed" desc="Generated Code">//GEN-BEGIN:initComponents
+    private void initComponents() {
+
+        jLabel1 = new javax.swing.JLabel();
+        jScrollPane1 = new javax.swing.JScrollPane();
+        AccountTable = new javax.swing.JTable();
+        jtotal = new javax.swing.JLabel();
+        bopen = new javax.swing.JButton();
+        brefresh = new javax.swing.JButton();
+        blogout = new javax.swing.JButton();
+        jPanel1 = new javax.swing.JPanel();
+        jPanel2 = new javax.swing.JPanel();
+
+        setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
+
+        jLabel1.setFont(new java.awt.Font("Segoe UI", 1, 24)); // NOI18N
+        jLabel1.setForeground(new java.awt.Color(255, 255, 255));
+        jLabel1.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
+        jLabel1.setText("My Accounts");
+
+        AccountTable.setBackground(new java.awt.Color(204, 255, 204));
+        AccountTable.setFont(new java.awt.Font("Segoe UI", 0, 16)); // NOI18N
+        AccountTable.setModel(new javax.swing.table.DefaultTableModel(
+            new Object [][] {
+
+            },
+            new String [] {
+                "Account", "Currency", "Balance"
+            }
+        ) {
+            Class[] types = new Class [] {
+                java.lang.String.class, java.lang.String.class, java.lang.String.class
+            };
+            boolean[] canEdit = new boolean [] {
+                false, false, false
+            };
+
+            public Class getColumnClass(int columnIndex) {
+                return types [columnIndex];
+            }
+
+            public boolean isCellEditable(int rowIndex, int columnIndex) {
+                return canEdit [columnIndex];
+            }
+        });
+        AccountTable.setRowHeight(28);
+        AccountTable.setSelectionMode(javax.swing.ListSelectionModel.SINGLE_SELECTION);
+        AccountTable.getTableHeader().setReorderingAllowed(false);
+        AccountTable.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                AccountTableMouseClicked(evt);
+            }
+        });
+        jScrollPane1.setViewportView(AccountTable);
+
+        jtotal.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
+        jtotal.setForeground(new java.awt.Color(255, 255, 255));
+        jtotal.setText("Total:");
+
+        bopen.setBackground(new java.awt.Color(102, 204, 0));
+        bopen.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
+        bopen.setForeground(new java.awt.Color(255, 255, 255));
+        bopen.setText("Open");
+        bopen.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                bopenActionPerformed(evt);
+            }
+        });
+
+        brefresh.setBackground(new java.awt.Color(102, 204, 0));
+        brefresh.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
+        brefresh.setForeground(new java.awt.Color(255, 255, 255));
+        brefresh.setText("Refresh");
+        brefresh.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                brefreshActionPerformed(evt);
+            }
+        });
+
+        blogout.setBackground(new java.awt.Color(255, 0, 51));
+        blogout.setFont(new java.awt.Font("Segoe UI", 1, 18)); // NOI18N
+        blogout.setForeground(new java.awt.Color(255, 255, 255));
+        blogout.setText("Logout");
+        blogout.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                blogoutActionPerformed(evt);
+            }
+        });
+
+        jPanel1.setBackground(new java.awt.Color(102, 204, 0));
+
+        jPanel2.setBackground(new java.awt.Color(0, 51, 51));
+
+        javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
+        getContentPane().setLayout(layout);
+        layout.setHorizontalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 695, javax.swing.GroupLayout.PREFERRED_SIZE)
+            .addGroup(layout.createSequentialGroup()
+                .addGap(37, 37, 37)
+                .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 626, javax.swing.GroupLayout.PREFERRED_SIZE))
+            .addGroup(layout.createSequentialGroup()
+                .addGap(37, 37, 37)
+                .addComponent(jtotal, javax.swing.GroupLayout.PREFERRED_SIZE, 626, javax.swing.GroupLayout.PREFERRED_SIZE))
+            .addGroup(layout.createSequentialGroup()
+                .addGap(37, 37, 37)
+                .addComponent(bopen, javax.swing.GroupLayout.PREFERRED_SIZE, 178, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(46, 46, 46)
+                .addComponent(brefresh, javax.swing.GroupLayout.PREFERRED_SIZE, 178, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(46, 46, 46)
+                .addComponent(blogout, javax.swing.GroupLayout.PREFERRED_SIZE, 178, javax.swing.GroupLayout.PREFERRED_SIZE))
+            .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, 720, javax.swing.GroupLayout.PREFERRED_SIZE)
+            .addComponent(jPanel2, javax.swing.GroupLayout.PREFERRED_SIZE, 720, javax.swing.GroupLayout.PREFERRED_SIZE)
+        );
+        layout.setVerticalGroup(
+            layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+            .addGroup(layout.createSequentialGroup()
+                .addGap(18, 18, 18)
+                .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 49, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(6, 6, 6)
+                .addComponent(jScrollPane1, javax.swing.GroupLayout.PREFERRED_SIZE, 250, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(10, 10, 10)
+                .addComponent(jtotal, javax.swing.GroupLayout.PREFERRED_SIZE, 30, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(15, 15, 15)
+                .addGroup(layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(bopen, javax.swing.GroupLayout.PREFERRED_SIZE, 41, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(brefresh, javax.swing.GroupLayout.PREFERRED_SIZE, 41, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(blogout, javax.swing.GroupLayout.PREFERRED_SIZE, 41, javax.swing.GroupLayout.PREFERRED_SIZE)))
+            .addComponent(jPanel1, javax.swing.GroupLayout.PREFERRED_SIZE, 70, javax.swing.GroupLayout.PREFERRED_SIZE)
+            .addGroup(layout.createSequentialGroup()
+                .addGap(60, 60, 60)
+                .addComponent(jPanel2, javax.swing.GroupLayout.PREFERRED_SIZE, 390, javax.swing.GroupLayout.PREFERRED_SIZE))
+        );
+
+        pack();
+        setLocationRelativeTo(null);
+    }// </editor-fold>//GEN-END:initComponents
+
+    private void bopenActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bopenActionPerformed
+        int row = AccountTable.getSelectedRow();
+        if (portfolio == null || row < 0) {
+            JOptionPane.showMessageDialog(null, "Please select an account.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        this.setVisible(false);
+        Forms.menu(String.valueOf(portfolio.accounts[AccountTable.convertRowIndexToModel(row)])).setVisible(true);
+    }//GEN-LAST:event_bopenActionPerformed
+
+    private void AccountTableMouseClicked(java.awt.event.MouseEvent evt) {//GEN-FIRST:event_AccountTableMouseClicked
+        if (evt.getClickCount() == 2) {
+            bopenActionPerformed(null);
+        }
+    }//GEN-LAST:event_AccountTableMouseClicked
+
+    private void brefreshActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_brefreshActionPerformed
+        // balances can change outside this application too, so read them again
+        if (portfolio != null) {
+            Portfolio.forget(portfolio.userId);
+            refresh();
+        }
+    }//GEN-LAST:event_brefreshActionPerformed
+
+    private void blogoutActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_blogoutActionPerformed
+        if (portfolio != null) {
+            Portfolio.forget(portfolio.userId);
+            portfolio = null;
+        }
+        ((DefaultTableModel) AccountTable.getModel()).setRowCount(0);
+        this.setVisible(false);
+        Forms.login().setVisible(true);
+    }//GEN-LAST:event_blogoutActionPerformed
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String args[]) {
+        /* Set the Nimbus look and feel */
+        //<editor-fold defaultstate="collapsed" desc=" Look and feel setting code (optional) ">
+        /* If Nimbus (introduced in Java SE 6) is not available, stay with the default look and feel.
+         * For details see http://download.oracle.com/javase/tutorial/uiswing/lookandfeel/plaf.html 
+         */
+        try {
+            for (javax.swing.UIManager.LookAndFeelInfo info : javax.swing.UIManager.getInstalledLookAndFeels()) {
+                if ("Nimbus".equals(info.getName())) {
+                    javax.swing.UIManager.setLookAndFeel(info.getClassName());
+                    break;
+                }
+            }
+        } catch (ClassNotFoundException ex) {
+            java.util.logging.Logger.getLogger(PortfolioForm.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+        } catch (InstantiationException ex) {
+            java.util.logging.Logger.getLogger(PortfolioForm.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+        } catch (IllegalAccessException ex) {
+            java.util.logging.Logger.getLogger(PortfolioForm.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+        } catch (javax.swing.UnsupportedLookAndFeelException ex) {
+            java.util.logging.Logger.getLogger(PortfolioForm.class.getName()).log(java.util.logging.Level.SEVERE, null, ex);
+        }
+        //</editor-fold>
+
+        /* Create and display the form */
+        java.awt.EventQueue.invokeLater(new Runnable() {
+            public void run() {
+                new PortfolioForm().setVisible(true);
+            }
+        });
+    }
+
+    // Variables declaration - do not modify//GEN-BEGIN:variables
+    private javax.swing.JTable AccountTable;
+    private javax.swing.JButton blogout;
+    private javax.swing.JButton bopen;
+    private javax.swing.JButton brefresh;
+    private javax.swing.JLabel jLabel1;
+    private javax.swing.JPanel jPanel1;
+    private javax.swing.JPanel jPanel2;
+    private javax.swing.JScrollPane jScrollPane1;
+    private javax.swing.JLabel jtotal;
+    // End of variables declaration//GEN-END:variables
+}
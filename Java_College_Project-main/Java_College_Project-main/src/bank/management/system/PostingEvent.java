@@ -0,0 +1,30 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+/**
+ * One Transactions row as published on the posting feed.
+ */
+public final class PostingEvent {
+
+    public final long transactionId;
+    public final int accountNumber;
+    public final String transactionType;
+    public final long amountCents;
+    public final long postedAtMillis;
+
+    public PostingEvent(long transactionId, int accountNumber, String transactionType, long amountCents, long postedAtMillis) {
+        this.transactionId = transactionId;
+        this.accountNumber = accountNumber;
+        this.transactionType = transactionType;
+        this.amountCents = amountCents;
+        this.postedAtMillis = postedAtMillis;
+    }
+
+    @Override
+    public String toString() {
+        return transactionId + " " + accountNumber + " " + transactionType + " " + amountCents;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * In-process change feed of posted transactions.
+ *
+ * A bounded ring buffer shared by any number of publishers and consumers.
+ * Publishers claim a sequence with a single atomic increment and mark the
+ * slot published; every subscriber walks the ring with its own sequence, so
+ * each one sees every event. A publisher waits while the slowest subscriber
+ * is a full ring behind, which is the backpressure. Each subscriber keeps
+ * the highest TransactionID it handled in a small offset file.
+ *
+ * The ring only lives in memory, so a subscriber with an offset first
+ * replays the Transactions rows above it from the database and then
+ * switches to the ring, dropping the events the replay already delivered.
+ * Delivery is at least once: events handled after the last saved offset,
+ * and rows that commit out of TransactionID order around the switch, can
+ * be delivered again.
+ */
+public class PostingFeed {
+
+    private static final int BATCH = 1000;
+
+    private static PostingFeed shared;
+
+    private final int mask;
+    private final AtomicReferenceArray<PostingEvent> entries;
+    private final AtomicLongArray published;
+    private final AtomicLong claim = new AtomicLong();
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    public PostingFeed(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        mask = capacity - 1;
+        entries = new AtomicReferenceArray<>(capacity);
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public static synchronized PostingFeed shared() {
+        if (shared == null) {
+            shared = new PostingFeed(Integer.getInteger("bank.feed.capacity", 8192));
+        }
+        return shared;
+    }
+
+    /**
+     * Adds an event to the ring, parking while the slowest subscriber would
+     * be overrun.
+     */
+    public void publish(PostingEvent event) {
+        long seq = claim.getAndIncrement();
+        long wrap = seq - (mask + 1);
+        while (wrap >= slowest(seq)) {
+            LockSupport.parkNanos(50_000);
+        }
+        int index = (int) seq & mask;
+        entries.set(index, event);
+        published.set(index, seq);
+    }
+
+    private long slowest(long fallback) {
+        long min = fallback;
+        for (Subscription sub : subscriptions) {
+            min = Math.min(min, sub.next.get());
+        }
+        return min;
+    }
+
+    /**
+     * Starts a daemon thread delivering to the handler every posting after
+     * the subscriber's offset, or every event published from now on if it
+     * has none yet. The offset is persisted under bank.feed.dir as
+     * name.offset; pass null to keep it in memory only.
+     */
+    public Subscription subscribe(String name, Consumer<PostingEvent> handler) {
+        Subscription sub = new Subscription(name, handler);
+        if (sub.offset == 0) {
+            sub.attach();
+        }
+        Thread t = new Thread(sub, "feed-" + name);
+        t.setDaemon(true);
+        t.start();
+        return sub;
+    }
+
+    public class Subscription implements Runnable {
+
+        private final AtomicLong next = new AtomicLong();
+        private final Consumer<PostingEvent> handler;
+        private final Path offsetFile;
+        /** TransactionIDs replayed after joining the ring, whose events are dropped there. */
+        private final Set<Long> replayed = new HashSet<>();
+        private volatile boolean running = true;
+        private volatile long offset;
+        private boolean attached;
+        private int sinceSave;
+
+        Subscription(String name, Consumer<PostingEvent> handler) {
+            this.handler = handler;
+            offsetFile = name == null ? null : Paths.get(System.getProperty("bank.feed.dir", "."), name + ".offset");
+            offset = readOffset();
+        }
+
+        /** Joins the ring at the next event to be published. */
+        private void attach() {
+            next.set(claim.get());
+            subscriptions.add(this);
+            attached = true;
+        }
+
+        /** Highest TransactionID handed to the handler. */
+        public long offset() {
+            return offset;
+        }
+
+        public void close() {
+            running = false;
+            subscriptions.remove(this);
+            saveOffset();
+        }
+
+        @Override
+        public void run() {
+            if (!attached) {
+                replay();
+            }
+            long sinceAttach = 0;
+            while (running) {
+                long seq = next.get();
+                int index = (int) seq & mask;
+                if (published.get(index) != seq) {
+                    if (sinceSave > 0) {
+                        saveOffset();
+                        sinceSave = 0;
+                    }
+                    LockSupport.parkNanos(100_000);
+                    continue;
+                }
+                PostingEvent event = entries.get(index);
+                next.lazySet(seq + 1);
+                if (!replayed.isEmpty()) {
+                    if (replayed.remove(event.transactionId)) {
+                        continue;
+                    }
+                    // rows posted by other terminals never come round the ring
+                    if (++sinceAttach > mask) {
+                        replayed.clear();
+                    }
+                }
+                deliver(event);
+            }
+        }
+
+        /**
+         * Delivers the rows above the offset from the database until it has
+         * caught up, joins the ring, then delivers what committed meanwhile.
+         * Only that last pass is remembered for the ring to drop; a row read
+         * earlier whose event is published late is delivered twice.
+         */
+        private void replay() {
+            while (running) {
+                try {
+                    Conn conn = new Conn();
+                    try {
+                        while (running && !attached && replayBatch(conn, false) == BATCH) {
+                        }
+                        if (!attached) {
+                            attach();
+                        }
+                        while (running && replayBatch(conn, true) == BATCH) {
+                        }
+                        return;
+                    } finally {
+                        conn.c.close();
+                    }
+                } catch (SQLException | IllegalStateException e) {
+                    System.out.println(e);
+                    LockSupport.parkNanos(1_000_000_000L);
+                }
+            }
+        }
+
+        private int replayBatch(Conn conn, boolean remember) throws SQLException {
+            int n = 0;
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "SELECT TransactionID, AccountNumber, TransactionType, Amount, TransactionDate FROM Transactions"
+                    + " WHERE TransactionID > ? ORDER BY TransactionID LIMIT " + BATCH)) {
+                ps.setLong(1, offset);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    Timestamp at = rs.getTimestamp(5);
+                    PostingEvent event = new PostingEvent(rs.getLong(1), rs.getInt(2), rs.getString(3),
+                            rs.getBigDecimal(4).movePointRight(2).longValueExact(), at == null ? 0 : at.getTime());
+                    if (remember) {
+                        replayed.add(event.transactionId);
+                    }
+                    deliver(event);
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        private void deliver(PostingEvent event) {
+            try {
+                handler.accept(event);
+            } catch (Exception e) {
+                System.out.println(e);
+            }
+            offset = Math.max(offset, event.transactionId);
+            if (++sinceSave == BATCH) {
+                saveOffset();
+                sinceSave = 0;
+            }
+        }
+
+        private long readOffset() {
+            try {
+                if (offsetFile != null && Files.exists(offsetFile)) {
+                    return Long.parseLong(Files.readString(offsetFile).strip());
+                }
+            } catch (IOException | NumberFormatException e) {
+                System.out.println(e);
+            }
+            return 0;
+        }
+
+        private void saveOffset() {
+            if (offsetFile == null) {
+                return;
+            }
+            try {
+                Path tmp = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+                Files.write(tmp, Long.toString(offset).getBytes(StandardCharsets.US_ASCII));
+                Files.move(tmp, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.out.println(e);
+            }
+        }
+    }
+}
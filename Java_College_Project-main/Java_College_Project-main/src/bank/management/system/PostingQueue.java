@@ -0,0 +1,175 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for deposits and withdrawals.
+ *
+ * Callers put their posting on a queue and wait on a future. One writer
+ * thread with its own connection takes up to maxBatch postings, waiting at
+ * most maxWaitMillis for the batch to fill, and runs them all in a single
+ * database transaction so they share one log flush. Every posting runs
+ * behind its own savepoint: one that fails (insufficient funds, unknown
+ * account, duplicate key) is rolled back alone and only its caller sees
+ * the error. Enabled for the forms with -Dbank.groupCommit=true.
+ */
+public class PostingQueue {
+
+    private static PostingQueue shared;
+
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private Conn conn;
+
+    public PostingQueue(int maxBatch, long maxWaitMillis) {
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        Thread writer = new Thread(this::run, "posting-queue");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("bank.groupCommit");
+    }
+
+    public static synchronized PostingQueue shared() {
+        if (shared == null) {
+            shared = new PostingQueue(Integer.getInteger("bank.groupCommit.maxBatch", 64),
+                    Long.getLong("bank.groupCommit.maxWaitMillis", 5));
+        }
+        return shared;
+    }
+
+    /**
+     * Queues a call to the Deposit or Withdraw procedure and completes with
+     * its TransactionID once the batch holding it has committed.
+     */
+    public CompletableFuture<Long> submit(String procedure, int accountNumber, BigDecimal amount, String key, String hash) {
+        Request request = new Request(procedure, accountNumber, amount, key, hash);
+        queue.add(request);
+        return request.result;
+    }
+
+    /** Blocking form of submit for callers that want the procedure's errors. */
+    public long post(String procedure, int accountNumber, BigDecimal amount, String key, String hash) throws SQLException {
+        try {
+            return submit(procedure, accountNumber, amount, key, hash).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new SQLException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(e);
+        }
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(maxBatch);
+        while (true) {
+            try {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxBatch) {
+                    Request next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Request> batch) {
+        List<Request> posted = new ArrayList<>(batch.size());
+        try {
+            if (conn == null || conn.c == null || conn.c.isClosed()) {
+                conn = new Conn();
+            }
+            conn.c.setAutoCommit(false);
+            for (Request request : batch) {
+                Savepoint savepoint = conn.c.setSavepoint();
+                try {
+                    if (request.key != null) {
+                        IdempotencyStore.shared().claim(conn, request.key, request.hash);
+                    }
+                    request.transactionId = Postings.call(conn, request.procedure, request.accountNumber, request.amount);
+                    if (request.key != null) {
+                        IdempotencyStore.shared().complete(conn, request.key, new long[] { request.transactionId });
+                    }
+                    conn.c.releaseSavepoint(savepoint);
+                    posted.add(request);
+                } catch (SQLException e) {
+                    if (e.getSQLState() != null && e.getSQLState().startsWith("40")) {
+                        // deadlock or lock timeout already rolled back the whole batch
+                        throw e;
+                    }
+                    conn.c.rollback(savepoint);
+                    request.result.completeExceptionally(e);
+                }
+            }
+            conn.c.commit();
+            conn.c.setAutoCommit(true);
+        } catch (Exception e) {
+            // the whole transaction is gone, so is every posting in it
+            System.out.println(e);
+            for (Request request : batch) {
+                request.result.completeExceptionally(e);
+            }
+            try {
+                conn.c.close();
+            } catch (Exception ignored) {
+            }
+            conn = null;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Request request : posted) {
+            if (request.key != null) {
+                IdempotencyStore.shared().remember(request.key, request.hash, new long[] { request.transactionId }, now);
+            }
+            request.result.complete(request.transactionId);
+        }
+    }
+
+    private static class Request {
+
+        final String procedure;
+        final int accountNumber;
+        final BigDecimal amount;
+        final String key;
+        final String hash;
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        long transactionId;
+
+        Request(String procedure, int accountNumber, BigDecimal amount, String key, String hash) {
+            this.procedure = procedure;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+            this.key = key;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Deposit throughput and latency against the bank database for a range of
+ * group-commit settings, printed as one line per setting. Batch size 1 is
+ * the same cost as an autocommit Call Deposit.
+ * Usage: PostingQueueBenchmark [callers] [postingsPerCaller] [firstAccount] [accounts]
+ */
+public class PostingQueueBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int callers = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int perCaller = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int firstAccount = args.length > 2 ? Integer.parseInt(args[2]) : BalanceReplica.FIRST_ACCOUNT;
+        int accounts = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        int[] batches = { 1, 8, 32, 128 };
+        long[] waits = { 1, 5, 20 };
+
+        System.out.println("maxBatch maxWaitMs postings/s p50Ms p99Ms maxMs");
+        for (int maxBatch : batches) {
+            for (long maxWait : waits) {
+                if (maxBatch == 1 && maxWait != waits[0]) {
+                    continue;
+                }
+                PostingQueue queue = new PostingQueue(maxBatch, maxWait);
+                long[][] latencies = new long[callers][perCaller];
+                Thread[] threads = new Thread[callers];
+                long start = System.nanoTime();
+                for (int t = 0; t < callers; t++) {
+                    int caller = t;
+                    threads[t] = new Thread(() -> {
+                        for (int i = 0; i < perCaller; i++) {
+                            long begin = System.nanoTime();
+                            CompletableFuture<Long> f = queue.submit("Deposit", firstAccount + (caller + i) % accounts, BigDecimal.ONE, null, null);
+                            f.exceptionally(e -> -1L).join();
+                            latencies[caller][i] = System.nanoTime() - begin;
+                        }
+                    });
+                    threads[t].start();
+                }
+                for (Thread t : threads) {
+                    t.join();
+                }
+                long elapsed = System.nanoTime() - start;
+                long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+                System.out.printf("%8d %9d %10.0f %5.1f %5.1f %5.1f%n", maxBatch, maxWait,
+                        all.length * 1e9 / elapsed, all[all.length / 2] / 1e6,
+                        all[(int) (all.length * 0.99)] / 1e6, all[all.length - 1] / 1e6);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Deposit, withdraw and transfer calls shared by the forms. Each call may
+ * carry an idempotency key (see IdempotencyStore). Debits are checked
+ * against the VelocityCheck and DailyLimit limits first. Each successful
+ * posting is published on the PostingFeed and marks the local balance
+ * replica stale for the accounts it touched. All three run inside the
+ * writes bulkhead. Amounts are in the account's currency; deposits in
+ * another currency and transfers between accounts in different currencies
+ * are converted with FxRates before they are posted.
+ */
+public class Postings {
+
+    public static long deposit(Conn conn, String accountNo, BigDecimal amount) throws SQLException {
+        return deposit(conn, accountNo, amount, null);
+    }
+
+    /**
+     * Posts a deposit. A repeated idempotency key returns the original
+     * TransactionID without posting again; a null key disables the check.
+     */
+    public static long deposit(Conn conn, String accountNo, BigDecimal amount, String key) throws SQLException {
+        return deposit(conn, accountNo, amount, null, key);
+    }
+
+    /**
+     * Posts a deposit made in the given currency, converted to the
+     * account's currency at the current rates. A null currency is the
+     * account's own. The key is bound to the amount and currency as given,
+     * before conversion.
+     */
+    public static long deposit(Conn conn, String accountNo, BigDecimal amount, String currency, String key) throws SQLException {
+        long started = System.nanoTime();
+        try (Bulkhead.Permit permit = Bulkhead.WRITES.enter()) {
+            String hash = key == null ? null : IdempotencyStore.hash("Deposit", accountNo, amount, currency, null);
+            long[] ids = IdempotencyStore.shared().replay(conn, key, hash);
+            if (ids != null) {
+                return ids[0];
+            }
+            BigDecimal credited = currency == null ? amount
+                    : convert(amount, FxRates.id(currency), AccountCurrencies.of(conn, Integer.parseInt(accountNo)));
+            long id = single(conn, "Deposit", Integer.parseInt(accountNo), credited, key, hash);
+            posted(id, Integer.parseInt(accountNo), "Deposit", credited);
+            return id;
+        } finally {
+            Metrics.DEPOSIT.recordSince(started);
+        }
+    }
+
+    public static long withdraw(Conn conn, String accountNo, BigDecimal amount) throws SQLException {
+        return withdraw(conn, accountNo, amount, null);
+    }
+
+    public static long withdraw(Conn conn, String accountNo, BigDecimal amount, String key) throws SQLException {
+        long started = System.nanoTime();
+        try (Bulkhead.Permit permit = Bulkhead.WRITES.enter()) {
+            String hash = key == null ? null : IdempotencyStore.hash("Withdrawal", accountNo, amount, null, null);
+            long[] ids = IdempotencyStore.shared().replay(conn, key, hash);
+            if (ids != null) {
+                return ids[0];
+            }
+            long admittedAt = admit(Integer.parseInt(accountNo), amount);
+            long id;
+            try {
+                id = single(conn, "Withdraw", Integer.parseInt(accountNo), amount, key, hash);
+            } catch (SQLException e) {
+                release(Integer.parseInt(accountNo), amount, admittedAt);
+                throw e;
+            }
+            posted(id, Integer.parseInt(accountNo), "Withdrawal", amount);
+            return id;
+        } finally {
+            Metrics.WITHDRAW.recordSince(started);
+        }
+    }
+
+    public static long[] transfer(Conn conn, String fromAccount, String toAccount, BigDecimal amount) throws SQLException {
+        return transfer(conn, fromAccount, toAccount, amount, null);
+    }
+
+    /**
+     * Moves funds with SendFunds and returns the TransactionIDs of the
+     * withdrawal and deposit legs followed by the TransferID. The amount is
+     * in the source account's currency; the destination is credited with
+     * it converted to its own.
+     */
+    public static long[] transfer(Conn conn, String fromAccount, String toAccount, BigDecimal amount, String key) throws SQLException {
+        long started = System.nanoTime();
+        try (Bulkhead.Permit permit = Bulkhead.WRITES.enter()) {
+            String hash = key == null ? null : IdempotencyStore.hash("Transfer", fromAccount, amount, null, toAccount);
+            long[] ids = IdempotencyStore.shared().replay(conn, key, hash);
+            if (ids != null) {
+                return ids;
+            }
+            long admittedAt = admit(Integer.parseInt(fromAccount), amount);
+            BigDecimal toAmount;
+            try {
+                toAmount = convert(amount, AccountCurrencies.of(conn, Integer.parseInt(fromAccount)), destinationCurrency(conn, toAccount));
+                ids = IdempotencyStore.shared().execute(conn, key, hash, () -> {
+                    long[] legs = new long[3];
+                    try (CallableStatement cs = conn.c.prepareCall("{CALL SendFunds(?, ?, ?, ?)}")) {
+                        cs.setInt(1, Integer.parseInt(fromAccount));
+                        cs.setInt(2, Integer.parseInt(toAccount));
+                        cs.setBigDecimal(3, amount);
+                        cs.setBigDecimal(4, toAmount);
+                        ResultSet rs = cs.executeQuery();
+                        if (rs.next()) {
+                            legs[0] = rs.getLong("WithdrawalID");
+                            legs[1] = rs.getLong("DepositID");
+                            legs[2] = rs.getLong("TransferID");
+                        }
+                    }
+                    return legs;
+                });
+            } catch (SQLException e) {
+                release(Integer.parseInt(fromAccount), amount, admittedAt);
+                throw e;
+            }
+            posted(ids[0], Integer.parseInt(fromAccount), "Withdrawal", amount);
+            posted(ids[1], Integer.parseInt(toAccount), "Deposit", toAmount);
+            return ids;
+        } finally {
+            Metrics.TRANSFER.recordSince(started);
+        }
+    }
+
+    /**
+     * Converts an amount between two currencies at the current rates,
+     * failing the posting if there is no rate or it comes to nothing.
+     */
+    static BigDecimal convert(BigDecimal amount, int fromCurrency, int toCurrency) throws SQLException {
+        if (fromCurrency == toCurrency) {
+            return amount;
+        }
+        long cents = FxRates.current().convert(amount.movePointRight(2).longValueExact(), fromCurrency, toCurrency);
+        if (cents < 0) {
+            throw new SQLException("No exchange rate from " + FxRates.code(fromCurrency) + " to " + FxRates.code(toCurrency) + ".", "45000");
+        }
+        if (cents == 0 && amount.signum() > 0) {
+            throw new SQLException("Amount is too small to convert to " + FxRates.code(toCurrency) + ".", "45000");
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int destinationCurrency(Conn conn, String toAccount) throws SQLException {
+        try {
+            return AccountCurrencies.of(conn, Integer.parseInt(toAccount));
+        } catch (SQLException e) {
+            if ("45000".equals(e.getSQLState())) {
+                throw new SQLException("Destination account does not exist.", "45000");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Posts one Deposit or Withdraw. Hot accounts go to their slots; other
+     * accounts go through the group-commit queue or the optimistic path when
+     * one is enabled and otherwise call the procedure on the caller's
+     * connection.
+     */
+    private static long single(Conn conn, String procedure, int accountNumber, BigDecimal amount, String key, String hash) throws SQLException {
+        if (StripedAccounts.shared().isHot(accountNumber)) {
+            String type = "Deposit".equals(procedure) ? "Deposit" : "Withdrawal";
+            return IdempotencyStore.shared().execute(conn, key, hash,
+                    () -> new long[] { StripedAccounts.shared().post(conn, type, accountNumber, amount) })[0];
+        }
+        if (PostingQueue.enabled()) {
+            return PostingQueue.shared().post(procedure, accountNumber, amount, key, hash);
+        }
+        if (OptimisticPostings.enabled()) {
+            String type = "Deposit".equals(procedure) ? "Deposit" : "Withdrawal";
+            return OptimisticPostings.shared().post(conn, type, accountNumber, amount, key, hash);
+        }
+        return IdempotencyStore.shared().execute(conn, key, hash,
+                () -> new long[] { call(conn, procedure, accountNumber, amount) })[0];
+    }
+
+    /** Calls Deposit or Withdraw and returns the TransactionID it inserted. */
+    static long call(Conn conn, String procedure, int accountNumber, BigDecimal amount) throws SQLException {
+        try (CallableStatement cs = conn.c.prepareCall("{CALL " + procedure + "(?, ?)}")) {
+            cs.setInt(1, accountNumber);
+            cs.setBigDecimal(2, amount);
+            cs.execute();
+        }
+        return lastInsertId(conn);
+    }
+
+    /**
+     * Runs the velocity rules and the daily limit for a debit and returns
+     * the time it was counted at, or fails the posting the same way the
+     * procedures do.
+     */
+    private static long admit(int accountNumber, BigDecimal amount) throws SQLException {
+        // fails here, before anything is counted, while the daily totals cannot be read
+        DailyLimit limit = DailyLimit.shared();
+        long now = System.currentTimeMillis();
+        long cents = amount.movePointRight(2).longValueExact();
+        String broken = VelocityCheck.shared().admit(accountNumber, cents, now);
+        if (broken != null) {
+            throw new SQLException(broken, "45000");
+        }
+        if (!limit.reserve(accountNumber, cents, now)) {
+            VelocityCheck.shared().reverse(accountNumber, cents, now);
+            throw new SQLException("Daily withdrawal limit of " + BigDecimal.valueOf(limit.limitCents(), 2) + " reached.", "45000");
+        }
+        return now;
+    }
+
+    private static void release(int accountNumber, BigDecimal amount, long admittedAt) {
+        long cents = amount.movePointRight(2).longValueExact();
+        VelocityCheck.shared().reverse(accountNumber, cents, admittedAt);
+        DailyLimit.shared().release(accountNumber, cents, admittedAt);
+    }
+
+    private static long lastInsertId(Conn conn) throws SQLException {
+        if (Conn.EMBEDDED) {
+            return EmbeddedDatabase.lastPosted();
+        }
+        // LAST_INSERT_ID() set inside the procedure is kept for the session
+        ResultSet rs = conn.s.executeQuery("SELECT LAST_INSERT_ID();");
+        return rs.next() ? rs.getLong(1) : 0;
+    }
+
+    static void posted(long transactionId, int accountNumber, String type, BigDecimal amount) {
+        ReadRouting.wrote(accountNumber);
+        BalanceReplica replica = BalanceReplica.shared();
+        if (replica != null) {
+            replica.invalidate(accountNumber, transactionId);
+        }
+        Portfolio.invalidate(accountNumber);
+        long cents = amount.movePointRight(2).longValueExact();
+        AuditLog.record(AuditLog.POSTING, accountNumber, transactionId, cents, type);
+        PostingFeed.shared().publish(new PostingEvent(transactionId, accountNumber, type, cents, System.currentTimeMillis()));
+    }
+}
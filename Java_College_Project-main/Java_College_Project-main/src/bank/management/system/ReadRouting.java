@@ -0,0 +1,205 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends read-only work (balance display, history, login checks) to read
+ * replicas listed in -Dbank.db.replicas as comma-separated JDBC URLs, and
+ * everything else to the primary.
+ *
+ * A monitor thread writes the current time into ReplicaHeartbeat on the
+ * primary every bank.db.heartbeatMillis (default 500) and reads it back
+ * from each replica. Since replication applies commits in order, a replica
+ * showing beat B holds every commit made before B. A replica serves a read
+ * only when it is no more than bank.db.maxLagMillis (default 2000) behind,
+ * and, for an account written in this process, only when its beat is newer
+ * than that write; otherwise the read goes to the primary. Reads per route
+ * and fallbacks per reason are counted for Metrics.
+ */
+public class ReadRouting {
+
+    private static final List<Replica> REPLICAS = new ArrayList<>();
+    private static final long MAX_LAG_MILLIS = Long.getLong("bank.db.maxLagMillis", 2000);
+    private static final long HEARTBEAT_MILLIS = Long.getLong("bank.db.heartbeatMillis", 500);
+
+    /** When each account was last written from this process. */
+    private static final Map<Integer, Long> lastWrite = new ConcurrentHashMap<>();
+    private static final AtomicInteger next = new AtomicInteger();
+
+    private static final LongAdder primaryReads = new LongAdder();
+    private static final LongAdder laggingFallbacks = new LongAdder();
+    private static final LongAdder sessionFallbacks = new LongAdder();
+
+    private static class Replica {
+
+        final String name;
+        final String url;
+        final LongAdder reads = new LongAdder();
+        /** Newest heartbeat seen on this replica; 0 until the first read succeeds. */
+        volatile long beat;
+
+        Replica(String name, String url) {
+            this.name = name;
+            this.url = url;
+        }
+
+        long lagMillis(long now) {
+            return beat == 0 ? Long.MAX_VALUE : now - beat;
+        }
+    }
+
+    static {
+        String urls = System.getProperty("bank.db.replicas", "").strip();
+        if (!urls.isEmpty()) {
+            for (String url : urls.split(",")) {
+                REPLICAS.add(new Replica("replica" + (REPLICAS.size() + 1), url.strip()));
+            }
+            Thread monitor = new Thread(ReadRouting::monitor, "replica-monitor");
+            monitor.setDaemon(true);
+            monitor.start();
+        }
+    }
+
+    /**
+     * A connection for reads about one account: a replica that is fresh
+     * enough, or the primary.
+     */
+    public static Conn forRead(String accountNo) {
+        if (REPLICAS.isEmpty()) {
+            primaryReads.increment();
+            return new Conn();
+        }
+        long now = System.currentTimeMillis();
+        long written = 0;
+        try {
+            written = lastWrite.getOrDefault(Integer.parseInt(accountNo.strip()), 0L);
+        } catch (NumberFormatException e) {
+            // not an account number; the query will simply find nothing
+        }
+        boolean behindSession = false;
+        int start = Math.floorMod(next.getAndIncrement(), REPLICAS.size());
+        for (int i = 0; i < REPLICAS.size(); i++) {
+            Replica replica = REPLICAS.get((start + i) % REPLICAS.size());
+            if (replica.lagMillis(now) > MAX_LAG_MILLIS) {
+                continue;
+            }
+            if (replica.beat > written) {
+                replica.reads.increment();
+                return new Conn(replica.url);
+            }
+            behindSession = true;
+        }
+        if (behindSession) {
+            sessionFallbacks.increment();
+        } else {
+            laggingFallbacks.increment();
+        }
+        primaryReads.increment();
+        return new Conn();
+    }
+
+    /** Records a committed write on an account, so its next reads see it. */
+    public static void wrote(int accountNumber) {
+        if (!REPLICAS.isEmpty()) {
+            lastWrite.put(accountNumber, System.currentTimeMillis());
+        }
+    }
+
+    private static void monitor() {
+        Conn primary = null;
+        Conn[] replicas = new Conn[REPLICAS.size()];
+        while (true) {
+            try {
+                if (primary == null || primary.c == null || primary.c.isClosed()) {
+                    primary = new Conn();
+                }
+                try (PreparedStatement ps = primary.c.prepareStatement(
+                        "INSERT INTO ReplicaHeartbeat (Id, Beat) VALUES (1, ?) ON DUPLICATE KEY UPDATE Beat = VALUES(Beat)")) {
+                    ps.setLong(1, System.currentTimeMillis());
+                    ps.executeUpdate();
+                }
+            } catch (Exception e) {
+                System.out.println(e);
+                primary = null;
+            }
+            for (int i = 0; i < replicas.length; i++) {
+                Replica replica = REPLICAS.get(i);
+                try {
+                    if (replicas[i] == null || replicas[i].c == null || replicas[i].c.isClosed()) {
+                        replicas[i] = new Conn(replica.url);
+                    }
+                    ResultSet rs = replicas[i].s.executeQuery("SELECT Beat FROM ReplicaHeartbeat WHERE Id = 1;");
+                    if (rs.next()) {
+                        replica.beat = Math.max(replica.beat, rs.getLong(1));
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    replicas[i] = null;
+                }
+            }
+            // writes older than every replica's beat no longer affect routing
+            long oldest = Long.MAX_VALUE;
+            for (Replica replica : REPLICAS) {
+                oldest = Math.min(oldest, replica.beat);
+            }
+            long visible = oldest;
+            lastWrite.values().removeIf(t -> t < visible);
+            try {
+                Thread.sleep(HEARTBEAT_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    static boolean configured() {
+        return !REPLICAS.isEmpty();
+    }
+
+    /** Read counts per route, fallbacks per reason and replica lag, in Prometheus text format. */
+    static String prometheus() {
+        long now = System.currentTimeMillis();
+        StringBuilder sb = new StringBuilder();
+        sb.append("# TYPE bank_read_route_total counter\n");
+        sb.append("bank_read_route_total{route=\"primary\"} ").append(primaryReads.sum()).append('\n');
+        for (Replica replica : REPLICAS) {
+            sb.append("bank_read_route_total{route=\"").append(replica.name).append("\"} ").append(replica.reads.sum()).append('\n');
+        }
+        sb.append("# TYPE bank_read_fallback_total counter\n");
+        sb.append("bank_read_fallback_total{reason=\"lag\"} ").append(laggingFallbacks.sum()).append('\n');
+        sb.append("bank_read_fallback_total{reason=\"read_your_writes\"} ").append(sessionFallbacks.sum()).append('\n');
+        sb.append("# TYPE bank_replica_lag_seconds gauge\n");
+        for (Replica replica : REPLICAS) {
+            long lag = replica.lagMillis(now);
+            sb.append("bank_replica_lag_seconds{route=\"").append(replica.name).append("\"} ")
+                    .append(lag == Long.MAX_VALUE ? "NaN" : Double.toString(lag / 1000.0)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /** One line with reads per route and replica lag. */
+    static String summary() {
+        long now = System.currentTimeMillis();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-20s primary=%d", "read_routes", primaryReads.sum()));
+        for (Replica replica : REPLICAS) {
+            long lag = replica.lagMillis(now);
+            sb.append(String.format(Locale.ROOT, " %s=%d (lag %s)", replica.name, replica.reads.sum(),
+                    lag == Long.MAX_VALUE ? "unknown" : lag + "ms"));
+        }
+        sb.append(String.format(Locale.ROOT, " fallbacks lag=%d read_your_writes=%d%n", laggingFallbacks.sum(), sessionFallbacks.sum()));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-of-day reconciliation. For every account it recomputes the balance
+ * from Transactions (deposits less everything else, as the balance trigger
+ * applies them) and from the TransactionsBackup journal, and reports each
+ * account where the stored balance, the ledger and the journal disagree.
+ *
+ * Account numbers are dense from 9770, so the range up to the highest is
+ * cut into ranges of bank.reconcile.chunk accounts (default 10,000) that a
+ * pool of threads takes in turn. For a range, each of the three tables is
+ * read once, grouped by account in the database from the covering indexes
+ * TransactionsByAccount and TransactionsBackupByAccount, into arrays
+ * indexed by account. A worker's memory is those arrays whatever the size
+ * of the bank. The three reads of a range share one consistent snapshot,
+ * so postings made during the run do not show up as false mismatches.
+ *
+ * Mismatches are written one per line as
+ * account,balance,ledger,journal,transactions,journalRows.
+ */
+public class Reconciliation {
+
+    private final int chunkSize;
+    private final PrintWriter out;
+    private final AtomicLong accounts = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong balanceCents = new AtomicLong();
+    private final AtomicLong ledgerCents = new AtomicLong();
+    private final AtomicInteger failedRanges = new AtomicInteger();
+
+    public Reconciliation(int chunkSize, PrintWriter out) {
+        this.chunkSize = chunkSize;
+        this.out = out;
+    }
+
+    /** Checks every account with the given number of threads. Returns the number of mismatches. */
+    public long run(int threads) throws SQLException, InterruptedException {
+        int last;
+        Conn conn = new Conn();
+        try {
+            ResultSet rs = conn.s.executeQuery("SELECT COALESCE(MAX(AccountNumber), 0) FROM Accounts");
+            last = rs.next() ? rs.getInt(1) : 0;
+        } finally {
+            conn.c.close();
+        }
+        int first = BalanceReplica.FIRST_ACCOUNT;
+        AtomicInteger next = new AtomicInteger(first);
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "reconcile");
+            t.setDaemon(true);
+            return t;
+        });
+        long started = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            pool.submit(() -> work(next, last));
+        }
+        pool.shutdown();
+        long reportNanos = TimeUnit.SECONDS.toNanos(Long.getLong("bank.reconcile.reportSeconds", 5));
+        while (!pool.awaitTermination(reportNanos, TimeUnit.NANOSECONDS)) {
+            report(started);
+        }
+        report(started);
+        System.out.printf("balances %s, ledger %s%n", BigDecimal.valueOf(balanceCents.get(), 2).toPlainString(),
+                BigDecimal.valueOf(ledgerCents.get(), 2).toPlainString());
+        if (failedRanges.get() > 0) {
+            throw new SQLException(failedRanges.get() + " account ranges could not be read.");
+        }
+        return mismatches.get();
+    }
+
+    private void report(long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("reconciled %,d accounts in %.1f s (%,.0f accounts/s), %,d mismatches%n",
+                accounts.get(), seconds, accounts.get() / Math.max(seconds, 1e-9), mismatches.get());
+    }
+
+    private void work(AtomicInteger next, int last) {
+        Range range = new Range(chunkSize);
+        Conn conn = null;
+        try {
+            conn = new Conn();
+            conn.c.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            int from;
+            while ((from = next.getAndAdd(chunkSize)) <= last) {
+                int to = (int) Math.min(last, (long) from + chunkSize - 1);
+                try {
+                    range.read(conn, from, to);
+                    range.compare(from, to);
+                } catch (SQLException e) {
+                    System.out.println("Accounts " + from + " to " + to + ": " + e);
+                    failedRanges.incrementAndGet();
+                }
+            }
+        } catch (SQLException | IllegalStateException e) {
+            System.out.println(e);
+            failedRanges.incrementAndGet();
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.c.close();
+                } catch (SQLException e) {
+                    System.out.println(e);
+                }
+            }
+        }
+    }
+
+    /** One range of accounts, in arrays indexed by account number less the first of the range. */
+    private class Range {
+
+        final boolean[] exists;
+        final long[] balance;
+        final long[] ledger;
+        final long[] journal;
+        final int[] ledgerRows;
+        final int[] journalRows;
+
+        Range(int size) {
+            exists = new boolean[size];
+            balance = new long[size];
+            ledger = new long[size];
+            journal = new long[size];
+            ledgerRows = new int[size];
+            journalRows = new int[size];
+        }
+
+        void read(Conn conn, int from, int to) throws SQLException {
+            Arrays.fill(exists, false);
+            Arrays.fill(ledger, 0);
+            Arrays.fill(journal, 0);
+            Arrays.fill(ledgerRows, 0);
+            Arrays.fill(journalRows, 0);
+            conn.c.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.c.prepareStatement("SELECT Accounts.AccountNumber,"
+                        + " Accounts.Balance + COALESCE(Slots.Balance, 0)"
+                        + " FROM Accounts LEFT JOIN (SELECT AccountNumber, SUM(Balance) AS Balance FROM AccountSlots"
+                        + " WHERE AccountNumber BETWEEN ? AND ? GROUP BY AccountNumber) AS Slots"
+                        + " ON Slots.AccountNumber = Accounts.AccountNumber"
+                        + " WHERE Accounts.AccountNumber BETWEEN ? AND ?")) {
+                    ps.setInt(1, from);
+                    ps.setInt(2, to);
+                    ps.setInt(3, from);
+                    ps.setInt(4, to);
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        int i = rs.getInt(1) - from;
+                        exists[i] = true;
+                        balance[i] = cents(rs.getBigDecimal(2));
+                    }
+                }
+                sums(conn, "Transactions", from, to, ledger, ledgerRows);
+                sums(conn, "TransactionsBackup", from, to, journal, journalRows);
+                conn.c.commit();
+            } catch (SQLException e) {
+                conn.c.rollback();
+                throw e;
+            } finally {
+                conn.c.setAutoCommit(true);
+            }
+        }
+
+        /** Net amount and row count per account of Transactions or its journal. */
+        private void sums(Conn conn, String table, int from, int to, long[] net, int[] rows) throws SQLException {
+            try (PreparedStatement ps = conn.c.prepareStatement("SELECT AccountNumber,"
+                    + " SUM(CASE WHEN TransactionType = 'Deposit' THEN Amount ELSE -Amount END), COUNT(*)"
+                    + " FROM " + table + " WHERE AccountNumber BETWEEN ? AND ? GROUP BY AccountNumber")) {
+                ps.setInt(1, from);
+                ps.setInt(2, to);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    int i = rs.getInt(1) - from;
+                    net[i] = cents(rs.getBigDecimal(2));
+                    rows[i] = rs.getInt(3);
+                }
+            }
+        }
+
+        void compare(int from, int to) {
+            int n = to - from + 1;
+            long checked = 0;
+            long balances = 0;
+            long ledgers = 0;
+            for (int i = 0; i < n; i++) {
+                if (!exists[i] && ledgerRows[i] == 0 && journalRows[i] == 0) {
+                    continue;
+                }
+                checked++;
+                balances += balance[i];
+                ledgers += ledger[i];
+                if (!exists[i] || balance[i] != ledger[i] || ledger[i] != journal[i] || ledgerRows[i] != journalRows[i]) {
+                    mismatches.incrementAndGet();
+                    synchronized (out) {
+                        out.println((from + i) + "," + (exists[i] ? BigDecimal.valueOf(balance[i], 2).toPlainString() : "")
+                                + "," + BigDecimal.valueOf(ledger[i], 2).toPlainString()
+                                + "," + BigDecimal.valueOf(journal[i], 2).toPlainString()
+                                + "," + ledgerRows[i] + "," + journalRows[i]);
+                    }
+                }
+            }
+            accounts.addAndGet(checked);
+            balanceCents.addAndGet(balances);
+            ledgerCents.addAndGet(ledgers);
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount == null ? 0 : amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Reconciles every account, writing mismatches to the file or to the
+     * console. Exits with 1 if there were any, 2 if some accounts could
+     * not be read.
+     * Usage: Reconciliation [mismatches.csv] [threads]
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        PrintWriter out = args.length > 0 ? new PrintWriter(new FileWriter(args[0])) : new PrintWriter(System.out, true);
+        long found;
+        try {
+            out.println("account,balance,ledger,journal,transactions,journalRows");
+            found = new Reconciliation(Integer.getInteger("bank.reconcile.chunk", 10_000), out).run(threads);
+        } catch (SQLException e) {
+            System.out.println(e);
+            found = -1;
+        } finally {
+            out.flush();
+            if (args.length > 0) {
+                out.close();
+            }
+        }
+        System.exit(found < 0 ? 2 : found > 0 ? 1 : 0);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of pending standing-order runs, ordered by due time.
+ * Entries are spread over parallel primitive arrays (due time, OrderID,
+ * from and to account, amount in cents), 28 bytes each, with no object
+ * per entry. A million pending runs take about 28 MB and the garbage
+ * collector never has to trace them. Not thread safe; StandingOrders
+ * guards it with its own lock.
+ */
+public class ScheduleQueue {
+
+    private long[] due;
+    private int[] orders;
+    private int[] from;
+    private int[] to;
+    private long[] cents;
+    private int size;
+
+    public ScheduleQueue(int capacity) {
+        capacity = Math.max(capacity, 16);
+        due = new long[capacity];
+        orders = new int[capacity];
+        from = new int[capacity];
+        to = new int[capacity];
+        cents = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Due time of the earliest run in epoch millis, or Long.MAX_VALUE when empty. */
+    public long peekDue() {
+        return size == 0 ? Long.MAX_VALUE : due[0];
+    }
+
+    public void add(long dueMillis, int orderId, int fromAccount, int toAccount, long amountCents) {
+        if (size == due.length) {
+            int capacity = size + (size >> 1);
+            due = Arrays.copyOf(due, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+        }
+        int i = size++;
+        // sift up, moving parents down into the hole instead of swapping
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (due[parent] <= dueMillis) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        set(i, dueMillis, orderId, fromAccount, toAccount, amountCents);
+    }
+
+    /**
+     * Removes up to max runs due at or before now, calling the sink for
+     * each in due order. Returns how many were removed.
+     */
+    public int pollDue(long now, int max, Sink sink) {
+        int n = 0;
+        while (n < max && size > 0 && due[0] <= now) {
+            sink.accept(due[0], orders[0], from[0], to[0], cents[0]);
+            removeTop();
+            n++;
+        }
+        return n;
+    }
+
+    private void removeTop() {
+        int last = --size;
+        if (last == 0) {
+            return;
+        }
+        long d = due[last];
+        int o = orders[last];
+        int f = from[last];
+        int t = to[last];
+        long c = cents[last];
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < last && due[child + 1] < due[child]) {
+                child++;
+            }
+            if (d <= due[child]) {
+                break;
+            }
+            move(child, i);
+            i = child;
+        }
+        set(i, d, o, f, t, c);
+    }
+
+    private void move(int src, int dst) {
+        due[dst] = due[src];
+        orders[dst] = orders[src];
+        from[dst] = from[src];
+        to[dst] = to[src];
+        cents[dst] = cents[src];
+    }
+
+    private void set(int i, long d, int o, int f, int t, long c) {
+        due[i] = d;
+        orders[i] = o;
+        from[i] = f;
+        to[i] = t;
+        cents[i] = c;
+    }
+
+    public interface Sink {
+
+        void accept(long dueMillis, int orderId, int fromAccount, int toAccount, long amountCents);
+    }
+}
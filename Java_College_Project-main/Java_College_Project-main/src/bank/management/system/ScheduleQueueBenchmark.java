@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Fills ScheduleQueue and a PriorityQueue of one object per run with the
+ * same pending standing-order runs spread over a day, compares retained
+ * heap, then drains both in batches the way the scheduler does, one
+ * simulated second at a time.
+ * Usage: ScheduleQueueBenchmark [runs]
+ */
+public class ScheduleQueueBenchmark {
+
+    private static class Run {
+
+        final long due;
+        final int orderId;
+        final int fromAccount;
+        final int toAccount;
+        final long amountCents;
+
+        Run(long due, int orderId, int fromAccount, int toAccount, long amountCents) {
+            this.due = due;
+            this.orderId = orderId;
+            this.fromAccount = fromAccount;
+            this.toAccount = toAccount;
+            this.amountCents = amountCents;
+        }
+    }
+
+    public static void main(String[] args) {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        long start = 1_700_000_000_000L;
+        long day = 86_400_000L;
+
+        long before = usedHeap();
+        long t = System.nanoTime();
+        PriorityQueue<Run> objects = new PriorityQueue<>(Comparator.comparingLong((Run r) -> r.due));
+        Random random = new Random(42);
+        for (int i = 0; i < runs; i++) {
+            objects.add(new Run(start + (long) (random.nextDouble() * day), i, 9770 + random.nextInt(1_000_000),
+                    9770 + random.nextInt(1_000_000), 100 + random.nextInt(100_000)));
+        }
+        long objectNanos = System.nanoTime() - t;
+        long objectBytes = usedHeap() - before;
+        objects = null;
+
+        before = usedHeap();
+        t = System.nanoTime();
+        ScheduleQueue queue = new ScheduleQueue(1024);
+        random = new Random(42);
+        for (int i = 0; i < runs; i++) {
+            queue.add(start + (long) (random.nextDouble() * day), i, 9770 + random.nextInt(1_000_000),
+                    9770 + random.nextInt(1_000_000), 100 + random.nextInt(100_000));
+        }
+        long queueNanos = System.nanoTime() - t;
+        long queueBytes = usedHeap() - before;
+
+        System.out.printf("%,d runs: PriorityQueue %,d MB (fill %.0f ms), ScheduleQueue %,d MB (fill %.0f ms)%n",
+                runs, objectBytes >> 20, objectNanos / 1e6, queueBytes >> 20, queueNanos / 1e6);
+
+        long[] checksum = new long[1];
+        long[] previous = { Long.MIN_VALUE };
+        LatencyHistogram batch = new LatencyHistogram("batch");
+        t = System.nanoTime();
+        int drained = 0;
+        for (long now = start; !queue.isEmpty(); now += 1000) {
+            while (queue.peekDue() <= now) {
+                long batchStarted = System.nanoTime();
+                drained += queue.pollDue(now, 1000, (due, orderId, fromAccount, toAccount, amountCents) -> {
+                    if (due < previous[0]) {
+                        throw new IllegalStateException("out of order at run " + orderId);
+                    }
+                    previous[0] = due;
+                    checksum[0] += amountCents;
+                });
+                batch.recordSince(batchStarted);
+            }
+        }
+        long drainNanos = System.nanoTime() - t;
+        System.out.printf("drained %,d runs in due order in %.0f ms (%,.0f runs/s), batch of 1000 p50=%.2fms p99=%.2fms max=%.2fms%n",
+                drained, drainNanos / 1e6, drained / (drainNanos / 1e9), batch.percentile(0.5) / 1000.0,
+                batch.percentile(0.99) / 1000.0, batch.maxMicros() / 1000.0);
+        System.out.println("checksum " + checksum[0]);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
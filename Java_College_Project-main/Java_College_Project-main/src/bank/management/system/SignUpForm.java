@@ -26,6 +26,17 @@ public class SignUpForm extends javax.swing.JFrame {
 
     }
 
+    /** Clears the fields and takes a new application number before the form is shown again. */
+    void reset() {
+        firstname.setText("");
+        lastname.setText("");
+        email.setText("");
+        pin.setText("");
+        confirmpin.setText("");
+        random = Math.abs(ran.nextLong() % 9000L) + 1000L;
+        jtitle.setText("Application No."+random);
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -119,7 +130,7 @@ public class SignUpForm extends javax.swing.JFrame {
             }
         });
 
-        jLabel1.setIcon(new javax.swing.ImageIcon(getClass().getResource("/signup.jpg"))); // NOI18N
+        jLabel1.setIcon(Images.get("/signup.jpg")); // NOI18N
         jLabel1.setText("jLabel1");
 
         javax.swing.GroupLayout layout = new javax.swing.GroupLayout(getContentPane());
@@ -243,15 +254,29 @@ public class SignUpForm extends javax.swing.JFrame {
             JOptionPane.showMessageDialog(null, "PIN must be a four-digit number.", "Error", JOptionPane.ERROR_MESSAGE);
         } else {
             
-    Conn conn = new Conn();
-    String query = "{CALL CreateUserAndAccount('" + firstName + "', '" + lastName + "', '" + email + "', '" + pin + "')}";
-    ResultSet result = conn.s.executeQuery(query);
-    if (result.next()) {
-        String accountNumber = result.getString("AccountNumber");
-        String password = result.getString("Password");
+    long started = System.nanoTime();
+    String accountNumber = null;
+    String password = null;
+    try (Bulkhead.Permit permit = Bulkhead.WRITES.enter()) {
+        Conn conn = new Conn();
+        try {
+            String query = "{CALL CreateUserAndAccount('" + firstName + "', '" + lastName + "', '" + email + "', '" + pin + "')}";
+            ResultSet result = conn.s.executeQuery(query);
+            if (result.next()) {
+                accountNumber = result.getString("AccountNumber");
+                password = result.getString("Password");
+                ReadRouting.wrote(Integer.parseInt(accountNumber));
+            }
+        } finally {
+            conn.c.close();
+        }
+    }
+    Metrics.SIGN_UP.recordSince(started);
+    if (accountNumber != null) {
+        AuditLog.record(AuditLog.SIGN_UP, Integer.parseInt(accountNumber), 0, 0, email);
         JOptionPane.showMessageDialog(null, "Card No: " + accountNumber + "\nPIN: " + password);
         this.setVisible(false);
-        new LoginForm().setVisible(true);
+        Forms.login().setVisible(true);
     } else {
         JOptionPane.showMessageDialog(null, "Error occured\nPlease refilling the form.", "Error", JOptionPane.ERROR_MESSAGE);
     }
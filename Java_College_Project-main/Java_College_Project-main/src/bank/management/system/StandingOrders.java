@@ -0,0 +1,424 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Standing orders: a transfer repeated every few days, weeks or months,
+ * run by one scheduler thread with its own connection.
+ *
+ * Only runs due within the next horizon (bank.standingOrders.horizonMinutes,
+ * default 60) are held in memory, in a ScheduleQueue. The rest stay in the
+ * StandingOrders table and are loaded as the horizon moves forward, so a
+ * restart reloads one horizon, not every order. Orders another process
+ * creates inside the loaded part of the horizon are found by looking for
+ * OrderIDs above the highest one seen, every bank.standingOrders.scanMillis
+ * (default 1000). Due runs are taken in
+ * batches and posted through TransferBatch. Each chunk's transaction also
+ * locks the orders and moves their NextRun on, so a run is paid at most
+ * once even across a crash. Runs that fail for lack of funds are recorded
+ * on the order and skipped; the order carries on with its next run.
+ *
+ * Started with the app by -Dbank.standingOrders=true, or on its own with
+ * main. Lag, the time from a run's due time until its chunk commits, goes
+ * to Metrics.STANDING_ORDER_LAG.
+ */
+public class StandingOrders {
+
+    private static StandingOrders shared;
+
+    private final long horizonMillis;
+    private final int batchSize;
+    private final ScheduleQueue queue = new ScheduleQueue(1024);
+    private final Object lock = new Object();
+    private final long scanMillis = Long.getLong("bank.standingOrders.scanMillis", 1000);
+    /** Every active order due before this is in the queue. */
+    private long loadedUntil = Long.MIN_VALUE;
+    /** Highest OrderID looked at; orders above it are new since the last scan. */
+    private long lastOrderId;
+    /** Orders above lastOrderId that create() has queued already. */
+    private final Set<Long> created = new HashSet<>();
+    private long lastScan;
+    private Conn conn;
+
+    public StandingOrders(long horizonMillis, int batchSize) {
+        this.horizonMillis = horizonMillis;
+        this.batchSize = batchSize;
+    }
+
+    public static boolean enabled() {
+        return Boolean.getBoolean("bank.standingOrders");
+    }
+
+    /** The running scheduler, or null if this process does not run one. */
+    public static synchronized StandingOrders shared() {
+        return shared;
+    }
+
+    public static synchronized StandingOrders startShared() {
+        if (shared == null) {
+            shared = new StandingOrders(Long.getLong("bank.standingOrders.horizonMinutes", 60) * 60_000,
+                    Integer.getInteger("bank.standingOrders.batch", 1000));
+            Thread thread = new Thread(shared::run, "standing-orders");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return shared;
+    }
+
+    /**
+     * Creates a standing order paying amount from one account to another
+     * every `every` units (DAY, WEEK or MONTH), first at firstRun and last
+     * no later than endDate (null for no end). Returns the OrderID.
+     */
+    public static long create(Conn conn, int fromAccount, int toAccount, BigDecimal amount,
+            LocalDateTime firstRun, int every, String unit, LocalDateTime endDate) throws SQLException {
+        if (amount.signum() <= 0 || amount.stripTrailingZeros().scale() > 2 || every <= 0 || !("DAY".equals(unit) || "WEEK".equals(unit) || "MONTH".equals(unit))) {
+            throw new SQLException("A standing order needs a positive amount and a period in days, weeks or months.", "45000");
+        }
+        StandingOrders scheduler = shared();
+        Timestamp first = Timestamp.valueOf(firstRun.withNano(0));
+        // under the scheduler's lock, so the order is either queued here or loaded by the next refill, never both
+        synchronized (scheduler == null ? new Object() : scheduler.lock) {
+            long id;
+            try (PreparedStatement ps = conn.c.prepareStatement("INSERT INTO StandingOrders"
+                    + " (FromAccount, ToAccount, Amount, Every, Unit, FirstRun, NextRun, EndDate) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, fromAccount);
+                ps.setInt(2, toAccount);
+                ps.setBigDecimal(3, amount);
+                ps.setInt(4, every);
+                ps.setString(5, unit);
+                ps.setTimestamp(6, first);
+                ps.setTimestamp(7, first);
+                ps.setTimestamp(8, endDate == null ? null : Timestamp.valueOf(endDate));
+                ps.executeUpdate();
+                ResultSet keys = ps.getGeneratedKeys();
+                id = keys.next() ? keys.getLong(1) : 0;
+            }
+            if (scheduler != null && first.getTime() < scheduler.loadedUntil) {
+                scheduler.queue.add(first.getTime(), (int) id, fromAccount, toAccount, amount.movePointRight(2).longValueExact());
+                scheduler.created.add(id);
+                scheduler.lock.notifyAll();
+            }
+            return id;
+        }
+    }
+
+    /** Stops an order. A run already queued is dropped when it comes due. */
+    public static boolean cancel(Conn conn, long orderId) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "UPDATE StandingOrders SET Status = 'Cancelled' WHERE OrderID = ? AND Status = 'Active'")) {
+            ps.setLong(1, orderId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /** Runs held in memory. */
+    public int pending() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /** How long the oldest queued run has been overdue, in milliseconds. */
+    public long lagMillis() {
+        synchronized (lock) {
+            return Math.max(0, System.currentTimeMillis() - queue.peekDue());
+        }
+    }
+
+    private void run() {
+        long backoff = 1000;
+        while (true) {
+            try {
+                if (conn == null) {
+                    conn = new Conn();
+                }
+                long now = System.currentTimeMillis();
+                if (now + horizonMillis / 2 >= loadedUntil) {
+                    refill(now + horizonMillis);
+                } else if (now - lastScan >= scanMillis) {
+                    scanNew();
+                }
+                List<Due> due = new ArrayList<>();
+                synchronized (lock) {
+                    queue.pollDue(now, batchSize, (dueMillis, orderId, fromAccount, toAccount, amountCents) ->
+                            due.add(new Due(dueMillis, orderId, fromAccount, toAccount, amountCents)));
+                    if (due.isEmpty()) {
+                        long wake = Math.min(Math.min(queue.peekDue(), loadedUntil - horizonMillis / 2), lastScan + scanMillis);
+                        if (wake > now) {
+                            lock.wait(Math.min(wake - now, 1000));
+                        }
+                        continue;
+                    }
+                }
+                fire(due);
+                backoff = 1000;
+            } catch (InterruptedException e) {
+                return;
+            } catch (SQLException | IllegalStateException e) {
+                System.out.println("Standing orders: " + e);
+                closeQuietly();
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoff = Math.min(backoff * 2, 60_000);
+            }
+        }
+    }
+
+    /**
+     * Queues every active order due before until that is not queued yet.
+     * The first call also picks up runs missed while nothing was running.
+     * Later calls read the next slice of the horizon and the orders created
+     * since the last scan, as scanNew does, plus orders overdue by more than
+     * half a horizon: an OrderID that committed after a higher one was
+     * scanned is only found that way. An order that is also still queued is
+     * then queued twice, and the second run is screened out when it fires.
+     */
+    private void refill(long until) throws SQLException {
+        synchronized (lock) {
+            long max = maxOrderId();
+            try (PreparedStatement ps = conn.c.prepareStatement("SELECT OrderID, FromAccount, ToAccount, Amount, NextRun"
+                    + " FROM StandingOrders WHERE Status = 'Active' AND NextRun < ? AND (NextRun >= ? OR NextRun < ? OR OrderID > ?)")) {
+                if (!Conn.EMBEDDED) {
+                    ps.setFetchSize(Integer.MIN_VALUE);
+                }
+                boolean first = loadedUntil == Long.MIN_VALUE;
+                ps.setTimestamp(1, new Timestamp(until));
+                ps.setTimestamp(2, new Timestamp(first ? 0 : loadedUntil));
+                ps.setTimestamp(3, new Timestamp(first ? 0 : System.currentTimeMillis() - horizonMillis / 2));
+                ps.setLong(4, first ? 0 : lastOrderId);
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    queueNew(rs);
+                }
+            }
+            loadedUntil = until;
+            scanned(max);
+        }
+    }
+
+    /**
+     * Queues the orders created since the last scan that are due inside
+     * the part of the horizon already loaded. New orders get higher
+     * OrderIDs, so this reads a short range of the primary key.
+     */
+    private void scanNew() throws SQLException {
+        synchronized (lock) {
+            long max = maxOrderId();
+            if (max > lastOrderId) {
+                try (PreparedStatement ps = conn.c.prepareStatement("SELECT OrderID, FromAccount, ToAccount, Amount, NextRun"
+                        + " FROM StandingOrders WHERE OrderID > ? AND OrderID <= ? AND Status = 'Active' AND NextRun < ?")) {
+                    ps.setLong(1, lastOrderId);
+                    ps.setLong(2, max);
+                    ps.setTimestamp(3, new Timestamp(loadedUntil));
+                    ResultSet rs = ps.executeQuery();
+                    while (rs.next()) {
+                        queueNew(rs);
+                    }
+                }
+            }
+            scanned(max);
+        }
+    }
+
+    /** Queues a row read by refill or scanNew, unless create() queued it for this run already. */
+    private void queueNew(ResultSet rs) throws SQLException {
+        long due = rs.getTimestamp(5).getTime();
+        if (due < loadedUntil && created.contains(rs.getLong(1))) {
+            return;
+        }
+        queue.add(due, rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getBigDecimal(4).movePointRight(2).longValueExact());
+    }
+
+    private long maxOrderId() throws SQLException {
+        ResultSet rs = conn.s.executeQuery("SELECT COALESCE(MAX(OrderID), 0) FROM StandingOrders;");
+        return rs.next() ? rs.getLong(1) : 0;
+    }
+
+    private void scanned(long max) {
+        lastOrderId = Math.max(lastOrderId, max);
+        created.removeIf(id -> id <= lastOrderId);
+        lastScan = System.currentTimeMillis();
+    }
+
+    private void fire(List<Due> due) throws SQLException {
+        try {
+            new Batch(batchSize).post(conn, new ArrayList<>(due));
+        } catch (SQLException e) {
+            // the chunks that committed moved their orders on and will be screened out when these come round again
+            synchronized (lock) {
+                for (Due d : due) {
+                    queue.add(d.due, d.orderId, d.fromAccount, d.toAccount, d.amountCents);
+                }
+            }
+            throw e;
+        }
+        long committed = System.currentTimeMillis();
+        synchronized (lock) {
+            for (Due d : due) {
+                if (d.skipped) {
+                    continue;
+                }
+                Metrics.STANDING_ORDER_LAG.record((committed - d.due) * 1000);
+                if (d.nextRun != 0 && d.nextRun < loadedUntil) {
+                    queue.add(d.nextRun, d.orderId, d.fromAccount, d.toAccount, d.amountCents);
+                }
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        if (conn != null) {
+            try {
+                conn.c.close();
+            } catch (SQLException e) {
+                System.out.println(e);
+            }
+            conn = null;
+        }
+    }
+
+    /** One run of an order, as a transfer of the batch. */
+    private static class Due extends TransferBatch.Transfer {
+
+        final long due;
+        final int orderId;
+        final long amountCents;
+        /** Set when the order was no longer due; such runs are left alone. */
+        boolean skipped;
+        /** When the order runs next, 0 once it has finished. */
+        long nextRun;
+        String status = "Active";
+
+        Due(long due, int orderId, int fromAccount, int toAccount, long amountCents) {
+            super(fromAccount, toAccount, BigDecimal.valueOf(amountCents, 2));
+            this.due = due;
+            this.orderId = orderId;
+            this.amountCents = amountCents;
+        }
+    }
+
+    private static class Batch extends TransferBatch {
+
+        Batch(int chunkSize) {
+            super(chunkSize);
+        }
+
+        /** Locks the chunk's orders and drops runs that were cancelled or have already been paid. */
+        @Override
+        protected void screen(Conn conn, List<Transfer> chunk) throws SQLException {
+            StringBuilder sql = new StringBuilder("SELECT OrderID, Status, NextRun, FirstRun, Runs, Every, Unit, EndDate"
+                    + " FROM StandingOrders WHERE OrderID IN (");
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") ORDER BY OrderID FOR UPDATE");
+            Map<Integer, Due> byOrder = new HashMap<>();
+            Set<Integer> seen = new HashSet<>();
+            try (PreparedStatement ps = conn.c.prepareStatement(sql.toString())) {
+                int i = 1;
+                for (Transfer t : chunk) {
+                    Due d = (Due) t;
+                    ps.setInt(i++, d.orderId);
+                    d.skipped = true;
+                    d.error = "Standing order is no longer due.";
+                    if (seen.add(d.orderId)) {
+                        byOrder.put(d.orderId, d);
+                    }
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    Due d = byOrder.get(rs.getInt("OrderID"));
+                    if (!"Active".equals(rs.getString("Status")) || rs.getTimestamp("NextRun").getTime() != d.due) {
+                        continue;
+                    }
+                    d.skipped = false;
+                    d.error = null;
+                    LocalDateTime next = next(rs.getTimestamp("FirstRun").toLocalDateTime(), rs.getInt("Runs") + 1,
+                            rs.getInt("Every"), rs.getString("Unit"));
+                    Timestamp end = rs.getTimestamp("EndDate");
+                    if (end != null && Timestamp.valueOf(next).after(end)) {
+                        d.status = "Finished";
+                    } else {
+                        d.nextRun = Timestamp.valueOf(next).getTime();
+                    }
+                }
+            }
+        }
+
+        /** Moves every run's order on to its next run, paid or not. */
+        @Override
+        protected void settled(Conn conn, List<Transfer> chunk) throws SQLException {
+            try (PreparedStatement ps = conn.c.prepareStatement("UPDATE StandingOrders SET Runs = Runs + 1, NextRun = ?, Status = ?,"
+                    + " LastTransferID = COALESCE(?, LastTransferID), LastError = ?, Failures = Failures + ? WHERE OrderID = ?")) {
+                int batched = 0;
+                for (Transfer t : chunk) {
+                    Due d = (Due) t;
+                    if (d.skipped) {
+                        continue;
+                    }
+                    ps.setTimestamp(1, new Timestamp(d.nextRun == 0 ? d.due : d.nextRun));
+                    ps.setString(2, d.status);
+                    ps.setObject(3, d.error == null ? d.transferId : null);
+                    ps.setString(4, d.error);
+                    ps.setInt(5, d.error == null ? 0 : 1);
+                    ps.setInt(6, d.orderId);
+                    ps.addBatch();
+                    batched++;
+                }
+                if (batched > 0) {
+                    ps.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * The run after `runs` periods, counted from the first run so that
+     * monthly orders keep their day of the month (31st, then the last day
+     * of shorter months, then the 31st again).
+     */
+    static LocalDateTime next(LocalDateTime firstRun, int runs, int every, String unit) {
+        switch (unit) {
+            case "DAY":
+                return firstRun.plusDays((long) runs * every);
+            case "WEEK":
+                return firstRun.plusWeeks((long) runs * every);
+            default:
+                return firstRun.plusMonths((long) runs * every);
+        }
+    }
+
+    /**
+     * Runs the scheduler on its own, without the forms.
+     * Usage: StandingOrders
+     */
+    public static void main(String[] args) throws InterruptedException {
+        StandingOrders scheduler = startShared();
+        while (true) {
+            Thread.sleep(60_000);
+            System.out.printf("standing orders: %,d queued, lag %,d ms%n", scheduler.pending(), scheduler.lagMillis());
+            System.out.print(Metrics.summary());
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-balance striping for hot accounts listed in HotAccounts.
+ *
+ * A hot account's money lives in Accounts.Balance plus its AccountSlots
+ * rows, as summed by the AccountBalances view. A credit goes to one slot
+ * picked at random, so concurrent deposits to the same merchant lock
+ * different rows. Debits lock the base row, so they run one at a time, and
+ * take the whole amount from the first slot, in random order, that can
+ * cover it; when no single slot can, all slots are locked, the debit is
+ * taken from the total and what is left is spread evenly again. Every
+ * posting locks the base row before any slot, so the two never deadlock.
+ * A rebalance reads the slot count from HotAccounts and deletes any slot
+ * past it, so lowering the count folds the dropped slots back in. The
+ * count kept in memory is only a hint for picking slots, and only changes
+ * once the transaction that read it has committed here.
+ * Postings sends hot accounts here and everything else to the procedures.
+ */
+public class StripedAccounts {
+
+    private static StripedAccounts shared;
+
+    /** Slot count per hot account. */
+    private final Map<Integer, Integer> hot = new ConcurrentHashMap<>();
+
+    public static synchronized StripedAccounts shared() {
+        if (shared == null) {
+            shared = new StripedAccounts();
+            try {
+                Conn conn = new Conn();
+                ResultSet rs = conn.s.executeQuery("SELECT AccountNumber, Slots FROM HotAccounts;");
+                while (rs.next()) {
+                    shared.hot.put(rs.getInt(1), rs.getInt(2));
+                }
+                conn.c.close();
+            } catch (Exception e) {
+                System.out.println(e);
+            }
+        }
+        return shared;
+    }
+
+    public boolean isHot(int accountNumber) {
+        return hot.containsKey(accountNumber);
+    }
+
+    /**
+     * Makes an account hot with the given number of slots, moving its
+     * current balance into them. Also changes the slot count of an account
+     * that is already hot.
+     */
+    public void designate(Conn conn, int accountNumber, int slots) throws SQLException {
+        if (slots <= 0) {
+            throw new SQLException("A hot account needs at least one slot.", "45000");
+        }
+        conn.c.setAutoCommit(false);
+        try {
+            lockBase(conn, accountNumber);
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "INSERT INTO HotAccounts (AccountNumber, Slots) VALUES (?, ?) ON DUPLICATE KEY UPDATE Slots = VALUES(Slots)")) {
+                ps.setInt(1, accountNumber);
+                ps.setInt(2, slots);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "INSERT IGNORE INTO AccountSlots (AccountNumber, Slot) VALUES (?, ?)")) {
+                for (int slot = 0; slot < slots; slot++) {
+                    ps.setInt(1, accountNumber);
+                    ps.setInt(2, slot);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            int kept = rebalance(conn, accountNumber, BigDecimal.ZERO);
+            conn.c.commit();
+            hot.put(accountNumber, kept);
+        } catch (SQLException | RuntimeException e) {
+            conn.c.rollback();
+            throw e;
+        } finally {
+            conn.c.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Posts a Deposit or Withdrawal on a hot account and returns its
+     * TransactionID. Runs inside the caller's transaction when autocommit is
+     * off, otherwise in its own.
+     */
+    public long post(Conn conn, String type, int accountNumber, BigDecimal amount) throws SQLException {
+        if (amount.signum() <= 0) {
+            throw new SQLException("Amount must be positive.", "45000");
+        }
+        int slots = hot.get(accountNumber);
+        boolean own = conn.c.getAutoCommit();
+        if (own) {
+            conn.c.setAutoCommit(false);
+        }
+        int kept = 0;
+        try {
+            boolean deposit = "Deposit".equals(type);
+            if (!deposit) {
+                // debits queue up on the base row; credits only share-lock it
+                lockBase(conn, accountNumber);
+            }
+            // insert first: its foreign key check locks the base row before any slot
+            long id;
+            conn.s.execute("SET @BulkPosting = 1;");
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "INSERT INTO Transactions (AccountNumber, TransactionType, Amount) VALUES (?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, accountNumber);
+                ps.setString(2, type);
+                ps.setBigDecimal(3, amount);
+                ps.executeUpdate();
+                ResultSet keys = ps.getGeneratedKeys();
+                id = keys.next() ? keys.getLong(1) : 0;
+            } finally {
+                conn.s.execute("SET @BulkPosting = NULL;");
+            }
+            if (deposit) {
+                try (PreparedStatement ps = conn.c.prepareStatement(
+                        "UPDATE AccountSlots SET Balance = Balance + ? WHERE AccountNumber = ? AND Slot = ?")) {
+                    ps.setBigDecimal(1, amount);
+                    ps.setInt(2, accountNumber);
+                    ps.setInt(3, ThreadLocalRandom.current().nextInt(slots));
+                    if (ps.executeUpdate() == 0) {
+                        // another terminal lowered the slot count; slot 0 always stays
+                        ps.setInt(3, 0);
+                        if (ps.executeUpdate() == 0) {
+                            throw new SQLException("Account " + accountNumber + " has no slots to credit.", "45000");
+                        }
+                    }
+                }
+            } else if (!debitOneSlot(conn, accountNumber, slots, amount)) {
+                kept = rebalance(conn, accountNumber, amount);
+            }
+            if (own) {
+                conn.c.commit();
+                if (kept > 0) {
+                    hot.put(accountNumber, kept);
+                }
+            }
+            return id;
+        } catch (SQLException | RuntimeException e) {
+            if (own) {
+                conn.c.rollback();
+            }
+            throw e;
+        } finally {
+            if (own) {
+                conn.c.setAutoCommit(true);
+            }
+        }
+    }
+
+    private boolean debitOneSlot(Conn conn, int accountNumber, int slots, BigDecimal amount) throws SQLException {
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "UPDATE AccountSlots SET Balance = Balance - ? WHERE AccountNumber = ? AND Slot = ? AND Balance >= ?")) {
+            for (int i = 0; i < slots; i++) {
+                ps.setBigDecimal(1, amount);
+                ps.setInt(2, accountNumber);
+                ps.setInt(3, (start + i) % slots);
+                ps.setBigDecimal(4, amount);
+                if (ps.executeUpdate() == 1) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Locks the Accounts row and returns its balance in cents. */
+    private long lockBase(Conn conn, int accountNumber) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "SELECT Balance FROM Accounts WHERE AccountNumber = ? FOR UPDATE")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Account does not exist.", "45000");
+            }
+            return rs.getBigDecimal(1).movePointRight(2).longValueExact();
+        }
+    }
+
+    /**
+     * Locks the base row and every slot, takes the debit from the total and
+     * spreads the rest evenly over the slot count in HotAccounts, with any
+     * odd cents on slot 0. Slots at or past the count are deleted once their
+     * balance is in the total. Returns the slot count, for the caller to
+     * keep once its transaction commits.
+     */
+    private int rebalance(Conn conn, int accountNumber, BigDecimal debit) throws SQLException {
+        long total = lockBase(conn, accountNumber);
+        int slots;
+        try (PreparedStatement ps = conn.c.prepareStatement("SELECT Slots FROM HotAccounts WHERE AccountNumber = ?")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                throw new SQLException("Account " + accountNumber + " is not hot.", "45000");
+            }
+            slots = rs.getInt(1);
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "SELECT Balance FROM AccountSlots WHERE AccountNumber = ? ORDER BY Slot FOR UPDATE")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                total += rs.getBigDecimal(1).movePointRight(2).longValueExact();
+            }
+        }
+        total -= debit.movePointRight(2).longValueExact();
+        if (total < 0) {
+            throw new SQLException("Insufficient funds.", "45000");
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "UPDATE Accounts SET Balance = 0, Version = Version + 1 WHERE AccountNumber = ?")) {
+            ps.setInt(1, accountNumber);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "UPDATE AccountSlots SET Balance = ? WHERE AccountNumber = ? AND Slot = ?")) {
+            for (int slot = 0; slot < slots; slot++) {
+                long share = total / slots + (slot == 0 ? total % slots : 0);
+                ps.setBigDecimal(1, BigDecimal.valueOf(share, 2));
+                ps.setInt(2, accountNumber);
+                ps.setInt(3, slot);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(
+                "DELETE FROM AccountSlots WHERE AccountNumber = ? AND Slot >= ?")) {
+            ps.setInt(1, accountNumber);
+            ps.setInt(2, slots);
+            ps.executeUpdate();
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,1691 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * The connection TracingJdbc hands out when tracing is off: plain
+ * delegation to the driver's connection and statements, with no proxy or
+ * reflection on any call. Every statement it creates gets Conn's query
+ * timeout when it is made; executions are timed in Metrics.SQL, and
+ * timeouts and lost connections count against CircuitBreaker.DATABASE,
+ * the same as through the tracing proxies.
+ */
+class TimedConnection implements Connection {
+
+    private final Connection connection;
+
+    TimedConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    private static <T extends Statement> T timed(T statement) throws SQLException {
+        statement.setQueryTimeout(Conn.QUERY_TIMEOUT_SECONDS);
+        return statement;
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        connection.abort(executor);
+    }
+
+    @Override
+    public void beginRequest() throws SQLException {
+        connection.beginRequest();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        connection.clearWarnings();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        connection.commit();
+    }
+
+    @Override
+    public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+        return connection.createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return connection.createBlob();
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return connection.createClob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return connection.createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return connection.createSQLXML();
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return new TimedStatement<>(timed(connection.createStatement()), this);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new TimedStatement<>(timed(connection.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability)), this);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new TimedStatement<>(timed(connection.createStatement(resultSetType, resultSetConcurrency)), this);
+    }
+
+    @Override
+    public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+        return connection.createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void endRequest() throws SQLException {
+        connection.endRequest();
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return connection.getAutoCommit();
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return connection.getCatalog();
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return connection.getClientInfo();
+    }
+
+    @Override
+    public String getClientInfo(String name) throws SQLException {
+        return connection.getClientInfo(name);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return connection.getHoldability();
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return connection.getMetaData();
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return connection.getNetworkTimeout();
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return connection.getSchema();
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return connection.getTransactionIsolation();
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return connection.getTypeMap();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return connection.getWarnings();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return connection.isClosed();
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return connection.isReadOnly();
+    }
+
+    @Override
+    public boolean isValid(int timeout) throws SQLException {
+        return connection.isValid(timeout);
+    }
+
+    @Override
+    public String nativeSQL(String sql) throws SQLException {
+        return connection.nativeSQL(sql);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new TimedCallableStatement(timed(connection.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability)), this);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new TimedCallableStatement(timed(connection.prepareCall(sql, resultSetType, resultSetConcurrency)), this);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return new TimedCallableStatement(timed(connection.prepareCall(sql)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql, columnIndexes)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql, columnNames)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql, resultSetType, resultSetConcurrency)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql, autoGeneratedKeys)), this);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return new TimedPreparedStatement<>(timed(connection.prepareStatement(sql)), this);
+    }
+
+    @Override
+    public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+        connection.releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        connection.rollback();
+    }
+
+    @Override
+    public void rollback(Savepoint savepoint) throws SQLException {
+        connection.rollback(savepoint);
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) throws SQLException {
+        connection.setAutoCommit(autoCommit);
+    }
+
+    @Override
+    public void setCatalog(String catalog) throws SQLException {
+        connection.setCatalog(catalog);
+    }
+
+    @Override
+    public void setClientInfo(String name, String value) throws SQLClientInfoException {
+        connection.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(Properties properties) throws SQLClientInfoException {
+        connection.setClientInfo(properties);
+    }
+
+    @Override
+    public void setHoldability(int holdability) throws SQLException {
+        connection.setHoldability(holdability);
+    }
+
+    @Override
+    public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+        connection.setNetworkTimeout(executor, milliseconds);
+    }
+
+    @Override
+    public void setReadOnly(boolean readOnly) throws SQLException {
+        connection.setReadOnly(readOnly);
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return connection.setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(String name) throws SQLException {
+        return connection.setSavepoint(name);
+    }
+
+    @Override
+    public void setSchema(String schema) throws SQLException {
+        connection.setSchema(schema);
+    }
+
+    @Override
+    public void setShardingKey(ShardingKey shardingKey, ShardingKey superShardingKey) throws SQLException {
+        connection.setShardingKey(shardingKey, superShardingKey);
+    }
+
+    @Override
+    public void setShardingKey(ShardingKey shardingKey) throws SQLException {
+        connection.setShardingKey(shardingKey);
+    }
+
+    @Override
+    public boolean setShardingKeyIfValid(ShardingKey shardingKey, int timeout) throws SQLException {
+        return connection.setShardingKeyIfValid(shardingKey, timeout);
+    }
+
+    @Override
+    public boolean setShardingKeyIfValid(ShardingKey shardingKey, ShardingKey superShardingKey, int timeout) throws SQLException {
+        return connection.setShardingKeyIfValid(shardingKey, superShardingKey, timeout);
+    }
+
+    @Override
+    public void setTransactionIsolation(int level) throws SQLException {
+        connection.setTransactionIsolation(level);
+    }
+
+    @Override
+    public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+        connection.setTypeMap(map);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return connection.isWrapperFor(iface);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return connection.unwrap(iface);
+    }
+
+    static class TimedStatement<S extends Statement> implements Statement {
+
+        final S statement;
+        private final Connection connection;
+
+        TimedStatement(S statement, Connection connection) {
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public void addBatch(String sql) throws SQLException {
+            statement.addBatch(sql);
+        }
+
+        @Override
+        public void cancel() throws SQLException {
+            statement.cancel();
+        }
+
+        @Override
+        public void clearBatch() throws SQLException {
+            statement.clearBatch();
+        }
+
+        @Override
+        public void clearWarnings() throws SQLException {
+            statement.clearWarnings();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            statement.close();
+        }
+
+        @Override
+        public void closeOnCompletion() throws SQLException {
+            statement.closeOnCompletion();
+        }
+
+        @Override
+        public String enquoteIdentifier(String identifier, boolean alwaysQuote) throws SQLException {
+            return statement.enquoteIdentifier(identifier, alwaysQuote);
+        }
+
+        @Override
+        public String enquoteLiteral(String val) throws SQLException {
+            return statement.enquoteLiteral(val);
+        }
+
+        @Override
+        public String enquoteNCharLiteral(String val) throws SQLException {
+            return statement.enquoteNCharLiteral(val);
+        }
+
+        @Override
+        public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.execute(sql, columnIndexes);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean execute(String sql, String[] columnNames) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.execute(sql, columnNames);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.execute(sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public boolean execute(String sql) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.execute(sql);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int[] executeBatch() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeBatch();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long[] executeLargeBatch() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeBatch();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeUpdate(sql, columnIndexes);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeUpdate(sql, columnNames);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeUpdate(sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate(String sql) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeUpdate(sql);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public ResultSet executeQuery(String sql) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeQuery(sql);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeUpdate(sql, columnIndexes);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeUpdate(sql, columnNames);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeUpdate(sql, autoGeneratedKeys);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int executeUpdate(String sql) throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeUpdate(sql);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection;
+        }
+
+        @Override
+        public int getFetchDirection() throws SQLException {
+            return statement.getFetchDirection();
+        }
+
+        @Override
+        public int getFetchSize() throws SQLException {
+            return statement.getFetchSize();
+        }
+
+        @Override
+        public ResultSet getGeneratedKeys() throws SQLException {
+            return statement.getGeneratedKeys();
+        }
+
+        @Override
+        public long getLargeMaxRows() throws SQLException {
+            return statement.getLargeMaxRows();
+        }
+
+        @Override
+        public long getLargeUpdateCount() throws SQLException {
+            return statement.getLargeUpdateCount();
+        }
+
+        @Override
+        public int getMaxFieldSize() throws SQLException {
+            return statement.getMaxFieldSize();
+        }
+
+        @Override
+        public int getMaxRows() throws SQLException {
+            return statement.getMaxRows();
+        }
+
+        @Override
+        public boolean getMoreResults() throws SQLException {
+            return statement.getMoreResults();
+        }
+
+        @Override
+        public boolean getMoreResults(int current) throws SQLException {
+            return statement.getMoreResults(current);
+        }
+
+        @Override
+        public int getQueryTimeout() throws SQLException {
+            return statement.getQueryTimeout();
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException {
+            return statement.getResultSet();
+        }
+
+        @Override
+        public int getResultSetConcurrency() throws SQLException {
+            return statement.getResultSetConcurrency();
+        }
+
+        @Override
+        public int getResultSetHoldability() throws SQLException {
+            return statement.getResultSetHoldability();
+        }
+
+        @Override
+        public int getResultSetType() throws SQLException {
+            return statement.getResultSetType();
+        }
+
+        @Override
+        public int getUpdateCount() throws SQLException {
+            return statement.getUpdateCount();
+        }
+
+        @Override
+        public SQLWarning getWarnings() throws SQLException {
+            return statement.getWarnings();
+        }
+
+        @Override
+        public boolean isCloseOnCompletion() throws SQLException {
+            return statement.isCloseOnCompletion();
+        }
+
+        @Override
+        public boolean isClosed() throws SQLException {
+            return statement.isClosed();
+        }
+
+        @Override
+        public boolean isPoolable() throws SQLException {
+            return statement.isPoolable();
+        }
+
+        @Override
+        public boolean isSimpleIdentifier(String identifier) throws SQLException {
+            return statement.isSimpleIdentifier(identifier);
+        }
+
+        @Override
+        public void setCursorName(String name) throws SQLException {
+            statement.setCursorName(name);
+        }
+
+        @Override
+        public void setEscapeProcessing(boolean enable) throws SQLException {
+            statement.setEscapeProcessing(enable);
+        }
+
+        @Override
+        public void setFetchDirection(int direction) throws SQLException {
+            statement.setFetchDirection(direction);
+        }
+
+        @Override
+        public void setFetchSize(int rows) throws SQLException {
+            statement.setFetchSize(rows);
+        }
+
+        @Override
+        public void setLargeMaxRows(long max) throws SQLException {
+            statement.setLargeMaxRows(max);
+        }
+
+        @Override
+        public void setMaxFieldSize(int max) throws SQLException {
+            statement.setMaxFieldSize(max);
+        }
+
+        @Override
+        public void setMaxRows(int max) throws SQLException {
+            statement.setMaxRows(max);
+        }
+
+        @Override
+        public void setPoolable(boolean poolable) throws SQLException {
+            statement.setPoolable(poolable);
+        }
+
+        @Override
+        public void setQueryTimeout(int seconds) throws SQLException {
+            statement.setQueryTimeout(seconds);
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return statement.isWrapperFor(iface);
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            return statement.unwrap(iface);
+        }
+    }
+
+    static class TimedPreparedStatement<S extends PreparedStatement> extends TimedStatement<S> implements PreparedStatement {
+
+        TimedPreparedStatement(S statement, Connection connection) {
+            super(statement, connection);
+        }
+
+        @Override
+        public void addBatch() throws SQLException {
+            statement.addBatch();
+        }
+
+        @Override
+        public void clearParameters() throws SQLException {
+            statement.clearParameters();
+        }
+
+        @Override
+        public boolean execute() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.execute();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public long executeLargeUpdate() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeLargeUpdate();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public ResultSet executeQuery() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeQuery();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public int executeUpdate() throws SQLException {
+            long start = System.nanoTime();
+            try {
+                return statement.executeUpdate();
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+        }
+
+        @Override
+        public ResultSetMetaData getMetaData() throws SQLException {
+            return statement.getMetaData();
+        }
+
+        @Override
+        public ParameterMetaData getParameterMetaData() throws SQLException {
+            return statement.getParameterMetaData();
+        }
+
+        @Override
+        public void setArray(int parameterIndex, Array x) throws SQLException {
+            statement.setArray(parameterIndex, x);
+        }
+
+        @Override
+        public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+            statement.setAsciiStream(parameterIndex, x, length);
+        }
+
+        @Override
+        public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+            statement.setAsciiStream(parameterIndex, x, length);
+        }
+
+        @Override
+        public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+            statement.setAsciiStream(parameterIndex, x);
+        }
+
+        @Override
+        public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+            statement.setBigDecimal(parameterIndex, x);
+        }
+
+        @Override
+        public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+            statement.setBinaryStream(parameterIndex, x, length);
+        }
+
+        @Override
+        public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+            statement.setBinaryStream(parameterIndex, x, length);
+        }
+
+        @Override
+        public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+            statement.setBinaryStream(parameterIndex, x);
+        }
+
+        @Override
+        public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+            statement.setBlob(parameterIndex, inputStream, length);
+        }
+
+        @Override
+        public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+            statement.setBlob(parameterIndex, inputStream);
+        }
+
+        @Override
+        public void setBlob(int parameterIndex, Blob x) throws SQLException {
+            statement.setBlob(parameterIndex, x);
+        }
+
+        @Override
+        public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+            statement.setBoolean(parameterIndex, x);
+        }
+
+        @Override
+        public void setByte(int parameterIndex, byte x) throws SQLException {
+            statement.setByte(parameterIndex, x);
+        }
+
+        @Override
+        public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+            statement.setBytes(parameterIndex, x);
+        }
+
+        @Override
+        public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+            statement.setCharacterStream(parameterIndex, reader, length);
+        }
+
+        @Override
+        public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+            statement.setCharacterStream(parameterIndex, reader, length);
+        }
+
+        @Override
+        public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+            statement.setCharacterStream(parameterIndex, reader);
+        }
+
+        @Override
+        public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+            statement.setClob(parameterIndex, reader, length);
+        }
+
+        @Override
+        public void setClob(int parameterIndex, Reader reader) throws SQLException {
+            statement.setClob(parameterIndex, reader);
+        }
+
+        @Override
+        public void setClob(int parameterIndex, Clob x) throws SQLException {
+            statement.setClob(parameterIndex, x);
+        }
+
+        @Override
+        public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+            statement.setDate(parameterIndex, x, cal);
+        }
+
+        @Override
+        public void setDate(int parameterIndex, Date x) throws SQLException {
+            statement.setDate(parameterIndex, x);
+        }
+
+        @Override
+        public void setDouble(int parameterIndex, double x) throws SQLException {
+            statement.setDouble(parameterIndex, x);
+        }
+
+        @Override
+        public void setFloat(int parameterIndex, float x) throws SQLException {
+            statement.setFloat(parameterIndex, x);
+        }
+
+        @Override
+        public void setInt(int parameterIndex, int x) throws SQLException {
+            statement.setInt(parameterIndex, x);
+        }
+
+        @Override
+        public void setLong(int parameterIndex, long x) throws SQLException {
+            statement.setLong(parameterIndex, x);
+        }
+
+        @Override
+        public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+            statement.setNCharacterStream(parameterIndex, value, length);
+        }
+
+        @Override
+        public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+            statement.setNCharacterStream(parameterIndex, value);
+        }
+
+        @Override
+        public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+            statement.setNClob(parameterIndex, reader, length);
+        }
+
+        @Override
+        public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+            statement.setNClob(parameterIndex, reader);
+        }
+
+        @Override
+        public void setNClob(int parameterIndex, NClob value) throws SQLException {
+            statement.setNClob(parameterIndex, value);
+        }
+
+        @Override
+        public void setNString(int parameterIndex, String value) throws SQLException {
+            statement.setNString(parameterIndex, value);
+        }
+
+        @Override
+        public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+            statement.setNull(parameterIndex, sqlType, typeName);
+        }
+
+        @Override
+        public void setNull(int parameterIndex, int sqlType) throws SQLException {
+            statement.setNull(parameterIndex, sqlType);
+        }
+
+        @Override
+        public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+            statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        }
+
+        @Override
+        public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+            statement.setObject(parameterIndex, x, targetSqlType);
+        }
+
+        @Override
+        public void setObject(int parameterIndex, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+            statement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        }
+
+        @Override
+        public void setObject(int parameterIndex, Object x, SQLType targetSqlType) throws SQLException {
+            statement.setObject(parameterIndex, x, targetSqlType);
+        }
+
+        @Override
+        public void setObject(int parameterIndex, Object x) throws SQLException {
+            statement.setObject(parameterIndex, x);
+        }
+
+        @Override
+        public void setRef(int parameterIndex, Ref x) throws SQLException {
+            statement.setRef(parameterIndex, x);
+        }
+
+        @Override
+        public void setRowId(int parameterIndex, RowId x) throws SQLException {
+            statement.setRowId(parameterIndex, x);
+        }
+
+        @Override
+        public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+            statement.setSQLXML(parameterIndex, xmlObject);
+        }
+
+        @Override
+        public void setShort(int parameterIndex, short x) throws SQLException {
+            statement.setShort(parameterIndex, x);
+        }
+
+        @Override
+        public void setString(int parameterIndex, String x) throws SQLException {
+            statement.setString(parameterIndex, x);
+        }
+
+        @Override
+        public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+            statement.setTime(parameterIndex, x, cal);
+        }
+
+        @Override
+        public void setTime(int parameterIndex, Time x) throws SQLException {
+            statement.setTime(parameterIndex, x);
+        }
+
+        @Override
+        public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+            statement.setTimestamp(parameterIndex, x, cal);
+        }
+
+        @Override
+        public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+            statement.setTimestamp(parameterIndex, x);
+        }
+
+        @Override
+        public void setURL(int parameterIndex, URL x) throws SQLException {
+            statement.setURL(parameterIndex, x);
+        }
+
+        @Deprecated
+        @Override
+        public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+            statement.setUnicodeStream(parameterIndex, x, length);
+        }
+    }
+
+    static class TimedCallableStatement extends TimedPreparedStatement<CallableStatement> implements CallableStatement {
+
+        TimedCallableStatement(CallableStatement statement, Connection connection) {
+            super(statement, connection);
+        }
+
+        @Override
+        public Array getArray(String parameterName) throws SQLException {
+            return statement.getArray(parameterName);
+        }
+
+        @Override
+        public Array getArray(int parameterIndex) throws SQLException {
+            return statement.getArray(parameterIndex);
+        }
+
+        @Override
+        public BigDecimal getBigDecimal(String parameterName) throws SQLException {
+            return statement.getBigDecimal(parameterName);
+        }
+
+        @Deprecated
+        @Override
+        public BigDecimal getBigDecimal(int parameterIndex, int scale) throws SQLException {
+            return statement.getBigDecimal(parameterIndex, scale);
+        }
+
+        @Override
+        public BigDecimal getBigDecimal(int parameterIndex) throws SQLException {
+            return statement.getBigDecimal(parameterIndex);
+        }
+
+        @Override
+        public Blob getBlob(String parameterName) throws SQLException {
+            return statement.getBlob(parameterName);
+        }
+
+        @Override
+        public Blob getBlob(int parameterIndex) throws SQLException {
+            return statement.getBlob(parameterIndex);
+        }
+
+        @Override
+        public boolean getBoolean(String parameterName) throws SQLException {
+            return statement.getBoolean(parameterName);
+        }
+
+        @Override
+        public boolean getBoolean(int parameterIndex) throws SQLException {
+            return statement.getBoolean(parameterIndex);
+        }
+
+        @Override
+        public byte getByte(String parameterName) throws SQLException {
+            return statement.getByte(parameterName);
+        }
+
+        @Override
+        public byte getByte(int parameterIndex) throws SQLException {
+            return statement.getByte(parameterIndex);
+        }
+
+        @Override
+        public byte[] getBytes(String parameterName) throws SQLException {
+            return statement.getBytes(parameterName);
+        }
+
+        @Override
+        public byte[] getBytes(int parameterIndex) throws SQLException {
+            return statement.getBytes(parameterIndex);
+        }
+
+        @Override
+        public Reader getCharacterStream(String parameterName) throws SQLException {
+            return statement.getCharacterStream(parameterName);
+        }
+
+        @Override
+        public Reader getCharacterStream(int parameterIndex) throws SQLException {
+            return statement.getCharacterStream(parameterIndex);
+        }
+
+        @Override
+        public Clob getClob(String parameterName) throws SQLException {
+            return statement.getClob(parameterName);
+        }
+
+        @Override
+        public Clob getClob(int parameterIndex) throws SQLException {
+            return statement.getClob(parameterIndex);
+        }
+
+        @Override
+        public Date getDate(String parameterName, Calendar cal) throws SQLException {
+            return statement.getDate(parameterName, cal);
+        }
+
+        @Override
+        public Date getDate(String parameterName) throws SQLException {
+            return statement.getDate(parameterName);
+        }
+
+        @Override
+        public Date getDate(int parameterIndex, Calendar cal) throws SQLException {
+            return statement.getDate(parameterIndex, cal);
+        }
+
+        @Override
+        public Date getDate(int parameterIndex) throws SQLException {
+            return statement.getDate(parameterIndex);
+        }
+
+        @Override
+        public double getDouble(String parameterName) throws SQLException {
+            return statement.getDouble(parameterName);
+        }
+
+        @Override
+        public double getDouble(int parameterIndex) throws SQLException {
+            return statement.getDouble(parameterIndex);
+        }
+
+        @Override
+        public float getFloat(String parameterName) throws SQLException {
+            return statement.getFloat(parameterName);
+        }
+
+        @Override
+        public float getFloat(int parameterIndex) throws SQLException {
+            return statement.getFloat(parameterIndex);
+        }
+
+        @Override
+        public int getInt(String parameterName) throws SQLException {
+            return statement.getInt(parameterName);
+        }
+
+        @Override
+        public int getInt(int parameterIndex) throws SQLException {
+            return statement.getInt(parameterIndex);
+        }
+
+        @Override
+        public long getLong(String parameterName) throws SQLException {
+            return statement.getLong(parameterName);
+        }
+
+        @Override
+        public long getLong(int parameterIndex) throws SQLException {
+            return statement.getLong(parameterIndex);
+        }
+
+        @Override
+        public Reader getNCharacterStream(String parameterName) throws SQLException {
+            return statement.getNCharacterStream(parameterName);
+        }
+
+        @Override
+        public Reader getNCharacterStream(int parameterIndex) throws SQLException {
+            return statement.getNCharacterStream(parameterIndex);
+        }
+
+        @Override
+        public NClob getNClob(String parameterName) throws SQLException {
+            return statement.getNClob(parameterName);
+        }
+
+        @Override
+        public NClob getNClob(int parameterIndex) throws SQLException {
+            return statement.getNClob(parameterIndex);
+        }
+
+        @Override
+        public String getNString(String parameterName) throws SQLException {
+            return statement.getNString(parameterName);
+        }
+
+        @Override
+        public String getNString(int parameterIndex) throws SQLException {
+            return statement.getNString(parameterIndex);
+        }
+
+        @Override
+        public <T> T getObject(String parameterName, Class<T> type) throws SQLException {
+            return statement.getObject(parameterName, type);
+        }
+
+        @Override
+        public Object getObject(String parameterName, Map<String, Class<?>> map) throws SQLException {
+            return statement.getObject(parameterName, map);
+        }
+
+        @Override
+        public Object getObject(String parameterName) throws SQLException {
+            return statement.getObject(parameterName);
+        }
+
+        @Override
+        public <T> T getObject(int parameterIndex, Class<T> type) throws SQLException {
+            return statement.getObject(parameterIndex, type);
+        }
+
+        @Override
+        public Object getObject(int parameterIndex, Map<String, Class<?>> map) throws SQLException {
+            return statement.getObject(parameterIndex, map);
+        }
+
+        @Override
+        public Object getObject(int parameterIndex) throws SQLException {
+            return statement.getObject(parameterIndex);
+        }
+
+        @Override
+        public Ref getRef(String parameterName) throws SQLException {
+            return statement.getRef(parameterName);
+        }
+
+        @Override
+        public Ref getRef(int parameterIndex) throws SQLException {
+            return statement.getRef(parameterIndex);
+        }
+
+        @Override
+        public RowId getRowId(String parameterName) throws SQLException {
+            return statement.getRowId(parameterName);
+        }
+
+        @Override
+        public RowId getRowId(int parameterIndex) throws SQLException {
+            return statement.getRowId(parameterIndex);
+        }
+
+        @Override
+        public SQLXML getSQLXML(String parameterName) throws SQLException {
+            return statement.getSQLXML(parameterName);
+        }
+
+        @Override
+        public SQLXML getSQLXML(int parameterIndex) throws SQLException {
+            return statement.getSQLXML(parameterIndex);
+        }
+
+        @Override
+        public short getShort(String parameterName) throws SQLException {
+            return statement.getShort(parameterName);
+        }
+
+        @Override
+        public short getShort(int parameterIndex) throws SQLException {
+            return statement.getShort(parameterIndex);
+        }
+
+        @Override
+        public String getString(String parameterName) throws SQLException {
+            return statement.getString(parameterName);
+        }
+
+        @Override
+        public String getString(int parameterIndex) throws SQLException {
+            return statement.getString(parameterIndex);
+        }
+
+        @Override
+        public Time getTime(String parameterName, Calendar cal) throws SQLException {
+            return statement.getTime(parameterName, cal);
+        }
+
+        @Override
+        public Time getTime(String parameterName) throws SQLException {
+            return statement.getTime(parameterName);
+        }
+
+        @Override
+        public Time getTime(int parameterIndex, Calendar cal) throws SQLException {
+            return statement.getTime(parameterIndex, cal);
+        }
+
+        @Override
+        public Time getTime(int parameterIndex) throws SQLException {
+            return statement.getTime(parameterIndex);
+        }
+
+        @Override
+        public Timestamp getTimestamp(String parameterName, Calendar cal) throws SQLException {
+            return statement.getTimestamp(parameterName, cal);
+        }
+
+        @Override
+        public Timestamp getTimestamp(String parameterName) throws SQLException {
+            return statement.getTimestamp(parameterName);
+        }
+
+        @Override
+        public Timestamp getTimestamp(int parameterIndex, Calendar cal) throws SQLException {
+            return statement.getTimestamp(parameterIndex, cal);
+        }
+
+        @Override
+        public Timestamp getTimestamp(int parameterIndex) throws SQLException {
+            return statement.getTimestamp(parameterIndex);
+        }
+
+        @Override
+        public URL getURL(String parameterName) throws SQLException {
+            return statement.getURL(parameterName);
+        }
+
+        @Override
+        public URL getURL(int parameterIndex) throws SQLException {
+            return statement.getURL(parameterIndex);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, int sqlType, String typeName) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType, typeName);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, int sqlType, int scale) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType, scale);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, int sqlType) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, SQLType sqlType, String typeName) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType, typeName);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, SQLType sqlType, int scale) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType, scale);
+        }
+
+        @Override
+        public void registerOutParameter(String parameterName, SQLType sqlType) throws SQLException {
+            statement.registerOutParameter(parameterName, sqlType);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, int sqlType, String typeName) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType, typeName);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, int sqlType, int scale) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType, scale);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, int sqlType) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, SQLType sqlType, String typeName) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType, typeName);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, SQLType sqlType, int scale) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType, scale);
+        }
+
+        @Override
+        public void registerOutParameter(int parameterIndex, SQLType sqlType) throws SQLException {
+            statement.registerOutParameter(parameterIndex, sqlType);
+        }
+
+        @Override
+        public void setAsciiStream(String parameterName, InputStream x, int length) throws SQLException {
+            statement.setAsciiStream(parameterName, x, length);
+        }
+
+        @Override
+        public void setAsciiStream(String parameterName, InputStream x, long length) throws SQLException {
+            statement.setAsciiStream(parameterName, x, length);
+        }
+
+        @Override
+        public void setAsciiStream(String parameterName, InputStream x) throws SQLException {
+            statement.setAsciiStream(parameterName, x);
+        }
+
+        @Override
+        public void setBigDecimal(String parameterName, BigDecimal x) throws SQLException {
+            statement.setBigDecimal(parameterName, x);
+        }
+
+        @Override
+        public void setBinaryStream(String parameterName, InputStream x, int length) throws SQLException {
+            statement.setBinaryStream(parameterName, x, length);
+        }
+
+        @Override
+        public void setBinaryStream(String parameterName, InputStream x, long length) throws SQLException {
+            statement.setBinaryStream(parameterName, x, length);
+        }
+
+        @Override
+        public void setBinaryStream(String parameterName, InputStream x) throws SQLException {
+            statement.setBinaryStream(parameterName, x);
+        }
+
+        @Override
+        public void setBlob(String parameterName, InputStream inputStream, long length) throws SQLException {
+            statement.setBlob(parameterName, inputStream, length);
+        }
+
+        @Override
+        public void setBlob(String parameterName, InputStream inputStream) throws SQLException {
+            statement.setBlob(parameterName, inputStream);
+        }
+
+        @Override
+        public void setBlob(String parameterName, Blob x) throws SQLException {
+            statement.setBlob(parameterName, x);
+        }
+
+        @Override
+        public void setBoolean(String parameterName, boolean x) throws SQLException {
+            statement.setBoolean(parameterName, x);
+        }
+
+        @Override
+        public void setByte(String parameterName, byte x) throws SQLException {
+            statement.setByte(parameterName, x);
+        }
+
+        @Override
+        public void setBytes(String parameterName, byte[] x) throws SQLException {
+            statement.setBytes(parameterName, x);
+        }
+
+        @Override
+        public void setCharacterStream(String parameterName, Reader reader, int length) throws SQLException {
+            statement.setCharacterStream(parameterName, reader, length);
+        }
+
+        @Override
+        public void setCharacterStream(String parameterName, Reader reader, long length) throws SQLException {
+            statement.setCharacterStream(parameterName, reader, length);
+        }
+
+        @Override
+        public void setCharacterStream(String parameterName, Reader reader) throws SQLException {
+            statement.setCharacterStream(parameterName, reader);
+        }
+
+        @Override
+        public void setClob(String parameterName, Reader reader, long length) throws SQLException {
+            statement.setClob(parameterName, reader, length);
+        }
+
+        @Override
+        public void setClob(String parameterName, Reader reader) throws SQLException {
+            statement.setClob(parameterName, reader);
+        }
+
+        @Override
+        public void setClob(String parameterName, Clob x) throws SQLException {
+            statement.setClob(parameterName, x);
+        }
+
+        @Override
+        public void setDate(String parameterName, Date x, Calendar cal) throws SQLException {
+            statement.setDate(parameterName, x, cal);
+        }
+
+        @Override
+        public void setDate(String parameterName, Date x) throws SQLException {
+            statement.setDate(parameterName, x);
+        }
+
+        @Override
+        public void setDouble(String parameterName, double x) throws SQLException {
+            statement.setDouble(parameterName, x);
+        }
+
+        @Override
+        public void setFloat(String parameterName, float x) throws SQLException {
+            statement.setFloat(parameterName, x);
+        }
+
+        @Override
+        public void setInt(String parameterName, int x) throws SQLException {
+            statement.setInt(parameterName, x);
+        }
+
+        @Override
+        public void setLong(String parameterName, long x) throws SQLException {
+            statement.setLong(parameterName, x);
+        }
+
+        @Override
+        public void setNCharacterStream(String parameterName, Reader value, long length) throws SQLException {
+            statement.setNCharacterStream(parameterName, value, length);
+        }
+
+        @Override
+        public void setNCharacterStream(String parameterName, Reader value) throws SQLException {
+            statement.setNCharacterStream(parameterName, value);
+        }
+
+        @Override
+        public void setNClob(String parameterName, Reader reader, long length) throws SQLException {
+            statement.setNClob(parameterName, reader, length);
+        }
+
+        @Override
+        public void setNClob(String parameterName, Reader reader) throws SQLException {
+            statement.setNClob(parameterName, reader);
+        }
+
+        @Override
+        public void setNClob(String parameterName, NClob value) throws SQLException {
+            statement.setNClob(parameterName, value);
+        }
+
+        @Override
+        public void setNString(String parameterName, String value) throws SQLException {
+            statement.setNString(parameterName, value);
+        }
+
+        @Override
+        public void setNull(String parameterName, int sqlType, String typeName) throws SQLException {
+            statement.setNull(parameterName, sqlType, typeName);
+        }
+
+        @Override
+        public void setNull(String parameterName, int sqlType) throws SQLException {
+            statement.setNull(parameterName, sqlType);
+        }
+
+        @Override
+        public void setObject(String parameterName, Object x, int targetSqlType, int scale) throws SQLException {
+            statement.setObject(parameterName, x, targetSqlType, scale);
+        }
+
+        @Override
+        public void setObject(String parameterName, Object x, int targetSqlType) throws SQLException {
+            statement.setObject(parameterName, x, targetSqlType);
+        }
+
+        @Override
+        public void setObject(String parameterName, Object x, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+            statement.setObject(parameterName, x, targetSqlType, scaleOrLength);
+        }
+
+        @Override
+        public void setObject(String parameterName, Object x, SQLType targetSqlType) throws SQLException {
+            statement.setObject(parameterName, x, targetSqlType);
+        }
+
+        @Override
+        public void setObject(String parameterName, Object x) throws SQLException {
+            statement.setObject(parameterName, x);
+        }
+
+        @Override
+        public void setRowId(String parameterName, RowId x) throws SQLException {
+            statement.setRowId(parameterName, x);
+        }
+
+        @Override
+        public void setSQLXML(String parameterName, SQLXML xmlObject) throws SQLException {
+            statement.setSQLXML(parameterName, xmlObject);
+        }
+
+        @Override
+        public void setShort(String parameterName, short x) throws SQLException {
+            statement.setShort(parameterName, x);
+        }
+
+        @Override
+        public void setString(String parameterName, String x) throws SQLException {
+            statement.setString(parameterName, x);
+        }
+
+        @Override
+        public void setTime(String parameterName, Time x, Calendar cal) throws SQLException {
+            statement.setTime(parameterName, x, cal);
+        }
+
+        @Override
+        public void setTime(String parameterName, Time x) throws SQLException {
+            statement.setTime(parameterName, x);
+        }
+
+        @Override
+        public void setTimestamp(String parameterName, Timestamp x, Calendar cal) throws SQLException {
+            statement.setTimestamp(parameterName, x, cal);
+        }
+
+        @Override
+        public void setTimestamp(String parameterName, Timestamp x) throws SQLException {
+            statement.setTimestamp(parameterName, x);
+        }
+
+        @Override
+        public void setURL(String parameterName, URL val) throws SQLException {
+            statement.setURL(parameterName, val);
+        }
+
+        @Override
+        public boolean wasNull() throws SQLException {
+            return statement.wasNull();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps a JDBC connection so every statement it creates gets Conn's query
+ * timeout and records its execution time in Metrics.SQL; timeouts and lost
+ * connections count against CircuitBreaker.DATABASE.
+ *
+ * With -Dbank.trace=true each statement is also traced by its normalized
+ * text (literals replaced by ?, IN lists collapsed): calls, bind values,
+ * rows read, execution time and time spent fetching rows. Statements
+ * slower than bank.trace.slowMillis (default 200) are logged as they
+ * happen, and top() lists the statements with the most total time. When
+ * tracing is off no proxy is made: wrap returns a TimedConnection, which
+ * keeps the timeout, timer and breaker with plain calls.
+ */
+public class TracingJdbc {
+
+    static final boolean TRACE = Boolean.getBoolean("bank.trace");
+    private static final long SLOW_NANOS = Long.getLong("bank.trace.slowMillis", 200) * 1_000_000;
+
+    private static final Pattern STRINGS = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBERS = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LISTS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final ConcurrentHashMap<String, SqlStats> STATS = new ConcurrentHashMap<>();
+
+    public static Connection wrap(Connection connection) {
+        if (!TRACE) {
+            return new TimedConnection(connection);
+        }
+        return (Connection) Proxy.newProxyInstance(TracingJdbc.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new ConnectionHandler(connection));
+    }
+
+    /** SQL text with literals and parameter lists folded, so similar statements share one entry. */
+    static String normalize(String sql) {
+        String s = STRINGS.matcher(sql).replaceAll("?");
+        s = NUMBERS.matcher(s).replaceAll("?");
+        s = IN_LISTS.matcher(s).replaceAll("(...)");
+        s = SPACES.matcher(s).replaceAll(" ").strip();
+        return s.endsWith(";") ? s.substring(0, s.length() - 1).strip() : s;
+    }
+
+    /** The statements with the highest total execution plus fetch time. */
+    public static String top(int n) {
+        List<SqlStats> all = new ArrayList<>(STATS.values());
+        all.sort((a, b) -> Long.compare(b.totalNanos(), a.totalNanos()));
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%10s %8s %10s %10s %10s %10s %8s  %s%n",
+                "total ms", "calls", "exec ms", "fetch ms", "max ms", "rows", "binds", "statement"));
+        for (SqlStats st : all.subList(0, Math.min(n, all.size()))) {
+            sb.append(String.format(Locale.ROOT, "%10.1f %8d %10.1f %10.1f %10.1f %10d %8d  %s%n",
+                    st.totalNanos() / 1e6, st.calls.sum(), st.execNanos.sum() / 1e6, st.fetchNanos.sum() / 1e6,
+                    st.maxExecNanos.get() / 1e6, st.rows.sum(), st.binds.sum(), st.sql));
+        }
+        return sb.toString();
+    }
+
+    public static void reset() {
+        STATS.clear();
+    }
+
+    private static SqlStats stats(String sql) {
+        String normalized = normalize(sql);
+        return STATS.computeIfAbsent(normalized, SqlStats::new);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static class SqlStats {
+
+        final String sql;
+        final LongAdder calls = new LongAdder();
+        final LongAdder binds = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder execNanos = new LongAdder();
+        final LongAdder fetchNanos = new LongAdder();
+        final AtomicLong maxExecNanos = new AtomicLong();
+
+        SqlStats(String sql) {
+            this.sql = sql;
+        }
+
+        long totalNanos() {
+            return execNanos.sum() + fetchNanos.sum();
+        }
+    }
+
+    private static class ConnectionHandler implements InvocationHandler {
+
+        private final Connection connection;
+
+        ConnectionHandler(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TracingJdbc.invoke(connection, method, args);
+            Class<?> type;
+            if (result instanceof CallableStatement) {
+                type = CallableStatement.class;
+            } else if (result instanceof PreparedStatement) {
+                type = PreparedStatement.class;
+            } else if (result instanceof Statement) {
+                type = Statement.class;
+            } else {
+                return result;
+            }
+            ((Statement) result).setQueryTimeout(Conn.QUERY_TIMEOUT_SECONDS);
+            // prepareStatement and prepareCall carry their SQL up front
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            return Proxy.newProxyInstance(TracingJdbc.class.getClassLoader(),
+                    new Class<?>[] { type }, new StatementHandler(result, sql));
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+
+        private final Object statement;
+        private final String preparedSql;
+        private int bound;
+        private SqlStats last;
+
+        StatementHandler(Object statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                bound++;
+            }
+            Object result = TracingJdbc.invoke(statement, method, args);
+            if (result instanceof ResultSet && last != null) {
+                return wrapResults((ResultSet) result, last);
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = TracingJdbc.invoke(statement, method, args);
+            } catch (SQLException e) {
+                CircuitBreaker.DATABASE.failure(e);
+                throw e;
+            } finally {
+                Metrics.SQL.recordSince(start);
+            }
+            long took = System.nanoTime() - start;
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                return result;
+            }
+            SqlStats st = stats(sql);
+            st.calls.increment();
+            st.binds.add(bound);
+            st.execNanos.add(took);
+            st.maxExecNanos.accumulateAndGet(took, Math::max);
+            if (took > SLOW_NANOS) {
+                System.out.println(String.format(Locale.ROOT, "Slow SQL %.1f ms, %d binds: %s", took / 1e6, bound, st.sql));
+            }
+            bound = 0;
+            last = st;
+            if (result instanceof ResultSet) {
+                return wrapResults((ResultSet) result, st);
+            }
+            if (result instanceof Integer) {
+                st.rows.add((Integer) result);
+            }
+            return result;
+        }
+    }
+
+    private static ResultSet wrapResults(ResultSet rs, SqlStats st) {
+        return (ResultSet) Proxy.newProxyInstance(TracingJdbc.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                    if (!"next".equals(method.getName())) {
+                        return invoke(rs, method, args);
+                    }
+                    long start = System.nanoTime();
+                    Object more = invoke(rs, method, args);
+                    st.fetchNanos.add(System.nanoTime() - start);
+                    if (Boolean.TRUE.equals(more)) {
+                        st.rows.increment();
+                    }
+                    return more;
+                });
+    }
+}
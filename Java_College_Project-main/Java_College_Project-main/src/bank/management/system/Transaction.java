@@ -19,9 +19,39 @@ public class Transaction extends javax.swing.JFrame {
 
      */
     private String AccountNo;
+    // built once per login and reopened on each click
+    private DepositForm depositForm;
+    private WithdrawForm withdrawForm;
+    private TransferForm transferForm;
+    private TransactionHistory historyForm;
+    private ChangePin pinForm;
+
     public Transaction(String AccountNo) {
         initComponents();
         this.AccountNo= AccountNo;
+        // deposit and withdraw are the likely next clicks; build them once the menu is up
+        java.awt.EventQueue.invokeLater(() -> {
+            if (depositForm == null) {
+                depositForm = new DepositForm(AccountNo);
+            }
+            if (withdrawForm == null) {
+                withdrawForm = new WithdrawForm(AccountNo);
+            }
+        });
+    }
+
+    boolean isFor(String accountNo) {
+        return AccountNo.equals(accountNo);
+    }
+
+    @Override
+    public void dispose() {
+        for (javax.swing.JFrame form : new javax.swing.JFrame[] { depositForm, withdrawForm, transferForm, historyForm, pinForm }) {
+            if (form != null) {
+                form.dispose();
+            }
+        }
+        super.dispose();
     }
 
     /**
@@ -39,6 +69,7 @@ public class Transaction extends javax.swing.JFrame {
         btransactionHistory = new javax.swing.JButton();
         bchangepin = new javax.swing.JButton();
         bwithdraw = new javax.swing.JButton();
+        btransfer = new javax.swing.JButton();
         bbalancecheck = new javax.swing.JButton();
         bcancel = new javax.swing.JButton();
         jLabel2 = new javax.swing.JLabel();
@@ -85,6 +116,14 @@ public class Transaction extends javax.swing.JFrame {
             }
         });
 
+        btransfer.setFont(new java.awt.Font("Segoe UI", 1, 24)); // NOI18N
+        btransfer.setText("Transfer");
+        btransfer.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                btransferActionPerformed(evt);
+            }
+        });
+
         bbalancecheck.setFont(new java.awt.Font("Segoe UI", 1, 24)); // NOI18N
         bbalancecheck.setText("Balance Check");
         bbalancecheck.addActionListener(new java.awt.event.ActionListener() {
@@ -103,7 +142,7 @@ public class Transaction extends javax.swing.JFrame {
             }
         });
 
-        jLabel2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/menu.jpg"))); // NOI18N
+        jLabel2.setIcon(Images.get("/menu.jpg")); // NOI18N
         jLabel2.setText("jLabel2");
 
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
@@ -115,20 +154,22 @@ public class Transaction extends javax.swing.JFrame {
                 .addComponent(jLabel1, javax.swing.GroupLayout.PREFERRED_SIZE, 540, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(50, 50, 50)
-                .addComponent(bwithdraw, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addComponent(bwithdraw, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(60, 60, 60)
+                .addComponent(bdeposit, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(50, 50, 50)
-                .addComponent(btransactionHistory, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addComponent(btransfer, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(60, 60, 60)
                 .addComponent(bbalancecheck, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(50, 50, 50)
-                .addComponent(bchangepin, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addComponent(btransactionHistory, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(60, 60, 60)
-                .addComponent(bcancel, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addComponent(bchangepin, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(340, 340, 340)
-                .addComponent(bdeposit, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addComponent(bcancel, javax.swing.GroupLayout.PREFERRED_SIZE, 230, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 640, javax.swing.GroupLayout.PREFERRED_SIZE)
         );
         jPanel1Layout.setVerticalGroup(
@@ -136,19 +177,20 @@ public class Transaction extends javax.swing.JFrame {
             .addGroup(jPanel1Layout.createSequentialGroup()
                 .addGap(60, 60, 60)
                 .addComponent(jLabel1)
-                .addGap(58, 58, 58)
-                .addComponent(bwithdraw, javax.swing.GroupLayout.PREFERRED_SIZE, 50, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addGap(30, 30, 30)
+                .addGap(18, 18, 18)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
-                    .addComponent(btransactionHistory, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(bwithdraw, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(bdeposit, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addGap(20, 20, 20)
+                .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
+                    .addComponent(btransfer, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)
                     .addComponent(bbalancecheck, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
-                .addGap(29, 29, 29)
+                .addGap(20, 20, 20)
                 .addGroup(jPanel1Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
-                    .addComponent(bchangepin, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)
-                    .addComponent(bcancel, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)))
-            .addGroup(jPanel1Layout.createSequentialGroup()
-                .addGap(150, 150, 150)
-                .addComponent(bdeposit, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
+                    .addComponent(btransactionHistory, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE)
+                    .addComponent(bchangepin, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
+                .addGap(20, 20, 20)
+                .addComponent(bcancel, javax.swing.GroupLayout.PREFERRED_SIZE, 51, javax.swing.GroupLayout.PREFERRED_SIZE))
             .addComponent(jLabel2, javax.swing.GroupLayout.PREFERRED_SIZE, 400, javax.swing.GroupLayout.PREFERRED_SIZE)
         );
 
@@ -169,23 +211,45 @@ public class Transaction extends javax.swing.JFrame {
     private void bcancelActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bcancelActionPerformed
         // TODO add your handling code here:
         this.setVisible(false);
-        new LoginForm().setVisible(true);
+        Forms.home().setVisible(true);
     }//GEN-LAST:event_bcancelActionPerformed
 
     private void bbalancecheckActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bbalancecheckActionPerformed
         // TODO add your handling code here:
+        long started = System.nanoTime();
+                try {
+            BalanceReplica replica = BalanceReplica.shared();
+            long cents = replica == null ? Long.MIN_VALUE : replica.balanceCents(Integer.parseInt(AccountNo));
+            if (cents != Long.MIN_VALUE) {
+                Metrics.BALANCE.recordSince(started);
+                int currency = AccountCurrencies.cached(Integer.parseInt(AccountNo));
+                JOptionPane.showMessageDialog(null, "<html><span style='font-size: 20px; font-weight: bold; font-family: Arial;'>Balance: " + java.math.BigDecimal.valueOf(cents, 2)
+                        + (currency < 0 ? "" : " " + FxRates.code(currency)) + "</span></html>", "Balance Check", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            String balance = null;
+            try (Bulkhead.Permit permit = Bulkhead.READS.enter()) {
+                Conn conn = ReadRouting.forRead(AccountNo);
                 try {
-            Conn conn = new Conn();
-            String query = "SELECT Balance FROM Accounts WHERE AccountNumber ="+AccountNo +";";
-            ResultSet result = conn.s.executeQuery(query);
+                    String query = "SELECT Balance, Currency FROM AccountBalances WHERE AccountNumber ="+AccountNo +";";
+                    ResultSet result = conn.s.executeQuery(query);
+                    if (result.next()) {
+                        balance = result.getString("Balance") + " " + result.getString("Currency");
+                        AccountCurrencies.remember(Integer.parseInt(AccountNo), FxRates.id(result.getString("Currency")));
+                    }
+                } finally {
+                    conn.c.close();
+                }
+            }
+            Metrics.BALANCE.recordSince(started);
 
-            if(result.next()) {
-                JOptionPane.showMessageDialog(null, "<html><span style='font-size: 20px; font-weight: bold; font-family: Arial;'>Balance: " + result.getString("Balance") + "</span></html>", "Balance Check", JOptionPane.INFORMATION_MESSAGE);
+            if(balance != null) {
+                JOptionPane.showMessageDialog(null, "<html><span style='font-size: 20px; font-weight: bold; font-family: Arial;'>Balance: " + balance + "</span></html>", "Balance Check", JOptionPane.INFORMATION_MESSAGE);
 
             }else{
                 JOptionPane.showMessageDialog(null, "Invalid Card Number or PIN.", "Error", JOptionPane.ERROR_MESSAGE);
                 this.setVisible(false);
-                new LoginForm().setVisible(true);
+                Forms.login().setVisible(true);
             }
             
 
@@ -196,22 +260,48 @@ public class Transaction extends javax.swing.JFrame {
 
     private void bdepositActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bdepositActionPerformed
         // TODO add your handling code here:
-        new DepositForm(AccountNo).setVisible(true);
+        if (depositForm == null) {
+            depositForm = new DepositForm(AccountNo);
+        }
+        depositForm.reset();
+        depositForm.setVisible(true);
     }//GEN-LAST:event_bdepositActionPerformed
 
     private void bwithdrawActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bwithdrawActionPerformed
         // TODO add your handling code here:
-        new WithdrawForm(AccountNo).setVisible(true);
+        if (withdrawForm == null) {
+            withdrawForm = new WithdrawForm(AccountNo);
+        }
+        withdrawForm.reset();
+        withdrawForm.setVisible(true);
     }//GEN-LAST:event_bwithdrawActionPerformed
 
+    private void btransferActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btransferActionPerformed
+        // TODO add your handling code here:
+        if (transferForm == null) {
+            transferForm = new TransferForm(AccountNo);
+        }
+        transferForm.reset();
+        transferForm.setVisible(true);
+    }//GEN-LAST:event_btransferActionPerformed
+
     private void btransactionHistoryActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_btransactionHistoryActionPerformed
         // TODO add your handling code here:
-        new TransactionHistory(AccountNo).setVisible(true);
+        if (historyForm == null) {
+            historyForm = new TransactionHistory(AccountNo);
+        } else {
+            historyForm.load();
+        }
+        historyForm.setVisible(true);
     }//GEN-LAST:event_btransactionHistoryActionPerformed
 
     private void bchangepinActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bchangepinActionPerformed
         // TODO add your handling code here:
-        new ChangePin(AccountNo).setVisible(true);
+        if (pinForm == null) {
+            pinForm = new ChangePin(AccountNo);
+        }
+        pinForm.reset();
+        pinForm.setVisible(true);
 
     }//GEN-LAST:event_bchangepinActionPerformed
 
@@ -256,6 +346,7 @@ public class Transaction extends javax.swing.JFrame {
     private javax.swing.JButton bchangepin;
     private javax.swing.JButton bdeposit;
     private javax.swing.JButton btransactionHistory;
+    private javax.swing.JButton btransfer;
     private javax.swing.JButton bwithdraw;
     private javax.swing.JLabel jLabel1;
     private javax.swing.JLabel jLabel2;
@@ -4,10 +4,6 @@
  */
 package bank.management.system;
 
-import java.sql.ResultSet;
-
-import javax.swing.table.DefaultTableModel;
-
 /**
  *
  * @author nithi
@@ -17,28 +13,141 @@ public class TransactionHistory extends javax.swing.JFrame {
     /**
      * Creates new form TransactionHistory
      */
+    private String AccountNo;
+    private final TransactionTableModel model = new TransactionTableModel();
+    private TransactionSearch search = new TransactionSearch();
+    private final javax.swing.JMenuItem older = new javax.swing.JMenuItem("Load older");
+
     public TransactionHistory(String AccountNo) {
         initComponents();
+        this.AccountNo = AccountNo;
+        TransactionTable.setModel(model);
+        TransactionTable.getColumnModel().getColumn(0).setPreferredWidth(3);
+        TransactionTable.getColumnModel().getColumn(3).setMinWidth(30);
+        TransactionTable.getColumnModel().getColumn(3).setPreferredWidth(30);
+        TransactionTableModel.install(TransactionTable);
+        // sorting and the type filter work on the loaded rows; Search... and Load older go back to the database
+        TransactionTable.getTableHeader().addMouseListener(new java.awt.event.MouseAdapter() {
+            @Override
+            public void mouseClicked(java.awt.event.MouseEvent e) {
+                int column = TransactionTable.columnAtPoint(e.getPoint());
+                if (column >= 0) {
+                    model.sortBy(TransactionTable.convertColumnIndexToModel(column));
+                }
+            }
+        });
+        javax.swing.JPopupMenu filter = new javax.swing.JPopupMenu();
+        filter.add("All transactions").addActionListener(e -> model.filterType(-1));
+        filter.add("Deposits only").addActionListener(e -> model.filterType(TransactionTableModel.typeCode("Deposit")));
+        filter.add("Withdrawals only").addActionListener(e -> model.filterType(TransactionTableModel.typeCode("Withdrawal")));
+        filter.addSeparator();
+        filter.add("Show transfer").addActionListener(e -> showTransfer());
+        older.addActionListener(e -> loadOlder());
+        filter.add(older);
+        filter.add("Search...").addActionListener(e -> askSearch());
+        filter.add("Clear search").addActionListener(e -> {
+            search = new TransactionSearch();
+            load();
+        });
+        TransactionTable.setComponentPopupMenu(filter);
+        load();
+    }
+
+    /**
+     * Runs the current search, again each time the form is reopened. The
+     * database returns the newest page of matches plus the count and totals
+     * of all of them, so a long history is never read in full; Load older
+     * appends the next page.
+     */
+    void load() {
+        try {
+            search.run(AccountNo, model);
+        } catch (Exception e) {
+            System.out.println(e);
+        }
+        showCounts();
+    }
+
+    private void loadOlder() {
         try {
-    Conn conn = new Conn();
-    String query = "CALL GetTransactionHistory("+AccountNo+");";
-    ResultSet rs = conn.s.executeQuery(query);
+            search.more(AccountNo, model);
+        } catch (Exception e) {
+            System.out.println(e);
+        }
+        showCounts();
+    }
 
-    DefaultTableModel model = (DefaultTableModel) TransactionTable.getModel();
-    model.setRowCount(0); // Clear the table
+    /** Says how many of the matches are loaded, as the table holds only those. */
+    private void showCounts() {
+        long matches = Math.max(search.matches(), search.loaded());
+        String shown = search.hasMore() ? String.format("newest %,d of %,d", search.loaded(), matches) : String.format("all %,d", matches);
+        jLabel1.setToolTipText(String.format("Showing %s transactions; deposits %s, withdrawals %s in all",
+                shown, search.deposits(), search.withdrawals()));
+        jLabel1.setText(search.isEmpty() ? "Transaction History" : search.hasMore()
+                ? String.format("Newest %,d of %,d matching", search.loaded(), matches)
+                : String.format("%,d matching transactions", matches));
+        older.setEnabled(search.hasMore());
+    }
 
-    int slno = 1;
-    while(rs.next()) {
-        String type = rs.getString("TransactionType");
-        String amount = rs.getString("Amount");
-        String date = rs.getString("TransactionDate");
+    /** Asks for the search filters; blank fields are left out of the search. */
+    private void askSearch() {
+        javax.swing.JTextField from = new javax.swing.JTextField(field(search.fromDay));
+        javax.swing.JTextField to = new javax.swing.JTextField(field(search.toDay));
+        javax.swing.JComboBox<String> type = new javax.swing.JComboBox<>(new String[] { "Any", "Deposit", "Withdrawal" });
+        type.setSelectedItem(search.type == null ? "Any" : search.type);
+        javax.swing.JTextField min = new javax.swing.JTextField(field(search.minAmount));
+        javax.swing.JTextField max = new javax.swing.JTextField(field(search.maxAmount));
+        javax.swing.JTextField counterparty = new javax.swing.JTextField(field(search.counterparty));
+        Object[] fields = {
+            "From date (yyyy-mm-dd)", from, "To date (yyyy-mm-dd)", to, "Type", type,
+            "Minimum amount", min, "Maximum amount", max, "Transfers with account", counterparty
+        };
+        if (javax.swing.JOptionPane.showConfirmDialog(this, fields, "Search transactions",
+                javax.swing.JOptionPane.OK_CANCEL_OPTION) != javax.swing.JOptionPane.OK_OPTION) {
+            return;
+        }
+        TransactionSearch next = new TransactionSearch();
+        try {
+            next.fromDay = from.getText().isBlank() ? null : java.time.LocalDate.parse(from.getText().strip());
+            next.toDay = to.getText().isBlank() ? null : java.time.LocalDate.parse(to.getText().strip());
+            next.type = "Any".equals(type.getSelectedItem()) ? null : (String) type.getSelectedItem();
+            next.minAmount = min.getText().isBlank() ? null : new java.math.BigDecimal(min.getText().strip());
+            next.maxAmount = max.getText().isBlank() ? null : new java.math.BigDecimal(max.getText().strip());
+            next.counterparty = counterparty.getText().isBlank() ? null : Integer.valueOf(counterparty.getText().strip());
+        } catch (RuntimeException e) {
+            javax.swing.JOptionPane.showMessageDialog(this, "Please enter dates as yyyy-mm-dd and plain amounts and account numbers.");
+            return;
+        }
+        search = next;
+        load();
+    }
 
-        Object[] row = { Integer.toString(slno++), type, amount, date };
-        model.addRow(row);
+    /** Shows the transfer the selected row is a leg of. */
+    private void showTransfer() {
+        int row = TransactionTable.getSelectedRow();
+        if (row < 0) {
+            return;
+        }
+        Transfers.Transfer transfer = null;
+        try {
+            Conn conn = ReadRouting.forRead(AccountNo);
+            try {
+                transfer = Transfers.ofTransaction(conn, model.transactionId(TransactionTable.convertRowIndexToModel(row)));
+            } finally {
+                conn.c.close();
+            }
+        } catch (Exception e) {
+            System.out.println(e);
+            return;
+        }
+        javax.swing.JOptionPane.showMessageDialog(this, transfer == null ? "This transaction is not a transfer."
+                : "Transfer " + transfer.id + ": " + transfer.amount + " from " + transfer.fromAccount + " to "
+                + transfer.toAccount + (transfer.toAmount.compareTo(transfer.amount) == 0 ? "" : ", received as " + transfer.toAmount)
+                + " (" + transfer.status + ", " + transfer.createdAt + ")");
     }
-} catch (Exception e) {
-    System.out.println(e);
-}
+
+    private static String field(Object value) {
+        return value == null ? "" : value.toString();
     }
 
     /**
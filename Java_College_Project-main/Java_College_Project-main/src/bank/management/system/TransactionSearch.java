@@ -0,0 +1,221 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+
+/**
+ * A filtered search over one account's transactions, run in the database:
+ * CountTransactions returns the number of matches and the deposit and
+ * withdrawal totals, SearchTransactions the newest matching rows up to a
+ * limit. Further pages continue below the last row loaded, keyed on
+ * TransactionDate and TransactionID, so each page is read straight off the
+ * index however far back it is. Filters left null match everything; the date range is from the
+ * start of the first day up to the end of the last. A counterparty limits
+ * the search to legs of transfers with that account, which are found
+ * through Transfers rather than by reading the whole history.
+ *
+ * Both go through the TransactionsByAccount index, and without an amount
+ * filter the totals of whole days come from DailyTotals, so neither the
+ * count nor the page grows with the size of the history.
+ */
+public class TransactionSearch {
+
+    /** Rows fetched per page; the count and totals always cover every match. */
+    public static final int PAGE = Integer.getInteger("bank.search.page", 500);
+
+    public LocalDate fromDay;
+    public LocalDate toDay;
+    public String type;
+    public BigDecimal minAmount;
+    public BigDecimal maxAmount;
+    /** The other account of transfers; only transfer legs with it match. */
+    public Integer counterparty;
+
+    private long matches;
+    private BigDecimal deposits = BigDecimal.ZERO;
+    private BigDecimal withdrawals = BigDecimal.ZERO;
+    private int loaded;
+    private boolean older;
+    /** The last row loaded, where the next page starts; null before the first page. */
+    private Timestamp lastDate;
+    private int lastId;
+
+    public long matches() {
+        return matches;
+    }
+
+    public BigDecimal deposits() {
+        return deposits;
+    }
+
+    public BigDecimal withdrawals() {
+        return withdrawals;
+    }
+
+    /** Rows loaded into the model so far. */
+    public int loaded() {
+        return loaded;
+    }
+
+    /** True while older matches may be left to load. */
+    public boolean hasMore() {
+        return older;
+    }
+
+    /** True when no filter is set and the search is the whole history. */
+    public boolean isEmpty() {
+        return fromDay == null && toDay == null && type == null && minAmount == null && maxAmount == null && counterparty == null;
+    }
+
+    /** Runs the search for an account, replacing the model's rows with the first page. */
+    public void run(String accountNo, TransactionTableModel model) throws SQLException {
+        long started = System.nanoTime();
+        model.clear();
+        loaded = 0;
+        older = false;
+        lastDate = null;
+        try (Bulkhead.Permit permit = Bulkhead.SCANS.enter()) {
+            Conn conn = ReadRouting.forRead(accountNo);
+            try {
+                try (CallableStatement cs = conn.c.prepareCall("{CALL CountTransactions(?, ?, ?, ?, ?, ?, ?)}")) {
+                    bind(cs, Integer.parseInt(accountNo));
+                    ResultSet rs = cs.executeQuery();
+                    if (rs.next()) {
+                        matches = rs.getLong("Matches");
+                        deposits = rs.getBigDecimal("Deposits");
+                        withdrawals = rs.getBigDecimal("Withdrawals");
+                    }
+                }
+                page(conn, Integer.parseInt(accountNo), model);
+            } finally {
+                conn.c.close();
+            }
+        } finally {
+            model.refresh();
+            (isEmpty() ? Metrics.HISTORY : Metrics.SEARCH).recordSince(started);
+        }
+    }
+
+    /** Appends the next page of older matches to the model, after run. */
+    public void more(String accountNo, TransactionTableModel model) throws SQLException {
+        if (!hasMore()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (Bulkhead.Permit permit = Bulkhead.SCANS.enter()) {
+            Conn conn = ReadRouting.forRead(accountNo);
+            try {
+                page(conn, Integer.parseInt(accountNo), model);
+            } finally {
+                conn.c.close();
+            }
+        } finally {
+            model.refresh();
+            Metrics.SEARCH.recordSince(started);
+        }
+    }
+
+    private void page(Conn conn, int accountNumber, TransactionTableModel model) throws SQLException {
+        try (CallableStatement cs = conn.c.prepareCall("{CALL SearchTransactions(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)}")) {
+            bind(cs, accountNumber);
+            if (lastDate != null) {
+                cs.setTimestamp(8, lastDate);
+                cs.setInt(9, lastId);
+            } else {
+                cs.setNull(8, Types.TIMESTAMP);
+                cs.setNull(9, Types.INTEGER);
+            }
+            cs.setInt(10, PAGE);
+            ResultSet rs = cs.executeQuery();
+            int rows = 0;
+            while (rs.next()) {
+                lastId = rs.getInt("TransactionID");
+                lastDate = rs.getTimestamp("TransactionDate");
+                model.add(lastId,
+                        TransactionTableModel.typeCode(rs.getString("TransactionType")),
+                        rs.getBigDecimal("Amount").movePointRight(2).longValueExact(),
+                        lastDate.getTime());
+                rows++;
+            }
+            loaded += rows;
+            // a short page is the oldest match; the count may be off by rows posted since
+            older = rows == PAGE;
+        }
+    }
+
+    private void bind(CallableStatement cs, int accountNumber) throws SQLException {
+        cs.setInt(1, accountNumber);
+        if (fromDay != null) {
+            cs.setTimestamp(2, Timestamp.valueOf(fromDay.atStartOfDay()));
+        } else {
+            cs.setNull(2, Types.TIMESTAMP);
+        }
+        if (toDay != null) {
+            cs.setTimestamp(3, Timestamp.valueOf(toDay.plusDays(1).atStartOfDay()));
+        } else {
+            cs.setNull(3, Types.TIMESTAMP);
+        }
+        if (type != null) {
+            cs.setString(4, type);
+        } else {
+            cs.setNull(4, Types.VARCHAR);
+        }
+        if (minAmount != null) {
+            cs.setBigDecimal(5, minAmount);
+        } else {
+            cs.setNull(5, Types.DECIMAL);
+        }
+        if (maxAmount != null) {
+            cs.setBigDecimal(6, maxAmount);
+        } else {
+            cs.setNull(6, Types.DECIMAL);
+        }
+        if (counterparty != null) {
+            cs.setInt(7, counterparty);
+        } else {
+            cs.setNull(7, Types.INTEGER);
+        }
+    }
+
+    /**
+     * Times searches against the configured database, for an account that
+     * already has a large history.
+     * Usage: TransactionSearch account [iterations]
+     */
+    public static void main(String[] args) throws SQLException {
+        String account = args[0];
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        TransactionTableModel model = new TransactionTableModel();
+        TransactionSearch[] searches = new TransactionSearch[4];
+        String[] names = { "everything", "last 30 days", "withdrawals this year", "amount 100-200" };
+        for (int i = 0; i < searches.length; i++) {
+            searches[i] = new TransactionSearch();
+        }
+        searches[1].fromDay = LocalDate.now().minusDays(30);
+        searches[2].fromDay = LocalDate.now().withDayOfYear(1);
+        searches[2].type = "Withdrawal";
+        searches[3].minAmount = new BigDecimal("100.00");
+        searches[3].maxAmount = new BigDecimal("200.00");
+        for (int i = 0; i < searches.length; i++) {
+            LatencyHistogram latency = new LatencyHistogram(names[i]);
+            for (int n = 0; n < iterations; n++) {
+                long started = System.nanoTime();
+                searches[i].run(account, model);
+                if (n >= iterations / 10) {
+                    latency.recordSince(started);
+                }
+            }
+            System.out.printf("%-22s %,9d matches  p50 %,7d us  p99 %,7d us%n", names[i],
+                    searches[i].matches(), latency.percentile(0.5), latency.percentile(0.99));
+        }
+    }
+}
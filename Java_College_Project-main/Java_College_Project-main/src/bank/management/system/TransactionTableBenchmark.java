@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * Loads a synthetic history into TransactionTableModel and into the
+ * DefaultTableModel of Strings it replaced, and compares retained heap,
+ * then times sorting, filtering and painting one screen of rows at random
+ * scroll positions. Runs headless.
+ * Usage: TransactionTableBenchmark [rows] [frames]
+ */
+public class TransactionTableBenchmark {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Random random = new Random(42);
+        long start = 1_700_000_000_000L;
+
+        long before = usedHeap();
+        DefaultTableModel strings = new DefaultTableModel(new String[] { "SLno.", "Type", "Amount", "Date" }, 0);
+        Random same = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            boolean deposit = same.nextBoolean();
+            long cents = 100 + same.nextInt(1_000_000);
+            long millis = start + i * 60_000L;
+            strings.addRow(new Object[] { Integer.toString(i + 1), deposit ? "Deposit" : "Withdrawal",
+                TransactionTableModel.formatCents(cents), new java.sql.Timestamp(millis).toString() });
+        }
+        long stringBytes = usedHeap() - before;
+        strings = null;
+
+        before = usedHeap();
+        long loadStarted = System.nanoTime();
+        TransactionTableModel model = new TransactionTableModel();
+        byte depositCode = TransactionTableModel.typeCode("Deposit");
+        byte withdrawalCode = TransactionTableModel.typeCode("Withdrawal");
+        for (int i = 0; i < rows; i++) {
+            boolean deposit = random.nextBoolean();
+            model.add(i + 1, deposit ? depositCode : withdrawalCode, 100 + random.nextInt(1_000_000), start + i * 60_000L);
+        }
+        model.refresh();
+        long loadNanos = System.nanoTime() - loadStarted;
+        long primitiveBytes = usedHeap() - before;
+
+        System.out.printf("%,d rows: DefaultTableModel %,d MB, TransactionTableModel %,d MB (load %.0f ms)%n",
+                rows, stringBytes >> 20, primitiveBytes >> 20, loadNanos / 1e6);
+
+        for (int column : new int[] { TransactionTableModel.AMOUNT, TransactionTableModel.AMOUNT, TransactionTableModel.DATE, TransactionTableModel.TYPE }) {
+            long t = System.nanoTime();
+            model.sortBy(column);
+            System.out.printf("sort by %s %s: %.0f ms%n", model.getColumnName(column),
+                    model.ascending() ? "ascending" : "descending", (System.nanoTime() - t) / 1e6);
+        }
+        long t = System.nanoTime();
+        model.filterType(withdrawalCode);
+        System.out.printf("filter to withdrawals (%,d rows): %.0f ms%n", model.getRowCount(), (System.nanoTime() - t) / 1e6);
+        model.filterType(-1);
+
+        JTable table = new JTable(model);
+        TransactionTableModel.install(table);
+        int visible = 18;
+        int rowHeight = table.getRowHeight();
+        table.setSize(626, rowHeight * model.getRowCount());
+        BufferedImage screen = new BufferedImage(626, rowHeight * visible, BufferedImage.TYPE_INT_RGB);
+        LatencyHistogram paint = new LatencyHistogram("paint");
+        for (int f = 0; f < frames; f++) {
+            int top = random.nextInt(model.getRowCount() - visible);
+            long frameStarted = System.nanoTime();
+            Graphics2D g = screen.createGraphics();
+            g.translate(0, -top * rowHeight);
+            g.setClip(0, top * rowHeight, 626, rowHeight * visible);
+            table.paint(g);
+            g.dispose();
+            if (f >= frames / 10) {
+                paint.recordSince(frameStarted);
+            }
+        }
+        System.out.printf("paint %d rows at a random scroll position: p50 %d us, p99 %d us, max %d us%n",
+                visible, paint.percentile(0.5), paint.percentile(0.99), paint.maxMicros());
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.awt.Component;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * Transaction history held in primitive column arrays: TransactionID,
+ * amount in cents, time in epoch millis and a one-byte type code, about
+ * 21 bytes a row instead of four Strings in an Object[].
+ *
+ * Cells are the raw numbers and are only turned into text by the
+ * renderers, for the rows actually painted. Sorting and the type filter
+ * work on a permutation of row indexes over those arrays, so neither
+ * reloads nor copies the data. Column 0 is the position in the current
+ * view.
+ */
+public class TransactionTableModel extends AbstractTableModel {
+
+    public static final int NUMBER = 0;
+    public static final int TYPE = 1;
+    public static final int AMOUNT = 2;
+    public static final int DATE = 3;
+
+    private static final String[] COLUMNS = { "SLno.", "Type", "Amount", "Date" };
+    private static final DateTimeFormatter DATES = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /** Type names by code; codes are handed out in order of first appearance. */
+    private static final List<String> TYPES = new ArrayList<>(List.of("Deposit", "Withdrawal"));
+
+    private int[] ids = new int[256];
+    private byte[] types = new byte[256];
+    private long[] cents = new long[256];
+    private long[] millis = new long[256];
+    private int size;
+
+    /** Model rows in display order; only the first viewSize are shown. */
+    private int[] view = new int[0];
+    private int viewSize;
+
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private int typeFilter = -1;
+
+    public static synchronized byte typeCode(String type) {
+        int code = TYPES.indexOf(type);
+        if (code < 0) {
+            TYPES.add(type);
+            code = TYPES.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    public static synchronized String typeName(int code) {
+        return TYPES.get(code);
+    }
+
+    /** Appends a row. Call refresh() once after a batch of adds. */
+    public void add(int id, byte type, long amountCents, long epochMillis) {
+        if (size == ids.length) {
+            int capacity = size + (size >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            types = Arrays.copyOf(types, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            millis = Arrays.copyOf(millis, capacity);
+        }
+        ids[size] = id;
+        types[size] = type;
+        cents[size] = amountCents;
+        millis[size] = epochMillis;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+        refresh();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Rebuilds the view with the current filter and sort. */
+    public void refresh() {
+        if (view.length < size) {
+            view = new int[size];
+        }
+        viewSize = 0;
+        for (int row = 0; row < size; row++) {
+            if (typeFilter < 0 || types[row] == typeFilter) {
+                view[viewSize++] = row;
+            }
+        }
+        if (sortColumn >= 0) {
+            sortView();
+        }
+        fireTableDataChanged();
+    }
+
+    /** Sorts by a column, reversing the order when it is already sorted by it. */
+    public void sortBy(int column) {
+        ascending = column != sortColumn || !ascending;
+        sortColumn = column;
+        refresh();
+    }
+
+    /** Shows only one type code, or every row for -1. */
+    public void filterType(int code) {
+        typeFilter = code;
+        refresh();
+    }
+
+    public int sortColumn() {
+        return sortColumn;
+    }
+
+    public boolean ascending() {
+        return ascending;
+    }
+
+    private long key(int row) {
+        switch (sortColumn) {
+            case TYPE:
+                return types[row];
+            case AMOUNT:
+                return cents[row];
+            case DATE:
+                return millis[row];
+            default:
+                return ids[row];
+        }
+    }
+
+    /**
+     * Stable merge sort of the view by the sort column's key. Keys are
+     * copied next to their rows and moved with them, so merging reads both
+     * arrays in order instead of jumping around the columns.
+     */
+    private void sortView() {
+        int[] from = Arrays.copyOf(view, viewSize);
+        long[] fromKeys = new long[viewSize];
+        for (int i = 0; i < viewSize; i++) {
+            fromKeys[i] = ascending ? key(from[i]) : -key(from[i]);
+        }
+        int[] to = new int[viewSize];
+        long[] toKeys = new long[viewSize];
+        for (int width = 1; width < viewSize; width <<= 1) {
+            for (int lo = 0; lo < viewSize; lo += width << 1) {
+                int mid = Math.min(lo + width, viewSize);
+                int hi = Math.min(lo + (width << 1), viewSize);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    if (fromKeys[j] < fromKeys[i]) {
+                        toKeys[k] = fromKeys[j];
+                        to[k++] = from[j++];
+                    } else {
+                        toKeys[k] = fromKeys[i];
+                        to[k++] = from[i++];
+                    }
+                }
+                System.arraycopy(from, i, to, k, mid - i);
+                System.arraycopy(fromKeys, i, toKeys, k, mid - i);
+                k += mid - i;
+                System.arraycopy(from, j, to, k, hi - j);
+                System.arraycopy(fromKeys, j, toKeys, k, hi - j);
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+            long[] swapKeys = fromKeys;
+            fromKeys = toKeys;
+            toKeys = swapKeys;
+        }
+        System.arraycopy(from, 0, view, 0, viewSize);
+    }
+
+    public int transactionId(int viewRow) {
+        return ids[view[viewRow]];
+    }
+
+    @Override
+    public int getRowCount() {
+        return viewSize;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return column == NUMBER || column == TYPE ? Integer.class : Long.class;
+    }
+
+    @Override
+    public Object getValueAt(int viewRow, int column) {
+        int row = view[viewRow];
+        switch (column) {
+            case NUMBER:
+                return viewRow + 1;
+            case TYPE:
+                return (int) types[row];
+            case AMOUNT:
+                return cents[row];
+            default:
+                return millis[row];
+        }
+    }
+
+    /** Puts the formatting renderers on a table showing this model. */
+    public static void install(JTable table) {
+        table.getColumnModel().getColumn(TYPE).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(typeName((Integer) value));
+            }
+        });
+        table.getColumnModel().getColumn(AMOUNT).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable t, Object value, boolean selected, boolean focus, int row, int column) {
+                super.getTableCellRendererComponent(t, value, selected, focus, row, column);
+                setHorizontalAlignment(SwingConstants.RIGHT);
+                return this;
+            }
+
+            @Override
+            protected void setValue(Object value) {
+                setText(formatCents((Long) value));
+            }
+        });
+        table.getColumnModel().getColumn(DATE).setCellRenderer(new DefaultTableCellRenderer() {
+            @Override
+            protected void setValue(Object value) {
+                setText(DATES.format(Instant.ofEpochMilli((Long) value)));
+            }
+        });
+    }
+
+    static String formatCents(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.BufferedReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Posts large sets of transfers, such as a payroll run, without going
+ * through SendFunds one transfer at a time.
+ *
+ * Transfers are taken in chunks, each chunk being one database
+ * transaction. The accounts a chunk touches are locked once in account
+ * order, then the AccountSlots rows of any hot ones, destinations are
+ * checked to exist and every source is checked once against the sum of its
+ * debits in the chunk. A transfer whose amount does not fit the Amount
+ * column is rejected on its own, like any other invalid transfer. The surviving transfers are
+ * written as a Transfers row and a Withdrawal and a Deposit leg each, like
+ * SendFunds, in two multi-row inserts with the balance trigger switched off
+ * by @BulkPosting;
+ * the netted change per account is then applied in a single UPDATE.
+ * A transfer between accounts in different currencies credits the amount
+ * converted at the FxRates table current when its chunk started.
+ */
+public class TransferBatch {
+
+    public static class Transfer {
+
+        public final int fromAccount;
+        public final int toAccount;
+        public final BigDecimal amount;
+        /** The amount credited, in the destination account's currency. */
+        public BigDecimal toAmount;
+        /** Null once posted, otherwise why the transfer was rejected. */
+        public String error;
+        public long transferId;
+        public long withdrawalId;
+        public long depositId;
+
+        public Transfer(int fromAccount, int toAccount, BigDecimal amount) {
+            this.fromAccount = fromAccount;
+            this.toAccount = toAccount;
+            this.amount = amount;
+        }
+    }
+
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+
+    private final int chunkSize;
+
+    public TransferBatch(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Posts every transfer, filling in its error or its TransactionIDs.
+     * Returns the number posted.
+     */
+    public int post(Conn conn, List<Transfer> transfers) throws SQLException {
+        int posted = 0;
+        for (int from = 0; from < transfers.size(); from += chunkSize) {
+            posted += postChunk(conn, transfers.subList(from, Math.min(transfers.size(), from + chunkSize)));
+        }
+        return posted;
+    }
+
+    private int postChunk(Conn conn, List<Transfer> chunk) throws SQLException {
+        List<Transfer> accepted = new ArrayList<>(chunk.size());
+        conn.c.setAutoCommit(false);
+        try {
+            Map<Integer, Integer> currencies = new HashMap<>();
+            Map<Integer, Long> balances = lockAccounts(conn, chunk, currencies);
+            FxRates rates = FxRates.current();
+            for (Transfer t : chunk) {
+                t.error = null;
+            }
+            screen(conn, chunk);
+
+            Map<Integer, Long> debits = new HashMap<>();
+            for (Transfer t : chunk) {
+                if (t.error != null) {
+                    continue;
+                }
+                if (t.amount.signum() <= 0) {
+                    t.error = "Amount must be positive.";
+                } else if (t.amount.stripTrailingZeros().scale() > 2) {
+                    t.error = "Amount can have at most two decimal places.";
+                } else if (t.amount.compareTo(MAX_AMOUNT) > 0) {
+                    t.error = "Amount is too large.";
+                } else if (!balances.containsKey(t.fromAccount)) {
+                    t.error = "Source account does not exist.";
+                } else if (!balances.containsKey(t.toAccount)) {
+                    t.error = "Destination account does not exist.";
+                } else {
+                    int from = currencies.get(t.fromAccount);
+                    int to = currencies.get(t.toAccount);
+                    long toCents = rates.convert(cents(t.amount), from, to);
+                    if (toCents < 0) {
+                        t.error = "No exchange rate from " + FxRates.code(from) + " to " + FxRates.code(to) + ".";
+                    } else if (toCents == 0) {
+                        t.error = "Amount is too small to convert to " + FxRates.code(to) + ".";
+                    } else {
+                        t.toAmount = from == to ? t.amount : BigDecimal.valueOf(toCents, 2);
+                        debits.merge(t.fromAccount, cents(t.amount), Long::sum);
+                    }
+                }
+            }
+            for (Transfer t : chunk) {
+                if (t.error == null) {
+                    if (debits.get(t.fromAccount) > balances.get(t.fromAccount)) {
+                        t.error = "Insufficient funds in source account.";
+                    } else {
+                        accepted.add(t);
+                    }
+                }
+            }
+            if (accepted.isEmpty()) {
+                settled(conn, chunk);
+                conn.c.commit();
+                return 0;
+            }
+
+            Map<Integer, Long> net = new TreeMap<>();
+            for (Transfer t : accepted) {
+                net.merge(t.fromAccount, -cents(t.amount), Long::sum);
+                net.merge(t.toAccount, cents(t.toAmount), Long::sum);
+            }
+            conn.s.execute("SET @BulkPosting = 1;");
+            try {
+                insertTransfers(conn, accepted);
+                insertLegs(conn, accepted, currencies);
+                applyNet(conn, net);
+            } finally {
+                conn.s.execute("SET @BulkPosting = NULL;");
+            }
+            settled(conn, chunk);
+            conn.c.commit();
+        } catch (SQLException | RuntimeException e) {
+            conn.c.rollback();
+            throw e;
+        } finally {
+            conn.c.setAutoCommit(true);
+        }
+        for (Transfer t : accepted) {
+            Postings.posted(t.withdrawalId, t.fromAccount, "Withdrawal", t.amount);
+            Postings.posted(t.depositId, t.toAccount, "Deposit", t.toAmount);
+        }
+        return accepted.size();
+    }
+
+    /**
+     * Called inside the chunk's transaction once its accounts are locked,
+     * to reject transfers by setting their error before the balance checks.
+     */
+    protected void screen(Conn conn, List<Transfer> chunk) throws SQLException {
+    }
+
+    /**
+     * Called inside the chunk's transaction just before it commits, with
+     * every transfer of the chunk either posted or carrying its error.
+     */
+    protected void settled(Conn conn, List<Transfer> chunk) throws SQLException {
+    }
+
+    /**
+     * Locks every account in the chunk, lowest number first, and reads its
+     * balance in cents and its currency. The slots of hot accounts are
+     * locked after their base rows, in the order StripedAccounts takes
+     * them, and added to the balance as the AccountBalances view does.
+     */
+    private Map<Integer, Long> lockAccounts(Conn conn, List<Transfer> chunk, Map<Integer, Integer> currencies) throws SQLException {
+        TreeSet<Integer> accounts = new TreeSet<>();
+        for (Transfer t : chunk) {
+            accounts.add(t.fromAccount);
+            accounts.add(t.toAccount);
+        }
+        StringBuilder sql = new StringBuilder("SELECT AccountNumber, Balance, Currency FROM Accounts WHERE AccountNumber IN (");
+        for (int i = 0; i < accounts.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY AccountNumber FOR UPDATE");
+        Map<Integer, Long> found = new HashMap<>();
+        try (PreparedStatement ps = conn.c.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (int account : accounts) {
+                ps.setInt(i++, account);
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                found.put(rs.getInt(1), cents(rs.getBigDecimal(2)));
+                currencies.put(rs.getInt(1), FxRates.id(rs.getString(3)));
+            }
+        }
+        sql.setLength(0);
+        sql.append("SELECT AccountNumber, Balance FROM AccountSlots WHERE AccountNumber IN (");
+        for (int i = 0; i < accounts.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") ORDER BY AccountNumber, Slot FOR UPDATE");
+        try (PreparedStatement ps = conn.c.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (int account : accounts) {
+                ps.setInt(i++, account);
+            }
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                found.merge(rs.getInt(1), cents(rs.getBigDecimal(2)), Long::sum);
+            }
+        }
+        return found;
+    }
+
+    private void insertTransfers(Conn conn, List<Transfer> accepted) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO Transfers (FromAccount, ToAccount, Amount, ToAmount) VALUES ");
+        for (int i = 0; i < accepted.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int i = 1;
+            for (Transfer t : accepted) {
+                ps.setInt(i++, t.fromAccount);
+                ps.setInt(i++, t.toAccount);
+                ps.setBigDecimal(i++, t.amount);
+                ps.setBigDecimal(i++, t.toAmount);
+            }
+            ps.executeUpdate();
+            ResultSet keys = ps.getGeneratedKeys();
+            for (Transfer t : accepted) {
+                t.transferId = keys.next() ? keys.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void insertLegs(Conn conn, List<Transfer> accepted, Map<Integer, Integer> currencies) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO Transactions (AccountNumber, TransactionType, Amount, TransferID, Currency) VALUES ");
+        for (int i = 0; i < accepted.size(); i++) {
+            sql.append(i == 0 ? "(?, 'Withdrawal', ?, ?, ?), (?, 'Deposit', ?, ?, ?)" : ", (?, 'Withdrawal', ?, ?, ?), (?, 'Deposit', ?, ?, ?)");
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            int i = 1;
+            for (Transfer t : accepted) {
+                ps.setInt(i++, t.fromAccount);
+                ps.setBigDecimal(i++, t.amount);
+                ps.setLong(i++, t.transferId);
+                ps.setString(i++, FxRates.code(currencies.get(t.fromAccount)));
+                ps.setInt(i++, t.toAccount);
+                ps.setBigDecimal(i++, t.toAmount);
+                ps.setLong(i++, t.transferId);
+                ps.setString(i++, FxRates.code(currencies.get(t.toAccount)));
+            }
+            ps.executeUpdate();
+            ResultSet keys = ps.getGeneratedKeys();
+            for (Transfer t : accepted) {
+                t.withdrawalId = keys.next() ? keys.getLong(1) : 0;
+                t.depositId = keys.next() ? keys.getLong(1) : 0;
+            }
+        }
+    }
+
+    private void applyNet(Conn conn, Map<Integer, Long> net) throws SQLException {
+        if (Conn.EMBEDDED) {
+            // H2 has no multi-table UPDATE, so the embedded profile updates row by row
+            try (PreparedStatement ps = conn.c.prepareStatement(
+                    "UPDATE Accounts SET Balance = Balance + ?, Version = Version + 1 WHERE AccountNumber = ?")) {
+                for (Map.Entry<Integer, Long> e : net.entrySet()) {
+                    ps.setBigDecimal(1, BigDecimal.valueOf(e.getValue(), 2));
+                    ps.setInt(2, e.getKey());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            return;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE Accounts JOIN (");
+        for (int i = 0; i < net.size(); i++) {
+            sql.append(i == 0 ? "SELECT ? AS AccountNumber, ? AS Delta" : " UNION ALL SELECT ?, ?");
+        }
+        sql.append(") AS Net USING (AccountNumber) SET Balance = Balance + Net.Delta, Version = Version + 1");
+        try (PreparedStatement ps = conn.c.prepareStatement(sql.toString())) {
+            int i = 1;
+            for (Map.Entry<Integer, Long> e : net.entrySet()) {
+                ps.setInt(i++, e.getKey());
+                ps.setBigDecimal(i++, BigDecimal.valueOf(e.getValue(), 2));
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    /**
+     * Posts a file of transfers, one "from,to,amount" per line.
+     * Usage: TransferBatch file [chunkSize]
+     */
+    public static void main(String[] args) throws Exception {
+        List<Transfer> transfers = new ArrayList<>();
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] f = line.strip().split(",");
+                if (f.length == 3) {
+                    transfers.add(new Transfer(Integer.parseInt(f[0].strip()), Integer.parseInt(f[1].strip()), new BigDecimal(f[2].strip())));
+                }
+            }
+        }
+        long start = System.nanoTime();
+        int posted = new TransferBatch(args.length > 1 ? Integer.parseInt(args[1]) : 1000).post(new Conn(), transfers);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(posted + " of " + transfers.size() + " transfers posted in " + millis + " ms");
+        for (int i = 0; i < transfers.size(); i++) {
+            if (transfers.get(i).error != null) {
+                System.out.println("line " + (i + 1) + ": " + transfers.get(i).error);
+            }
+        }
+    }
+}
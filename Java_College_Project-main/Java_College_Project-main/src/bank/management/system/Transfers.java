@@ -0,0 +1,95 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads back transfers. Each transfer is one Transfers row; both of its
+ * legs in Transactions carry its TransferID. Transfers are posted with
+ * Postings.transfer or TransferBatch.
+ */
+public class Transfers {
+
+    public static class Transfer {
+
+        public final long id;
+        public final int fromAccount;
+        public final int toAccount;
+        public final BigDecimal amount;
+        /** The amount in the destination account's currency. */
+        public final BigDecimal toAmount;
+        public final String status;
+        public final Timestamp createdAt;
+
+        Transfer(ResultSet rs) throws SQLException {
+            id = rs.getLong("TransferID");
+            fromAccount = rs.getInt("FromAccount");
+            toAccount = rs.getInt("ToAccount");
+            amount = rs.getBigDecimal("Amount");
+            toAmount = rs.getBigDecimal("ToAmount");
+            status = rs.getString("Status");
+            createdAt = rs.getTimestamp("CreatedAt");
+        }
+
+        @Override
+        public String toString() {
+            return id + " " + fromAccount + " -> " + toAccount + " " + amount
+                    + (toAmount.compareTo(amount) == 0 ? "" : " (" + toAmount + ")") + " " + status + " " + createdAt;
+        }
+    }
+
+    /**
+     * The newest transfers between two accounts, in either direction. This
+     * reads two ranges of the TransfersBetween index and never scans
+     * Transactions.
+     */
+    public static List<Transfer> between(Conn conn, int accountA, int accountB, int limit) throws SQLException {
+        try (Bulkhead.Permit permit = Bulkhead.READS.enter();
+                CallableStatement cs = conn.c.prepareCall("{CALL TransfersBetween(?, ?, ?)}")) {
+            cs.setInt(1, accountA);
+            cs.setInt(2, accountB);
+            cs.setInt(3, limit);
+            ResultSet rs = cs.executeQuery();
+            List<Transfer> transfers = new ArrayList<>();
+            while (rs.next()) {
+                transfers.add(new Transfer(rs));
+            }
+            return transfers;
+        }
+    }
+
+    /** The transfer a transaction is a leg of, or null for a plain deposit or withdrawal. */
+    public static Transfer ofTransaction(Conn conn, long transactionId) throws SQLException {
+        try (Bulkhead.Permit permit = Bulkhead.READS.enter();
+                PreparedStatement ps = conn.c.prepareStatement(
+                        "SELECT Transfers.* FROM Transactions JOIN Transfers ON Transfers.TransferID = Transactions.TransferID"
+                        + " WHERE Transactions.TransactionID = ?")) {
+            ps.setLong(1, transactionId);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? new Transfer(rs) : null;
+        }
+    }
+
+    /**
+     * Prints the transfers between two accounts.
+     * Usage: Transfers accountA accountB [limit]
+     */
+    public static void main(String[] args) throws SQLException {
+        Conn conn = new Conn();
+        for (Transfer t : between(conn, Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+                args.length > 2 ? Integer.parseInt(args[2]) : 100)) {
+            System.out.println(t);
+        }
+        conn.c.close();
+    }
+}
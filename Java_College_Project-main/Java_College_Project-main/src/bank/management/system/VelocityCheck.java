@@ -0,0 +1,170 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-account velocity limits on money leaving an account.
+ *
+ * Each account keeps three sliding windows (1 minute in 1 second buckets,
+ * 1 hour in 1 minute buckets, 24 hours in 15 minute buckets). A bucket
+ * remembers which time slice it belongs to, so stale buckets are simply
+ * ignored and overwritten instead of being cleared by a timer. Limits are
+ * read from system properties such as bank.velocity.1m.count and
+ * bank.velocity.24h.sum (in cents); a limit of 0 disables that rule.
+ *
+ * An account's windows are dropped once its last debit has left the 24
+ * hour window, by a sweep that admit runs at most every 15 minutes, so
+ * memory follows the accounts active in the last day.
+ */
+public class VelocityCheck {
+
+    static final String[] NAMES = { "1m", "1h", "24h" };
+    private static final long[] BUCKET_MILLIS = { 1000L, 60_000L, 900_000L };
+    private static final int[] BUCKETS = { 60, 60, 96 };
+    private static final long[] DEFAULT_COUNT = { 5, 20, 50 };
+    private static final long[] DEFAULT_SUM = { 500_000L, 2_000_000L, 5_000_000L };
+    private static final long SPAN_MILLIS = BUCKETS[2] * BUCKET_MILLIS[2];
+    private static final long SWEEP_MILLIS = 900_000L;
+
+    private static VelocityCheck shared;
+
+    private final long[] maxCount = new long[NAMES.length];
+    private final long[] maxSum = new long[NAMES.length];
+    private final ConcurrentHashMap<Integer, Windows> accounts = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.currentTimeMillis());
+
+    public VelocityCheck(long[] maxCount, long[] maxSum) {
+        System.arraycopy(maxCount, 0, this.maxCount, 0, NAMES.length);
+        System.arraycopy(maxSum, 0, this.maxSum, 0, NAMES.length);
+    }
+
+    public static synchronized VelocityCheck shared() {
+        if (shared == null) {
+            long[] count = new long[NAMES.length];
+            long[] sum = new long[NAMES.length];
+            for (int w = 0; w < NAMES.length; w++) {
+                count[w] = Long.getLong("bank.velocity." + NAMES[w] + ".count", DEFAULT_COUNT[w]);
+                sum[w] = Long.getLong("bank.velocity." + NAMES[w] + ".sum", DEFAULT_SUM[w]);
+            }
+            shared = new VelocityCheck(count, sum);
+        }
+        return shared;
+    }
+
+    /**
+     * Checks every rule and, if none is broken, counts the debit straight
+     * away so two concurrent withdrawals cannot both slip under a limit.
+     * Returns null when admitted or a description of the broken rule.
+     */
+    public String admit(int accountNumber, long cents, long nowMillis) {
+        long swept = lastSweep.get();
+        if (nowMillis - swept >= SWEEP_MILLIS && lastSweep.compareAndSet(swept, nowMillis)) {
+            sweep(nowMillis);
+        }
+        while (true) {
+            Windows windows = accounts.computeIfAbsent(accountNumber, k -> new Windows());
+            synchronized (windows) {
+                if (windows.removed) {
+                    // the sweep dropped it after we looked it up
+                    continue;
+                }
+                return admit(windows, cents, nowMillis);
+            }
+        }
+    }
+
+    private String admit(Windows windows, long cents, long nowMillis) {
+        for (int w = 0; w < NAMES.length; w++) {
+            long slice = nowMillis / BUCKET_MILLIS[w];
+            long count = 0;
+            long sum = 0;
+            for (int b = 0; b < BUCKETS[w]; b++) {
+                if (slice - windows.slice[w][b] < BUCKETS[w]) {
+                    count += windows.count[w][b];
+                    sum += windows.sum[w][b];
+                }
+            }
+            if (maxCount[w] > 0 && count + 1 > maxCount[w]) {
+                return "More than " + maxCount[w] + " withdrawals in " + NAMES[w] + ".";
+            }
+            if (maxSum[w] > 0 && sum + cents > maxSum[w]) {
+                return "Withdrawals over " + BigDecimal.valueOf(maxSum[w], 2) + " in " + NAMES[w] + ".";
+            }
+        }
+        windows.add(nowMillis, 1, cents);
+        return null;
+    }
+
+    /** Drops the windows of accounts with no debit in the last 24 hours. */
+    private void sweep(long nowMillis) {
+        accounts.values().removeIf(windows -> {
+            synchronized (windows) {
+                if (nowMillis - windows.lastMillis >= SPAN_MILLIS) {
+                    windows.removed = true;
+                }
+                return windows.removed;
+            }
+        });
+    }
+
+    /** Accounts with windows held in memory. */
+    public int tracked() {
+        return accounts.size();
+    }
+
+    /** Takes back an admitted debit whose posting then failed. */
+    public void reverse(int accountNumber, long cents, long admittedAtMillis) {
+        Windows windows = accounts.get(accountNumber);
+        if (windows != null) {
+            synchronized (windows) {
+                windows.add(admittedAtMillis, -1, -cents);
+            }
+        }
+    }
+
+    private static class Windows {
+
+        final long[][] slice = new long[NAMES.length][];
+        final long[][] count = new long[NAMES.length][];
+        final long[][] sum = new long[NAMES.length][];
+        long lastMillis = Long.MIN_VALUE / 2;
+        boolean removed;
+
+        Windows() {
+            for (int w = 0; w < NAMES.length; w++) {
+                slice[w] = new long[BUCKETS[w]];
+                count[w] = new long[BUCKETS[w]];
+                sum[w] = new long[BUCKETS[w]];
+                Arrays.fill(slice[w], Long.MIN_VALUE / 2);
+            }
+        }
+
+        void add(long nowMillis, long n, long cents) {
+            if (n > 0) {
+                lastMillis = Math.max(lastMillis, nowMillis);
+            }
+            for (int w = 0; w < NAMES.length; w++) {
+                long s = nowMillis / BUCKET_MILLIS[w];
+                int b = (int) (s % BUCKETS[w]);
+                if (slice[w][b] != s) {
+                    if (n < 0) {
+                        // the bucket has already rolled out of the window
+                        continue;
+                    }
+                    slice[w][b] = s;
+                    count[w][b] = 0;
+                    sum[w][b] = 0;
+                }
+                count[w][b] += n;
+                sum[w][b] += cents;
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Main.java to edit this template
+ */
+package bank.management.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the cost of VelocityCheck.admit at peak withdrawal rates.
+ * Usage: VelocityCheckBenchmark [threads] [accounts] [seconds]
+ */
+public class VelocityCheckBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int accounts = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        // high limits so every call walks all three windows and is admitted
+        VelocityCheck check = new VelocityCheck(new long[] { 1_000_000, 1_000_000, 1_000_000 },
+                new long[] { Long.MAX_VALUE / 4, Long.MAX_VALUE / 4, Long.MAX_VALUE / 4 });
+        AtomicLong calls = new AtomicLong();
+        AtomicLong nanos = new AtomicLong();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            workers[t] = new Thread(() -> {
+                long n = 0;
+                long spent = 0;
+                int account = BalanceReplica.FIRST_ACCOUNT + seed;
+                while (System.nanoTime() < end) {
+                    account = BalanceReplica.FIRST_ACCOUNT + (int) ((account * 1103515245L + 12345) & 0x7fffffff) % accounts;
+                    long start = System.nanoTime();
+                    check.admit(account, 2000, System.currentTimeMillis());
+                    spent += System.nanoTime() - start;
+                    n++;
+                }
+                calls.addAndGet(n);
+                nanos.addAndGet(spent);
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        System.out.println(threads + " threads, " + accounts + " accounts: "
+                + calls.get() / seconds + " checks/s, " + nanos.get() / Math.max(1, calls.get()) + " ns/check");
+    }
+}
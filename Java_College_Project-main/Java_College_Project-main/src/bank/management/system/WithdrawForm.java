@@ -18,11 +18,19 @@ public class WithdrawForm extends javax.swing.JFrame {
      * Creates new form WithdrawForm
      */
     private String AccountNo;
+    // reused if the same request is retried, so it is only posted once
+    private String requestKey = java.util.UUID.randomUUID().toString();
     public WithdrawForm(String AccountNo) {
         initComponents();
         this.AccountNo = AccountNo;
     }
 
+    /** Clears the amount before the form is shown again. */
+    void reset() {
+        requestKey = java.util.UUID.randomUUID().toString();
+        tamount.setText("");
+    }
+
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -75,7 +83,7 @@ public class WithdrawForm extends javax.swing.JFrame {
             }
         });
 
-        jLabel2.setIcon(new javax.swing.ImageIcon(getClass().getResource("/withdraw.jpg"))); // NOI18N
+        jLabel2.setIcon(Images.get("/withdraw.jpg")); // NOI18N
         jLabel2.setText("jLabel2");
 
         javax.swing.GroupLayout jPanel1Layout = new javax.swing.GroupLayout(jPanel1);
@@ -132,27 +140,35 @@ public class WithdrawForm extends javax.swing.JFrame {
     private void bdepositActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_bdepositActionPerformed
         // TODO add your handling code here:
         try {
-            Conn conn = new Conn();
             String amount = tamount.getText().strip();
-            if (amount.equals("") || !amount.matches("^[0-9]*$")) {
+            if (!amount.matches("^[0-9]+(\\.[0-9]{1,2})?$")) {
                 JOptionPane.showMessageDialog(this, "Please enter a valid positive amount.", "Error", JOptionPane.ERROR_MESSAGE);
             } else {
-                double withdrawAmount = Double.parseDouble(amount);
-                ResultSet rs = conn.s.executeQuery("Select Balance from Accounts where AccountNumber = "+AccountNo+";");
-                if(rs.next()) {
-                    double balance = rs.getDouble("Balance");
-                    if(withdrawAmount > balance) {
-                        JOptionPane.showMessageDialog(this, "Insufficient balance.", "Error", JOptionPane.ERROR_MESSAGE);
-                    } else {
-                        String query = "Call Withdraw("+AccountNo+","+amount+");";
-                        conn.s.executeUpdate(query);
-                        JOptionPane.showMessageDialog(this, "Amount of " + withdrawAmount + " has been withdrawn.");
-                        this.setVisible(false);
+                Conn conn = new Conn();
+                String currency = null;
+                boolean withdrawn = false;
+                try {
+                    ResultSet rs = conn.s.executeQuery("Select Currency from AccountBalances where AccountNumber = "+AccountNo+";");
+                    if(rs.next()) {
+                        currency = rs.getString("Currency");
+                        // no balance check here: a retry of a withdrawal that went through must reach the replay
+                        Postings.withdraw(conn, AccountNo, new java.math.BigDecimal(amount), requestKey);
+                        withdrawn = true;
                     }
-                } else {
+                } finally {
+                    conn.c.close();
+                }
+                if (!withdrawn) {
                     JOptionPane.showMessageDialog(this, "Account not found.", "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    requestKey = java.util.UUID.randomUUID().toString();
+                    JOptionPane.showMessageDialog(this, "Amount of " + amount + " " + currency + " has been withdrawn.");
+                    this.setVisible(false);
                 }
             }
+        } catch (java.sql.SQLException | IllegalStateException e) {
+            System.out.println(e);
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
         } catch (Exception e) {
             System.out.println(e);
         }
@@ -0,0 +1,188 @@
+-- Schema for the embedded profile (see EmbeddedDatabase), kept in step with bank.sql.
+-- H2 in MySQL mode; every statement ends its line with a semicolon.
+
+CREATE TABLE Users (
+    UserID INT AUTO_INCREMENT PRIMARY KEY,
+    FirstName VARCHAR(50),
+    LastName VARCHAR(50),
+    Email VARCHAR(100) UNIQUE,
+    Password VARCHAR(255)
+);
+
+CREATE TABLE Accounts (
+    AccountNumber INT AUTO_INCREMENT PRIMARY KEY,
+    UserID INT,
+    Balance DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    Version BIGINT NOT NULL DEFAULT 0,
+    InterestCarry INT NOT NULL DEFAULT 0,
+    Currency CHAR(3) NOT NULL DEFAULT 'INR',
+    FOREIGN KEY (UserID) REFERENCES Users(UserID)
+);
+
+ALTER TABLE Accounts ALTER COLUMN AccountNumber RESTART WITH 9770;
+
+CREATE TABLE HotAccounts (
+    AccountNumber INT PRIMARY KEY,
+    Slots INT NOT NULL,
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber)
+);
+
+CREATE TABLE AccountSlots (
+    AccountNumber INT,
+    Slot INT,
+    Balance DECIMAL(10, 2) NOT NULL DEFAULT 0.00,
+    PRIMARY KEY (AccountNumber, Slot),
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber)
+);
+
+CREATE TABLE Transfers (
+    TransferID INT AUTO_INCREMENT PRIMARY KEY,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    Amount DECIMAL(10, 2) NOT NULL,
+    ToAmount DECIMAL(10, 2) NOT NULL,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Posted',
+    CreatedAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (FromAccount) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (ToAccount) REFERENCES Accounts(AccountNumber)
+);
+
+CREATE INDEX TransfersBetween ON Transfers (FromAccount, ToAccount, TransferID);
+CREATE INDEX TransfersInto ON Transfers (ToAccount, TransferID);
+
+CREATE TABLE StandingOrders (
+    OrderID INT AUTO_INCREMENT PRIMARY KEY,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    Amount DECIMAL(10, 2) NOT NULL,
+    Every INT NOT NULL,
+    Unit VARCHAR(5) NOT NULL,
+    FirstRun DATETIME NOT NULL,
+    Runs INT NOT NULL DEFAULT 0,
+    NextRun DATETIME NOT NULL,
+    EndDate DATETIME NULL,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Active',
+    LastTransferID INT NULL,
+    LastError VARCHAR(100) NULL,
+    Failures INT NOT NULL DEFAULT 0,
+    FOREIGN KEY (FromAccount) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (ToAccount) REFERENCES Accounts(AccountNumber)
+);
+
+CREATE INDEX StandingOrdersDue ON StandingOrders (Status, NextRun);
+
+CREATE TABLE Transactions (
+    TransactionID INT AUTO_INCREMENT PRIMARY KEY,
+    AccountNumber INT,
+    TransactionType VARCHAR(50),
+    Amount DECIMAL(10, 2) NOT NULL,
+    TransactionDate DATETIME DEFAULT CURRENT_TIMESTAMP,
+    Currency CHAR(3) NULL,
+    TransferID INT NULL,
+    FOREIGN KEY (AccountNumber) REFERENCES Accounts(AccountNumber),
+    FOREIGN KEY (TransferID) REFERENCES Transfers(TransferID)
+);
+
+CREATE INDEX TransactionsByDate ON Transactions (TransactionDate, TransactionType);
+
+CREATE INDEX TransactionsByAccount ON Transactions (AccountNumber, TransactionDate, TransactionType, Amount);
+
+CREATE TABLE DailyTotals (
+    AccountNumber INT,
+    Day DATE,
+    TransactionType VARCHAR(50),
+    Count INT NOT NULL,
+    Total DECIMAL(18, 2) NOT NULL,
+    PRIMARY KEY (AccountNumber, Day, TransactionType)
+);
+
+CREATE TABLE TransactionsBackup (
+    TransactionID INT AUTO_INCREMENT PRIMARY KEY,
+    AccountNumber INT,
+    TransactionType VARCHAR(50),
+    Amount DECIMAL(10, 2) NOT NULL,
+    TransactionDate DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX TransactionsBackupByAccount ON TransactionsBackup (AccountNumber, TransactionType, Amount);
+
+CREATE TABLE IdempotencyKeys (
+    IdemKey VARCHAR(64) PRIMARY KEY,
+    RequestHash CHAR(64),
+    Result VARCHAR(64),
+    CreatedAt DATETIME DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IdempotencyKeysByAge ON IdempotencyKeys (CreatedAt);
+
+CREATE TABLE InterestRuns (
+    RunDay DATE PRIMARY KEY,
+    RateBasisPoints INT NOT NULL,
+    DaysInYear INT NOT NULL,
+    StartedAt DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FinishedAt DATETIME NULL
+);
+
+CREATE TABLE InterestPartitions (
+    RunDay DATE,
+    PartitionNo INT,
+    FromAccount INT NOT NULL,
+    ToAccount INT NOT NULL,
+    LastAccount INT NOT NULL,
+    Accounts INT NOT NULL DEFAULT 0,
+    Interest DECIMAL(18, 2) NOT NULL DEFAULT 0.00,
+    Status VARCHAR(20) NOT NULL DEFAULT 'Pending',
+    FinishedAt DATETIME NULL,
+    PRIMARY KEY (RunDay, PartitionNo),
+    FOREIGN KEY (RunDay) REFERENCES InterestRuns(RunDay)
+);
+
+CREATE TABLE ReplicaHeartbeat (
+    Id INT PRIMARY KEY,
+    Beat BIGINT NOT NULL
+);
+
+CREATE VIEW UserAccounts AS
+SELECT Users.*, Accounts.AccountNumber, Accounts.Balance, Accounts.Currency
+FROM Users
+JOIN Accounts ON Users.UserID = Accounts.UserID;
+
+CREATE VIEW AccountBalances AS
+SELECT Accounts.AccountNumber,
+       Accounts.Balance + COALESCE((SELECT SUM(AccountSlots.Balance) FROM AccountSlots WHERE AccountSlots.AccountNumber = Accounts.AccountNumber), 0) AS Balance,
+       Accounts.Currency
+FROM Accounts;
+
+CREATE VIEW LoginPass AS
+SELECT Accounts.AccountNumber, Password
+FROM Users
+JOIN Accounts ON Users.UserID = Accounts.UserID;
+
+-- The triggers of bank.sql on Transactions, as Java classes fired in this order
+CREATE TRIGGER TagTransactionCurrency BEFORE INSERT ON Transactions FOR EACH ROW CALL 'bank.management.system.EmbeddedDatabase$TagTransactionCurrency';
+CREATE TRIGGER BackupTransaction AFTER INSERT ON Transactions FOR EACH ROW CALL 'bank.management.system.EmbeddedDatabase$BackupTransaction';
+CREATE TRIGGER UpdateAccountBalance AFTER INSERT ON Transactions FOR EACH ROW CALL 'bank.management.system.EmbeddedDatabase$UpdateAccountBalance';
+CREATE TRIGGER RollUpTransaction AFTER INSERT ON Transactions FOR EACH ROW CALL 'bank.management.system.EmbeddedDatabase$RollUpTransaction';
+
+-- Procedures
+CREATE ALIAS Deposit FOR 'bank.management.system.EmbeddedDatabase.deposit';
+CREATE ALIAS Withdraw FOR 'bank.management.system.EmbeddedDatabase.withdraw';
+CREATE ALIAS CreateUser FOR 'bank.management.system.EmbeddedDatabase.createUser';
+CREATE ALIAS CreateAccount FOR 'bank.management.system.EmbeddedDatabase.createAccount';
+CREATE ALIAS SendFunds FOR 'bank.management.system.EmbeddedDatabase.sendFunds';
+CREATE ALIAS CreateUserAndAccount FOR 'bank.management.system.EmbeddedDatabase.createUserAndAccount';
+CREATE ALIAS GetTransactionHistory FOR 'bank.management.system.EmbeddedDatabase.getTransactionHistory';
+CREATE ALIAS CountTransactions FOR 'bank.management.system.EmbeddedDatabase.countTransactions';
+CREATE ALIAS SearchTransactions FOR 'bank.management.system.EmbeddedDatabase.searchTransactions';
+CREATE ALIAS TransfersBetween FOR 'bank.management.system.EmbeddedDatabase.transfersBetween';
+CREATE ALIAS ChangePin FOR 'bank.management.system.EmbeddedDatabase.changePin';
+
+-- Same test data as bank.sql
+CALL CreateUser('Test', 'User', 'testuser@example.com', 'password123');
+CALL CreateUser('2', '2', '2@example.com', 'password123');
+CALL CreateAccount(1, 1000.00, 'INR');
+CALL CreateAccount(2, 1000.00, 'INR');
+CALL Deposit(9770, 500.00);
+CALL Withdraw(9771, 200.00);
+CALL SendFunds(9770, 9771, 300.00, 300.00);
+CALL CreateUserAndAccount('John', 'Doe', 'john.doe@example.com', 'password123');
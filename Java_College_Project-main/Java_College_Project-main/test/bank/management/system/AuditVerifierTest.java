@@ -0,0 +1,100 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * AuditVerifier on a log written by AuditLog, before and after tampering.
+ */
+public class AuditVerifierTest {
+
+    private static final int RECORDS = 1000;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = Files.createTempFile("audit", ".log");
+        AuditLog log = AuditLog.open(file, 1, 1024);
+        for (int i = 0; i < RECORDS; i++) {
+            log.append(AuditLog.POSTING, 9770 + i % 7, i, 100 * i, i % 2 == 0 ? "Deposit" : "Withdrawal");
+        }
+        log.close();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    private AuditVerifier verify(long expectedSeq, byte[] expectedHash) throws Exception {
+        AuditVerifier verifier = new AuditVerifier(file, 4, expectedSeq, expectedHash);
+        verifier.run();
+        return verifier;
+    }
+
+    @Test
+    public void intactLogVerifies() throws Exception {
+        AuditVerifier verifier = verify(0, null);
+        assertTrue(verifier.problems.toString(), verifier.problems.isEmpty());
+        assertEquals(RECORDS, verifier.records);
+        assertEquals(RECORDS, verifier.headSeq);
+        assertEquals(Files.size(file), verifier.bytes);
+
+        AuditVerifier again = verify(verifier.headSeq, verifier.head);
+        assertTrue(again.problems.toString(), again.problems.isEmpty());
+    }
+
+    @Test
+    public void changedByteBreaksTheChain() throws Exception {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            // the reference field of the first record
+            long at = AuditLog.HEADER + 30;
+            raf.seek(at);
+            int b = raf.read();
+            raf.seek(at);
+            raf.write(b ^ 0x01);
+        }
+        AuditVerifier verifier = verify(0, null);
+        assertEquals(verifier.problems.toString(), 1, verifier.problems.size());
+        assertTrue(verifier.problems.get(0), verifier.problems.get(0).startsWith("record 1 at offset " + AuditLog.HEADER));
+    }
+
+    @Test
+    public void rewrittenChainDoesNotMatchTheKeptHead() throws Exception {
+        AuditVerifier first = verify(0, null);
+        Files.delete(file);
+        AuditLog log = AuditLog.open(file, 1, 1024);
+        for (int i = 0; i < RECORDS; i++) {
+            log.append(AuditLog.POSTING, 9770, i, 1, "Deposit");
+        }
+        log.close();
+        // a chain that holds on its own, but not the one whose head was kept
+        AuditVerifier verifier = verify(first.headSeq, first.head);
+        assertEquals(verifier.problems.toString(), 1, verifier.problems.size());
+        assertTrue(verifier.problems.get(0), verifier.problems.get(0).contains("different hash"));
+    }
+
+    @Test
+    public void tornTailIsReported() throws Exception {
+        long size = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(size);
+            raf.write(new byte[] { 0, 0, 0, 90, 1, 2, 3 });
+        }
+        AuditVerifier verifier = verify(0, null);
+        assertEquals(RECORDS, verifier.records);
+        assertEquals(verifier.problems.toString(), 1, verifier.problems.size());
+        assertTrue(verifier.problems.get(0), verifier.problems.get(0).startsWith("no whole record at offset " + size));
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigInteger;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * FxRates.mulDiv, checked against BigInteger.
+ */
+public class FxRatesTest {
+
+    @Test
+    public void roundsHalfUp() {
+        assertEquals(11, FxRates.mulDiv(7, 3, 2));
+        assertEquals(3, FxRates.mulDiv(5, 1, 2));
+        assertEquals(1, FxRates.mulDiv(4, 1, 3));
+        assertEquals(0, FxRates.mulDiv(0, 123_456_789, 7));
+    }
+
+    @Test
+    public void productsPastSixtyFourBits() {
+        long cents = FxRates.MAX_CENTS;
+        long rate = 250 * FxRates.SCALE;
+        assertEquals(expected(cents, rate, FxRates.SCALE), FxRates.mulDiv(cents, rate, FxRates.SCALE));
+        assertEquals(Long.MAX_VALUE, FxRates.mulDiv(Long.MAX_VALUE, Long.MAX_VALUE, 3));
+        assertEquals(Long.MAX_VALUE, FxRates.mulDiv(Long.MAX_VALUE, 2, 1));
+    }
+
+    @Test
+    public void matchesBigIntegerOnRandomInputs() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            long a = (random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63);
+            long b = (random.nextLong() & Long.MAX_VALUE) >>> random.nextInt(63);
+            long d = 1 + random.nextInt(Integer.MAX_VALUE);
+            assertEquals(a + " * " + b + " / " + d, expected(a, b, d), FxRates.mulDiv(a, b, d));
+        }
+    }
+
+    /** a * b / d rounded half up, or Long.MAX_VALUE if it does not fit. */
+    private static long expected(long a, long b, long d) {
+        BigInteger[] qr = BigInteger.valueOf(a).multiply(BigInteger.valueOf(b)).divideAndRemainder(BigInteger.valueOf(d));
+        BigInteger q = qr[0];
+        if (qr[1].shiftLeft(1).compareTo(BigInteger.valueOf(d)) >= 0) {
+            q = q.add(BigInteger.ONE);
+        }
+        return q.bitLength() <= 63 ? q.longValue() : Long.MAX_VALUE;
+    }
+}
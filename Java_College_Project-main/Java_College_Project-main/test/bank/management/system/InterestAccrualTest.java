@@ -0,0 +1,53 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * The day's interest arithmetic of InterestAccrual.accrue.
+ */
+public class InterestAccrualTest {
+
+    @Test
+    public void oneDayAtAWholeCent() {
+        // 10,000.00 at 3.65% for one day of a 365 day year is exactly 1.00
+        long units = InterestAccrual.accrue(1_000_000, 0, 365, 365);
+        assertEquals(100, units / InterestAccrual.UNIT);
+        assertEquals(0, units % InterestAccrual.UNIT);
+    }
+
+    @Test
+    public void carryAddsUpToTheYearlyRate() {
+        for (int daysInYear : new int[] { 365, 366 }) {
+            long paid = 0;
+            int carry = 0;
+            for (int day = 0; day < daysInYear; day++) {
+                long units = InterestAccrual.accrue(1_000_000, carry, 365, daysInYear);
+                paid += units / InterestAccrual.UNIT;
+                carry = (int) (units % InterestAccrual.UNIT);
+            }
+            // a full year pays the annual rate to the cent, with nothing left over
+            assertEquals(36_500, paid);
+            assertEquals(0, carry);
+        }
+    }
+
+    @Test
+    public void smallBalancesKeepTheirFractionInTheCarry() {
+        long units = InterestAccrual.accrue(1, 0, 100, 365);
+        assertEquals(0, units / InterestAccrual.UNIT);
+        assertTrue(units > 0 && units < InterestAccrual.UNIT);
+        long next = InterestAccrual.accrue(1, (int) units, 100, 365);
+        assertEquals(2 * units, next);
+    }
+
+    @Test(expected = ArithmeticException.class)
+    public void overflowFailsInsteadOfWrapping() {
+        InterestAccrual.accrue(Long.MAX_VALUE / 10_000, 0, 10_000, 365);
+    }
+}
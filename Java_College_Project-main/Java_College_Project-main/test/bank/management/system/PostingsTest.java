@@ -0,0 +1,122 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Postings against the embedded database loaded from embedded.sql.
+ */
+public class PostingsTest {
+
+    private static Conn conn;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        conn = TestDatabase.use();
+    }
+
+    @Test
+    public void embeddedScriptLoadsSchemaAndSeedData() throws SQLException {
+        // CreateAccount 1000.00, then Deposit 500.00 and SendFunds 300.00 to 9771
+        assertEquals(new BigDecimal("1200.00"), TestDatabase.balance(conn, 9770));
+        assertEquals(1, TestDatabase.count(conn, "SELECT COUNT(*) FROM Transfers WHERE FromAccount = 9770 AND ToAccount = 9771"));
+        assertEquals(1, TestDatabase.count(conn, "SELECT COUNT(*) FROM UserAccounts WHERE Email = 'john.doe@example.com'"));
+    }
+
+    @Test
+    public void depositAndWithdrawMoveTheBalance() throws SQLException {
+        int account = TestDatabase.account(conn, "100.00");
+        long deposit = Postings.deposit(conn, String.valueOf(account), new BigDecimal("50.25"));
+        long withdrawal = Postings.withdraw(conn, String.valueOf(account), new BigDecimal("30.00"));
+        assertTrue(deposit > 0 && withdrawal > deposit);
+        assertEquals(new BigDecimal("120.25"), TestDatabase.balance(conn, account));
+        assertEquals(3, TestDatabase.count(conn, "SELECT COUNT(*) FROM Transactions WHERE AccountNumber = " + account));
+    }
+
+    @Test
+    public void withdrawalBeyondBalanceIsRefused() throws SQLException {
+        int account = TestDatabase.account(conn, "10.00");
+        try {
+            Postings.withdraw(conn, String.valueOf(account), new BigDecimal("10.01"));
+            fail("withdrawal over the balance was posted");
+        } catch (SQLException e) {
+            assertEquals("45000", e.getSQLState());
+        }
+        assertEquals(new BigDecimal("10.00"), TestDatabase.balance(conn, account));
+    }
+
+    @Test
+    public void transferMovesFundsAndReturnsBothLegs() throws SQLException {
+        int from = TestDatabase.account(conn, "200.00");
+        int to = TestDatabase.account(conn, "0");
+        long[] ids = Postings.transfer(conn, String.valueOf(from), String.valueOf(to), new BigDecimal("75.50"));
+        assertEquals(3, ids.length);
+        assertTrue(ids[0] > 0 && ids[1] > 0 && ids[2] > 0);
+        assertEquals(new BigDecimal("124.50"), TestDatabase.balance(conn, from));
+        assertEquals(new BigDecimal("75.50"), TestDatabase.balance(conn, to));
+    }
+
+    @Test
+    public void repeatedKeyReplaysInsteadOfPostingAgain() throws SQLException {
+        int account = TestDatabase.account(conn, "0");
+        String key = "deposit-" + account;
+        long first = Postings.deposit(conn, String.valueOf(account), new BigDecimal("40.00"), key);
+        // the same request, amount written differently
+        long again = Postings.deposit(conn, String.valueOf(account), new BigDecimal("40"), key);
+        assertEquals(first, again);
+        assertEquals(new BigDecimal("40.00"), TestDatabase.balance(conn, account));
+    }
+
+    @Test
+    public void repeatedTransferKeyReturnsTheOriginalLegs() throws SQLException {
+        int from = TestDatabase.account(conn, "100.00");
+        int to = TestDatabase.account(conn, "0");
+        String key = "transfer-" + from;
+        long[] first = Postings.transfer(conn, String.valueOf(from), String.valueOf(to), new BigDecimal("10.00"), key);
+        long[] again = Postings.transfer(conn, String.valueOf(from), String.valueOf(to), new BigDecimal("10.00"), key);
+        assertArrayEquals(first, again);
+        assertEquals(new BigDecimal("90.00"), TestDatabase.balance(conn, from));
+    }
+
+    @Test
+    public void keyReusedForAnotherRequestIsRefused() throws SQLException {
+        int account = TestDatabase.account(conn, "0");
+        String key = "mismatch-" + account;
+        Postings.deposit(conn, String.valueOf(account), new BigDecimal("5.00"), key);
+        try {
+            Postings.deposit(conn, String.valueOf(account), new BigDecimal("6.00"), key);
+            fail("a different amount was replayed under the same key");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("different request"));
+        }
+        assertEquals(new BigDecimal("5.00"), TestDatabase.balance(conn, account));
+    }
+
+    @Test
+    public void keyIsCheckedAgainstTheDatabaseAfterMemoryIsLost() throws SQLException {
+        int account = TestDatabase.account(conn, "0");
+        String key = "restart-" + account;
+        String hash = IdempotencyStore.hash("Deposit", String.valueOf(account), new BigDecimal("7.00"), null, null);
+        long[] ids = IdempotencyStore.shared().execute(conn, key, hash,
+                () -> new long[] { Postings.call(conn, "Deposit", account, new BigDecimal("7.00")) });
+        // a new store has nothing in memory, as after a restart
+        IdempotencyStore fresh = new IdempotencyStore(10, 60_000);
+        assertArrayEquals(ids, fresh.replay(conn, key, hash));
+        try {
+            fresh.replay(conn, key, IdempotencyStore.hash("Deposit", String.valueOf(account), new BigDecimal("8.00"), null, null));
+            fail("a different request was replayed from the database");
+        } catch (SQLException e) {
+            assertEquals("45000", e.getSQLState());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The embedded database the tests run against, with helpers to open
+ * accounts of their own. Call use() before anything touches Conn.
+ */
+class TestDatabase {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    static Conn use() throws IOException {
+        System.setProperty("bank.db.profile", "embedded");
+        System.setProperty("bank.audit", "false");
+        File replica = File.createTempFile("balances", ".dat");
+        replica.deleteOnExit();
+        System.setProperty("bank.replica.file", replica.getPath());
+        return new Conn();
+    }
+
+    /** Opens a new user with one INR account holding the balance, and returns its number. */
+    static int account(Conn conn, String balance) throws SQLException {
+        int n = USERS.incrementAndGet();
+        int user;
+        try (CallableStatement cs = conn.c.prepareCall("{CALL CreateUser(?, ?, ?, ?)}")) {
+            cs.setString(1, "Test" + n);
+            cs.setString(2, "User" + n);
+            cs.setString(3, "test" + n + "." + System.nanoTime() + "@example.com");
+            cs.setString(4, "password123");
+            ResultSet rs = cs.executeQuery();
+            rs.next();
+            user = rs.getInt(1);
+        }
+        try (CallableStatement cs = conn.c.prepareCall("{CALL CreateAccount(?, ?, ?)}")) {
+            cs.setInt(1, user);
+            cs.setBigDecimal(2, new BigDecimal(balance));
+            cs.setString(3, "INR");
+            cs.execute();
+        }
+        try (PreparedStatement ps = conn.c.prepareStatement("SELECT AccountNumber FROM Accounts WHERE UserID = ?")) {
+            ps.setInt(1, user);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    static BigDecimal balance(Conn conn, int accountNumber) throws SQLException {
+        try (PreparedStatement ps = conn.c.prepareStatement("SELECT Balance FROM AccountBalances WHERE AccountNumber = ?")) {
+            ps.setInt(1, accountNumber);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getBigDecimal(1);
+        }
+    }
+
+    static int count(Conn conn, String sql) throws SQLException {
+        ResultSet rs = conn.s.executeQuery(sql);
+        rs.next();
+        return rs.getInt(1);
+    }
+}
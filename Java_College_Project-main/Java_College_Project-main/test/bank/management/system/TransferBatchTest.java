@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package bank.management.system;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * TransferBatch against the embedded database.
+ */
+public class TransferBatchTest {
+
+    private static Conn conn;
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        conn = TestDatabase.use();
+    }
+
+    @Test
+    public void postsGoodLinesAndRejectsBadOnes() throws Exception {
+        int a = TestDatabase.account(conn, "100.00");
+        int b = TestDatabase.account(conn, "50.00");
+        int poor = TestDatabase.account(conn, "1.00");
+        List<TransferBatch.Transfer> transfers = List.of(
+                new TransferBatch.Transfer(a, b, new BigDecimal("30.00")),
+                new TransferBatch.Transfer(b, a, new BigDecimal("1.005")),
+                new TransferBatch.Transfer(b, a, new BigDecimal("5.00")),
+                new TransferBatch.Transfer(poor, a, new BigDecimal("2.00")),
+                new TransferBatch.Transfer(a, 1, new BigDecimal("1.00")));
+
+        assertEquals(2, new TransferBatch(100).post(conn, transfers));
+
+        assertNull(transfers.get(0).error);
+        assertTrue(transfers.get(0).transferId > 0);
+        assertEquals("Amount can have at most two decimal places.", transfers.get(1).error);
+        assertNull(transfers.get(2).error);
+        assertEquals("Insufficient funds in source account.", transfers.get(3).error);
+        assertEquals("Destination account does not exist.", transfers.get(4).error);
+        assertEquals(new BigDecimal("75.00"), TestDatabase.balance(conn, a));
+        assertEquals(new BigDecimal("75.00"), TestDatabase.balance(conn, b));
+        assertEquals(new BigDecimal("1.00"), TestDatabase.balance(conn, poor));
+    }
+
+    @Test
+    public void chunksNetManyTransfersBetweenTheSameAccounts() throws Exception {
+        int a = TestDatabase.account(conn, "1000.00");
+        int b = TestDatabase.account(conn, "100.00");
+        List<TransferBatch.Transfer> transfers = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            transfers.add(i % 5 == 4
+                    ? new TransferBatch.Transfer(b, a, new BigDecimal("1.00"))
+                    : new TransferBatch.Transfer(a, b, new BigDecimal("2.00")));
+        }
+        assertEquals(250, new TransferBatch(64).post(conn, transfers));
+        // 200 transfers of 2.00 out, 50 of 1.00 back
+        assertEquals(new BigDecimal("650.00"), TestDatabase.balance(conn, a));
+        assertEquals(new BigDecimal("450.00"), TestDatabase.balance(conn, b));
+        assertEquals(251, TestDatabase.count(conn, "SELECT COUNT(*) FROM Transactions WHERE AccountNumber = " + a));
+    }
+
+    @Test
+    public void hotSourceCountsItsSlots() throws Exception {
+        int hot = TestDatabase.account(conn, "100.00");
+        int to = TestDatabase.account(conn, "0");
+        StripedAccounts.shared().designate(conn, hot, 4);
+        List<TransferBatch.Transfer> transfers = List.of(new TransferBatch.Transfer(hot, to, new BigDecimal("80.00")));
+        assertEquals(1, new TransferBatch(10).post(conn, transfers));
+        assertEquals(new BigDecimal("20.00"), TestDatabase.balance(conn, hot));
+        assertEquals(new BigDecimal("80.00"), TestDatabase.balance(conn, to));
+    }
+}